@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /api/production/suggestion, comparing the plain
+# fat jar with the startup-optimized mode (extracted layers + JDK AOT cache from a training run). Set
+# SPRING_AOT_ENABLED=true to also measure Spring AOT, as in an image built with that build argument.
+#
+# Usage: [SPRING_AOT_ENABLED=true] scripts/startup-benchmark.sh [runs]
+set -euo pipefail
+
+RUNS="${1:-5}"
+PORT="${PORT:-18080}"
+SPRING_AOT="${SPRING_AOT_ENABLED:-false}"
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+WORK="$ROOT/build/startup-benchmark"
+
+cd "$ROOT"
+./gradlew -q bootJar -PtrainingImage
+rm -rf "$WORK" && mkdir -p "$WORK"
+cp "$(ls build/libs/*.jar | grep -v plain)" "$WORK/app.jar"
+
+(cd "$WORK" && java -Djarmode=tools -jar app.jar extract --destination optimized >/dev/null)
+(cd "$WORK/optimized" && java -XX:AOTCacheOutput=app.aot -Dspring.aot.enabled="$SPRING_AOT" -cp app.jar \
+    com.supplymanager.SupplyManagerTraining --spring.profiles.active=h2 --server.port=0 >"$WORK/training.log" 2>&1)
+
+time_to_first_suggestion() {
+    local dir="$1"; shift
+    local start end pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec java "$@" -jar app.jar --spring.profiles.active=h2 --server.port="$PORT") >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/api/production/suggestion"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "application exited before answering" >&2
+            return 1
+        fi
+        sleep 0.02
+    done
+    end=$(date +%s%N)
+    kill "$pid" && wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+report() {
+    local label="$1"; shift
+    local total=0 best=0 ms
+    for ((i = 0; i < RUNS; i++)); do
+        ms=$(time_to_first_suggestion "$@")
+        total=$((total + ms))
+        if ((best == 0 || ms < best)); then best=$ms; fi
+    done
+    printf "%-10s runs=%d avg=%dms best=%dms\n" "$label" "$RUNS" $((total / RUNS)) "$best"
+}
+
+report "fat-jar" "$WORK"
+report "optimized" "$WORK/optimized" -XX:AOTCache=app.aot -Dspring.aot.enabled="$SPRING_AOT"
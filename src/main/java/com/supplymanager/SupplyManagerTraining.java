@@ -0,0 +1,82 @@
+package com.supplymanager;
+
+import com.supplymanager.domain.dto.ProductDTO;
+import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application, exercises the real endpoints once and exits, so that a JVM started with
+ * {@code -XX:AOTCacheOutput} records the classes and profiles of a representative request mix. It is a separate
+ * entry point rather than a bean, so no application context can contain code that exits the JVM.
+ */
+public final class SupplyManagerTraining {
+
+    private static final Logger log = LoggerFactory.getLogger(SupplyManagerTraining.class);
+
+    private static final int MATERIALS = 20;
+    private static final int PRODUCTS = 50;
+    private static final int ROUNDS = 20;
+
+    private SupplyManagerTraining() {
+    }
+
+    public static void main(String[] args) {
+        SpringApplication app = new SpringApplication(SupplyManagerApplication.class);
+        // AOT mode looks up the generated initializer by the main application class
+        app.setMainApplicationClass(SupplyManagerApplication.class);
+        ConfigurableApplicationContext context = app.run(args);
+
+        RestClient client = RestClient.builder()
+                .baseUrl("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api")
+                .build();
+        long start = System.nanoTime();
+
+        List<Long> materialIds = new ArrayList<>();
+        for (int i = 0; i < MATERIALS; i++) {
+            RawMaterialDTO material = client.post().uri("/raw-materials")
+                    .body(new RawMaterialDTO(null, "TRAIN-RM-" + i, "Training material " + i, BigDecimal.valueOf(500 + i * 10)))
+                    .retrieve().body(RawMaterialDTO.class);
+            materialIds.add(material.id());
+        }
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            ProductDTO product = client.post().uri("/products")
+                    .body(new ProductDTO(null, "TRAIN-P-" + i, "Training product " + i, BigDecimal.valueOf(10 + i)))
+                    .retrieve().body(ProductDTO.class);
+            productIds.add(product.id());
+            for (int j = 0; j < 3; j++) {
+                client.post().uri("/products/{id}/raw-materials", product.id())
+                        .body(new ProductRawMaterialDTO(null, materialIds.get((i + j * 7) % MATERIALS), null, null,
+                                BigDecimal.valueOf(j + 1)))
+                        .retrieve().toBodilessEntity();
+            }
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            client.get().uri("/products").retrieve().toBodilessEntity();
+            client.get().uri("/raw-materials").retrieve().toBodilessEntity();
+            client.get().uri("/products/{id}", productIds.get(round % PRODUCTS)).retrieve().toBodilessEntity();
+            client.get().uri("/raw-materials/{id}", materialIds.get(round % MATERIALS)).retrieve().toBodilessEntity();
+            client.get().uri("/production/suggestion").retrieve().toBodilessEntity();
+            client.get().uri("/production/suggestion").accept(MediaType.parseMediaType("application/x-protobuf"))
+                    .retrieve().toBodilessEntity();
+        }
+        client.put().uri("/raw-materials/{id}", materialIds.getFirst())
+                .body(new RawMaterialDTO(null, "TRAIN-RM-0", "Training material 0", BigDecimal.valueOf(250)))
+                .retrieve().toBodilessEntity();
+        client.post().uri("/production/jobs").retrieve().toBodilessEntity();
+
+        log.info("Training run finished in {} ms, exiting", (System.nanoTime() - start) / 1_000_000);
+        System.exit(SpringApplication.exit(context));
+    }
+}
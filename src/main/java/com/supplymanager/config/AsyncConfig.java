@@ -0,0 +1,24 @@
+package com.supplymanager.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Pool for CPU-bound planning work (sensitivity sweeps, simulations, local search), kept apart from the common
+     * pool used by parallel streams elsewhere.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool planningForkJoinPool(@Value("${supplymanager.planning.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,34 @@
+package com.supplymanager.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ConnectionBudgetConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionBudgetPostProcessor(Environment environment) {
+        int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int permits = environment.getProperty("supplymanager.datasource.connection-budget.permits", Integer.class, poolSize);
+        Duration timeout = environment.getProperty("supplymanager.datasource.connection-budget.acquire-timeout",
+                Duration.class, Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ConnectionBudgetDataSource)) {
+                    return new ConnectionBudgetDataSource(dataSource, permits, timeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
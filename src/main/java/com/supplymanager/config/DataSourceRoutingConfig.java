@@ -0,0 +1,96 @@
+package com.supplymanager.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "supplymanager.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username:}")
+    private String username;
+
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Value("${spring.datasource.driver-class-name:}")
+    private String driverClassName;
+
+    private final ObjectProvider<ReplicaRoutingDataSource> routingDataSource;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public DataSourceRoutingConfig(ObjectProvider<ReplicaRoutingDataSource> routingDataSource,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReplicaRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.readYourWritesWindow());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker tracker) {
+        return new ReadYourWritesFilter(tracker);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(ReplicaRoutingProperties properties,
+                                                             ReadYourWritesTracker tracker) {
+        DataSource primary = pool("primary", url, username, password, properties.poolSize(), false);
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.replicas().size(); i++) {
+            ReplicaRoutingProperties.Replica replica = properties.replicas().get(i);
+            replicas.add(pool("replica-" + (i + 1), replica.url(), replica.username(), replica.password(),
+                    properties.poolSize(), true));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, tracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Scheduled(fixedDelayString = "${supplymanager.datasource.routing.health-check-interval:10s}")
+    public void checkReplicaHealth() {
+        routingDataSource.getObject().checkReplicas();
+    }
+
+    private DataSource pool(String name, String jdbcUrl, String user, String pass, int size, boolean readOnly) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(user);
+        config.setPassword(pass);
+        if (driverClassName != null && !driverClassName.isBlank()) {
+            config.setDriverClassName(driverClassName);
+        }
+        config.setMaximumPoolSize(size);
+        config.setReadOnly(readOnly);
+        meterRegistry.ifAvailable(registry ->
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        return new HikariDataSource(config);
+    }
+}
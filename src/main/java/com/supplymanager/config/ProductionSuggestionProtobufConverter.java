@@ -0,0 +1,93 @@
+package com.supplymanager.config;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.supplymanager.domain.dto.ProducibleProductDTO;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * Writes {@link ProductionSuggestionDTO} in the protobuf layout described by
+ * {@code proto/production_suggestion.proto}.
+ */
+public class ProductionSuggestionProtobufConverter extends AbstractHttpMessageConverter<ProductionSuggestionDTO> {
+
+    public static final MediaType APPLICATION_PROTOBUF = MediaType.parseMediaType("application/x-protobuf");
+
+    public ProductionSuggestionProtobufConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProductionSuggestionDTO.class == clazz;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ProductionSuggestionDTO readInternal(Class<? extends ProductionSuggestionDTO> clazz,
+                                                   HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf input is not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ProductionSuggestionDTO suggestion, HttpOutputMessage outputMessage)
+            throws IOException {
+        write(suggestion, outputMessage.getBody());
+    }
+
+    public static void write(ProductionSuggestionDTO suggestion, OutputStream out) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(out);
+        for (ProducibleProductDTO product : suggestion.producibleProducts()) {
+            byte[] value = product.productValue().unscaledValue().toByteArray();
+            byte[] total = product.totalValue().unscaledValue().toByteArray();
+            int size = CodedOutputStream.computeInt64Size(1, product.productId())
+                    + CodedOutputStream.computeStringSize(2, product.productCode())
+                    + CodedOutputStream.computeStringSize(3, product.productName())
+                    + nestedSize(4, decimalSize(value, product.productValue()))
+                    + CodedOutputStream.computeInt32Size(5, product.producibleQuantity())
+                    + nestedSize(6, decimalSize(total, product.totalValue()));
+
+            output.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            output.writeUInt32NoTag(size);
+            output.writeInt64(1, product.productId());
+            output.writeString(2, product.productCode());
+            output.writeString(3, product.productName());
+            writeDecimal(output, 4, value, product.productValue());
+            output.writeInt32(5, product.producibleQuantity());
+            writeDecimal(output, 6, total, product.totalValue());
+        }
+        BigDecimal totalValue = suggestion.totalProductionValue();
+        writeDecimal(output, 2, totalValue.unscaledValue().toByteArray(), totalValue);
+        output.flush();
+    }
+
+    private static int decimalSize(byte[] unscaled, BigDecimal decimal) {
+        return CodedOutputStream.computeByteArraySize(1, unscaled)
+                + CodedOutputStream.computeInt32Size(2, decimal.scale());
+    }
+
+    private static int nestedSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static void writeDecimal(CodedOutputStream output, int field, byte[] unscaled, BigDecimal decimal)
+            throws IOException {
+        output.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(decimalSize(unscaled, decimal));
+        output.writeByteArray(1, unscaled);
+        output.writeInt32(2, decimal.scale());
+    }
+}
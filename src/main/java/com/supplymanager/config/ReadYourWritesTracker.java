@@ -0,0 +1,47 @@
+package com.supplymanager.config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per client, until when reads must stay on the primary after that
+ * client's last write, so replica lag never hides the client's own changes.
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    public void bind(String clientKey) {
+        currentClient.set(clientKey);
+    }
+
+    public void unbind() {
+        currentClient.remove();
+    }
+
+    public void recordWrite() {
+        String client = currentClient.get();
+        if (client != null) {
+            pinnedUntil.put(client, System.nanoTime() + windowNanos);
+        }
+    }
+
+    public boolean isPinnedToPrimary() {
+        String client = currentClient.get();
+        if (client == null) return false;
+        Long deadline = pinnedUntil.get(client);
+        return deadline != null && System.nanoTime() - deadline < 0;
+    }
+
+    public void evictExpired() {
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(deadline -> now - deadline >= 0);
+    }
+}
@@ -0,0 +1,119 @@
+package com.supplymanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round-robin) and everything else,
+ * including reads inside a client's read-your-writes window, to the primary.
+ * Must be wrapped in a lazy connection proxy so the read-only flag is known when
+ * the connection is actually fetched.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> unhealthy = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger next = new AtomicInteger();
+    private final ReadYourWritesTracker tracker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources,
+                                    ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+        this.primary = primary;
+        this.replicas = new HashMap<>();
+        this.replicaKeys = new ArrayList<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            String key = "replica-" + (i + 1);
+            replicas.put(key, replicaDataSources.get(i));
+            replicaKeys.add(key);
+        }
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                tracker.recordWrite();
+            }
+            return PRIMARY;
+        }
+        if (tracker.isPinnedToPrimary()) {
+            return PRIMARY;
+        }
+        return nextHealthyReplica();
+    }
+
+    public void checkReplicas() {
+        for (String key : replicaKeys) {
+            boolean healthy;
+            try (Connection connection = replicas.get(key).getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (Exception ex) {
+                healthy = false;
+            }
+            if (healthy && unhealthy.remove(key)) {
+                log.info("Replica {} is healthy again", key);
+            } else if (!healthy && unhealthy.add(key)) {
+                log.warn("Replica {} failed its health check, routing its reads to the primary", key);
+            }
+        }
+        tracker.evictExpired();
+    }
+
+    /**
+     * Closes the primary and replica pools; called by the container on shutdown.
+     */
+    @Override
+    public void close() throws Exception {
+        for (String key : replicaKeys) {
+            closeQuietly(key, replicas.get(key));
+        }
+        closeQuietly(PRIMARY, primary);
+    }
+
+    private void closeQuietly(String key, DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception ex) {
+                log.warn("Failed to close data source {}", key, ex);
+            }
+        }
+    }
+
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        for (int attempt = 0; attempt < size; attempt++) {
+            String key = replicaKeys.get(Math.floorMod(next.getAndIncrement(), size));
+            if (!unhealthy.contains(key)) {
+                return key;
+            }
+        }
+        return PRIMARY;
+    }
+}
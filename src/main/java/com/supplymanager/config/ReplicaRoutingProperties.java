@@ -0,0 +1,19 @@
+package com.supplymanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "supplymanager.datasource.routing")
+public record ReplicaRoutingProperties(
+    boolean enabled,
+    @DefaultValue("10") int poolSize,
+    @DefaultValue("5s") Duration readYourWritesWindow,
+    @DefaultValue("10s") Duration healthCheckInterval,
+    @DefaultValue List<Replica> replicas
+) {
+
+    public record Replica(String url, String username, String password) {}
+}
@@ -0,0 +1,58 @@
+package com.supplymanager.controller;
+
+import com.supplymanager.domain.dto.MaterialPlanDTO;
+import com.supplymanager.domain.dto.ProductionOrderDTO;
+import com.supplymanager.domain.dto.ScheduledReceiptDTO;
+import com.supplymanager.service.MrpService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/mrp")
+public class MrpController {
+
+    @Autowired
+    private MrpService mrpService;
+
+    @GetMapping
+    public ResponseEntity<MaterialPlanDTO> plan() {
+        return ResponseEntity.ok(mrpService.plan());
+    }
+
+    @GetMapping("/receipts")
+    public ResponseEntity<List<ScheduledReceiptDTO>> findReceipts() {
+        return ResponseEntity.ok(mrpService.findReceipts());
+    }
+
+    @PostMapping("/receipts")
+    public ResponseEntity<ScheduledReceiptDTO> createReceipt(@Valid @RequestBody ScheduledReceiptDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(mrpService.createReceipt(dto));
+    }
+
+    @DeleteMapping("/receipts/{id}")
+    public ResponseEntity<Void> deleteReceipt(@PathVariable Long id) {
+        mrpService.deleteReceipt(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/orders")
+    public ResponseEntity<List<ProductionOrderDTO>> findOrders() {
+        return ResponseEntity.ok(mrpService.findOrders());
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<ProductionOrderDTO> createOrder(@Valid @RequestBody ProductionOrderDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(mrpService.createOrder(dto));
+    }
+
+    @DeleteMapping("/orders/{id}")
+    public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
+        mrpService.deleteOrder(id);
+        return ResponseEntity.noContent().build();
+    }
+}
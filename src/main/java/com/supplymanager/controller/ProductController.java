@@ -1,12 +1,18 @@
 package com.supplymanager.controller;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ProductConstraintsDTO;
 import com.supplymanager.domain.dto.ProductDTO;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,13 +24,21 @@ public class ProductController {
     private ProductService productService;
 
     @GetMapping
-    public ResponseEntity<List<ProductDTO>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<List<ProductDTO>> findAll(WebRequest request) {
+        VersionStamp version = productService.findAllVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.findById(id));
+    public ResponseEntity<ProductDTO> findById(@PathVariable Long id, WebRequest request) {
+        VersionStamp version = productService.findVersion(id);
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productService.findById(id));
     }
 
     @PostMapping
@@ -37,9 +51,25 @@ public class ProductController {
         return ResponseEntity.ok(productService.update(id, dto));
     }
 
+    @GetMapping("/{id}/constraints")
+    public ResponseEntity<ProductConstraintsDTO> findConstraints(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.findConstraints(id));
+    }
+
+    @PutMapping("/{id}/constraints")
+    public ResponseEntity<ProductConstraintsDTO> updateConstraints(@PathVariable Long id,
+                                                                   @Valid @RequestBody ProductConstraintsDTO dto) {
+        return ResponseEntity.ok(productService.updateConstraints(id, dto));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResultDTO> bulkDelete(@Valid @RequestBody BulkDeleteDTO dto) {
+        return ResponseEntity.ok(productService.deleteAll(dto));
+    }
 }
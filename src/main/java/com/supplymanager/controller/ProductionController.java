@@ -1,22 +1,126 @@
 package com.supplymanager.controller;
 
+import com.supplymanager.domain.dto.ExplainedSuggestionDTO;
+import com.supplymanager.domain.dto.OptimizedSuggestionDTO;
+import com.supplymanager.domain.dto.PlanningJobDTO;
 import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.dto.ReplenishmentDTO;
+import com.supplymanager.domain.dto.ReplenishmentRequestDTO;
+import com.supplymanager.domain.dto.SensitivityDTO;
+import com.supplymanager.domain.dto.SimulationDTO;
+import com.supplymanager.domain.dto.SimulationRequestDTO;
+import com.supplymanager.service.PlanningCoordinator;
+import com.supplymanager.service.PlanningJobService;
 import com.supplymanager.service.ProductionService;
+import com.supplymanager.service.ReplenishmentService;
+import com.supplymanager.service.SensitivityService;
+import com.supplymanager.service.SimulationService;
+import com.supplymanager.service.SuggestionPrecomputer;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/production")
 public class ProductionController {
 
+    @Autowired
+    private PlanningCoordinator planningCoordinator;
+
+    @Autowired
+    private PlanningJobService planningJobService;
+
     @Autowired
     private ProductionService productionService;
 
+    @Autowired
+    private SensitivityService sensitivityService;
+
+    @Autowired
+    private ReplenishmentService replenishmentService;
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private SuggestionPrecomputer suggestionPrecomputer;
+
     @GetMapping("/suggestion")
-    public ResponseEntity<ProductionSuggestionDTO> getSuggestion() {
-        return ResponseEntity.ok(productionService.calculateSuggestion());
+    public ResponseEntity<ProductionSuggestionDTO> getSuggestion(WebRequest request) {
+        if (!suggestionPrecomputer.isEnabled()) {
+            return ResponseEntity.ok(planningCoordinator.suggestion());
+        }
+        SuggestionPrecomputer.Precomputed latest = suggestionPrecomputer.latest();
+        if (request.checkNotModified(latest.eTag(), latest.dataModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(latest.age().toSeconds()))
+                .cacheControl(CacheControl.noCache())
+                .body(latest.suggestion());
+    }
+
+    @GetMapping(value = "/suggestion", params = "explain=true")
+    public ResponseEntity<ExplainedSuggestionDTO> getExplainedSuggestion() {
+        return ResponseEntity.ok(productionService.explainSuggestion());
+    }
+
+    @GetMapping("/suggestion/optimized")
+    public ResponseEntity<OptimizedSuggestionDTO> getOptimizedSuggestion(
+            @RequestParam(defaultValue = "2000") long timeLimitMs) {
+        return ResponseEntity.ok(planningCoordinator.optimizedSuggestion(Duration.ofMillis(timeLimitMs)));
+    }
+
+    @GetMapping("/sensitivity")
+    public ResponseEntity<SensitivityDTO> getSensitivity(
+            @RequestParam(defaultValue = "1,10,100") List<BigDecimal> steps) {
+        return ResponseEntity.ok(sensitivityService.sensitivity(steps));
+    }
+
+    @PostMapping("/replenishment")
+    public ResponseEntity<ReplenishmentDTO> replenishment(@Valid @RequestBody ReplenishmentRequestDTO request) {
+        return ResponseEntity.ok(replenishmentService.replenishment(request));
+    }
+
+    @PostMapping("/simulation")
+    public ResponseEntity<SimulationDTO> simulate(@Valid @RequestBody SimulationRequestDTO request) {
+        return ResponseEntity.ok(simulationService.simulate(request));
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<PlanningJobDTO> submitJob() {
+        PlanningJobDTO job = planningJobService.submit();
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/production/jobs/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<PlanningJobDTO> getJob(@PathVariable Long id) {
+        return ResponseEntity.ok(planningJobService.find(id));
+    }
+
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<ProductionSuggestionDTO> getJobResult(@PathVariable Long id) {
+        return planningJobService.findResult(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(
+                        planningJobService.find(id).status().isFinished() ? HttpStatus.CONFLICT : HttpStatus.ACCEPTED)
+                        .build());
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<PlanningJobDTO> cancelJob(@PathVariable Long id) {
+        return ResponseEntity.ok(planningJobService.cancel(id));
     }
 }
@@ -1,13 +1,27 @@
 package com.supplymanager.controller;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ImpactDTO;
+import com.supplymanager.domain.dto.PurchasingTermsDTO;
 import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.StockAtDTO;
+import com.supplymanager.domain.dto.StockHistoryDTO;
+import com.supplymanager.domain.dto.WhereUsedDTO;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.service.RawMaterialService;
+import com.supplymanager.service.StockHistoryService;
+import com.supplymanager.service.WhereUsedService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -17,14 +31,62 @@ public class RawMaterialController {
     @Autowired
     private RawMaterialService rawMaterialService;
 
+    @Autowired
+    private WhereUsedService whereUsedService;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
     @GetMapping
-    public ResponseEntity<List<RawMaterialDTO>> findAll() {
-        return ResponseEntity.ok(rawMaterialService.findAll());
+    public ResponseEntity<List<RawMaterialDTO>> findAll(WebRequest request) {
+        VersionStamp version = rawMaterialService.findAllVersion();
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(rawMaterialService.findAll());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<RawMaterialDTO> findById(@PathVariable Long id) {
-        return ResponseEntity.ok(rawMaterialService.findById(id));
+    public ResponseEntity<RawMaterialDTO> findById(@PathVariable Long id, WebRequest request) {
+        VersionStamp version = rawMaterialService.findVersion(id);
+        if (request.checkNotModified(version.eTag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(rawMaterialService.findById(id));
+    }
+
+    @GetMapping("/{id}/where-used")
+    public ResponseEntity<WhereUsedDTO> whereUsed(@PathVariable Long id) {
+        return ResponseEntity.ok(whereUsedService.whereUsed(id));
+    }
+
+    @GetMapping("/{id}/impact")
+    public ResponseEntity<ImpactDTO> impact(@PathVariable Long id, @RequestParam BigDecimal delta) {
+        return ResponseEntity.ok(whereUsedService.impact(id, delta));
+    }
+
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockAtDTO> stockAt(@PathVariable Long id, @RequestParam Instant at) {
+        return ResponseEntity.ok(stockHistoryService.stockAt(id, at));
+    }
+
+    @GetMapping("/{id}/stock-history")
+    public ResponseEntity<StockHistoryDTO> stockHistory(@PathVariable Long id,
+                                                        @RequestParam(required = false) Instant from,
+                                                        @RequestParam(required = false) Instant to,
+                                                        @RequestParam(defaultValue = "500") int points) {
+        return ResponseEntity.ok(stockHistoryService.history(id, from, to, points));
+    }
+
+    @GetMapping("/{id}/purchasing")
+    public ResponseEntity<PurchasingTermsDTO> findPurchasingTerms(@PathVariable Long id) {
+        return ResponseEntity.ok(rawMaterialService.findPurchasingTerms(id));
+    }
+
+    @PutMapping("/{id}/purchasing")
+    public ResponseEntity<PurchasingTermsDTO> updatePurchasingTerms(@PathVariable Long id,
+                                                                    @Valid @RequestBody PurchasingTermsDTO dto) {
+        return ResponseEntity.ok(rawMaterialService.updatePurchasingTerms(id, dto));
     }
 
     @PostMapping
@@ -42,4 +104,9 @@ public class RawMaterialController {
         rawMaterialService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResultDTO> bulkDelete(@Valid @RequestBody BulkDeleteDTO dto) {
+        return ResponseEntity.ok(rawMaterialService.deleteAll(dto));
+    }
 }
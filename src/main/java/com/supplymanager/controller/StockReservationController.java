@@ -0,0 +1,36 @@
+package com.supplymanager.controller;
+
+import com.supplymanager.domain.dto.StockReservationDTO;
+import com.supplymanager.domain.dto.StockReservationRequestDTO;
+import com.supplymanager.service.StockReservationService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/reservations")
+public class StockReservationController {
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<StockReservationDTO> reserve(@Valid @RequestBody StockReservationRequestDTO request) {
+        StockReservationDTO reservation = reservationService.reserve(request);
+        return ResponseEntity.created(URI.create("/api/reservations/" + reservation.id())).body(reservation);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockReservationDTO> findById(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationService.findById(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id) {
+        reservationService.release(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record BulkDeleteDTO(
+    @Size(max = 10000) List<@NotNull Long> ids,
+    String codePrefix
+) {
+
+    @AssertTrue(message = "ids or codePrefix is required")
+    public boolean isSelective() {
+        return (ids != null && !ids.isEmpty()) || (codePrefix != null && !codePrefix.isBlank());
+    }
+}
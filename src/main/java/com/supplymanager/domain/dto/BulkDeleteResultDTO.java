@@ -0,0 +1,6 @@
+package com.supplymanager.domain.dto;
+
+public record BulkDeleteResultDTO(
+    int deleted,
+    int compositionsDeleted
+) {}
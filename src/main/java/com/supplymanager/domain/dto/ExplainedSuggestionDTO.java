@@ -0,0 +1,10 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ExplainedSuggestionDTO(
+    List<ProducibleProductDTO> producibleProducts,
+    BigDecimal totalProductionValue,
+    List<ProductDecisionDTO> decisions
+) {}
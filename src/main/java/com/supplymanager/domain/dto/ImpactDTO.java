@@ -0,0 +1,11 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ImpactDTO(
+    Long rawMaterialId,
+    BigDecimal delta,
+    List<ProductImpactDTO> affectedProducts,
+    BigDecimal totalValueChange
+) {}
@@ -0,0 +1,7 @@
+package com.supplymanager.domain.dto;
+
+public enum LimitingFactor {
+    MATERIAL,
+    MAXIMUM_QUANTITY,
+    NO_MATERIALS
+}
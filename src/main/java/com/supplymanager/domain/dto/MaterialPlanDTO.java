@@ -0,0 +1,11 @@
+package com.supplymanager.domain.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record MaterialPlanDTO(
+    LocalDate startDate,
+    int horizonDays,
+    List<MaterialProjectionDTO> materials,
+    List<ProductAvailabilityDTO> products
+) {}
@@ -0,0 +1,12 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record MaterialProjectionDTO(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    String rawMaterialName,
+    List<BigDecimal> projectedOnHand,
+    List<BigDecimal> available
+) {}
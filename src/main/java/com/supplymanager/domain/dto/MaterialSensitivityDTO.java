@@ -0,0 +1,11 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record MaterialSensitivityDTO(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    String rawMaterialName,
+    List<BigDecimal> valueGains
+) {}
@@ -0,0 +1,15 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+
+public record MaterialShortageDTO(
+    Long rawMaterialId,
+    String rawMaterialCode,
+    String rawMaterialName,
+    BigDecimal requiredQuantity,
+    BigDecimal stockQuantity,
+    BigDecimal shortage,
+    BigDecimal packSize,
+    BigDecimal minOrderQuantity,
+    BigDecimal purchaseQuantity
+) {}
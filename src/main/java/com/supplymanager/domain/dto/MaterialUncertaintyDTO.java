@@ -0,0 +1,13 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+
+public record MaterialUncertaintyDTO(
+    @NotNull Long rawMaterialId,
+    @DecimalMin("0") BigDecimal stdDev,
+    @DecimalMin("0") BigDecimal incomingQuantity,
+    @DecimalMin("0") @DecimalMax("1") BigDecimal incomingProbability
+) {}
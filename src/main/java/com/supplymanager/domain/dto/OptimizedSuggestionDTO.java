@@ -0,0 +1,14 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record OptimizedSuggestionDTO(
+    List<ProducibleProductDTO> producibleProducts,
+    BigDecimal totalProductionValue,
+    BigDecimal greedyProductionValue,
+    BigDecimal improvement,
+    long convergenceMillis,
+    long elapsedMillis,
+    long moves
+) {}
@@ -0,0 +1,13 @@
+package com.supplymanager.domain.dto;
+
+import java.time.Instant;
+
+public record PlanningJobDTO(
+    Long id,
+    PlanningJobStatus status,
+    int processedProducts,
+    int totalProducts,
+    Instant submittedAt,
+    Instant finishedAt,
+    String error
+) {}
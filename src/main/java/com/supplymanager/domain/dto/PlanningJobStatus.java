@@ -0,0 +1,14 @@
+package com.supplymanager.domain.dto;
+
+public enum PlanningJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED,
+    TIMED_OUT;
+
+    public boolean isFinished() {
+        return this != QUEUED && this != RUNNING;
+    }
+}
@@ -0,0 +1,18 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+
+public record ProductConstraintsDTO(
+    @Min(0) Integer maxQuantity,
+    @Min(0) Integer minQuantity,
+    @Min(0) Integer committedQuantity
+) {
+
+    @AssertTrue(message = "minQuantity and committedQuantity must not exceed maxQuantity")
+    public boolean isWithinMaximum() {
+        if (maxQuantity == null) return true;
+        return (minQuantity == null || minQuantity <= maxQuantity)
+                && (committedQuantity == null || committedQuantity <= maxQuantity);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.util.Collections;
 import java.util.List;
 
 public record ProductDTO(
@@ -12,4 +13,13 @@ public record ProductDTO(
     @NotBlank String name,
     @NotNull @DecimalMin("0.01") BigDecimal value,
     List<ProductRawMaterialDTO> rawMaterials
-) {}
+) {
+
+    public ProductDTO(Long id, String code, String name, BigDecimal value) {
+        this(id, code, name, value, Collections.emptyList());
+    }
+
+    public ProductDTO withRawMaterials(List<ProductRawMaterialDTO> rawMaterials) {
+        return new ProductDTO(id, code, name, value, rawMaterials);
+    }
+}
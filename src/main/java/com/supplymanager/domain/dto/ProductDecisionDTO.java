@@ -0,0 +1,16 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+
+public record ProductDecisionDTO(
+    Long productId,
+    String productCode,
+    String productName,
+    int plannedQuantity,
+    LimitingFactor limitedBy,
+    Long limitingRawMaterialId,
+    String limitingRawMaterialCode,
+    BigDecimal availableQuantity,
+    BigDecimal requiredQuantity,
+    BigDecimal remainingQuantity
+) {}
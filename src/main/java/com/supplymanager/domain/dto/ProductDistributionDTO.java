@@ -0,0 +1,10 @@
+package com.supplymanager.domain.dto;
+
+import java.util.List;
+
+public record ProductDistributionDTO(
+    Long productId,
+    String productCode,
+    String productName,
+    List<Integer> quantities
+) {}
@@ -0,0 +1,13 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+
+public record ProductImpactDTO(
+    Long productId,
+    String productCode,
+    String productName,
+    int currentQuantity,
+    int projectedQuantity,
+    int quantityChange,
+    BigDecimal valueChange
+) {}
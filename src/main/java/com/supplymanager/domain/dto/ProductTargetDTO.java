@@ -0,0 +1,9 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record ProductTargetDTO(
+    @NotNull Long productId,
+    @NotNull @Min(0) Integer quantity
+) {}
@@ -0,0 +1,12 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+public record ProductionOrderDTO(
+    Long id,
+    @NotNull Long productId,
+    @NotNull LocalDate dueDate,
+    @NotNull @Min(1) Integer quantity
+) {}
@@ -0,0 +1,9 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import java.math.BigDecimal;
+
+public record PurchasingTermsDTO(
+    @DecimalMin(value = "0", inclusive = false) BigDecimal packSize,
+    @DecimalMin("0.0") BigDecimal minOrderQuantity
+) {}
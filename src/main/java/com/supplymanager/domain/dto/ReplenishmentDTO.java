@@ -0,0 +1,7 @@
+package com.supplymanager.domain.dto;
+
+import java.util.List;
+
+public record ReplenishmentDTO(
+    List<MaterialShortageDTO> shortages
+) {}
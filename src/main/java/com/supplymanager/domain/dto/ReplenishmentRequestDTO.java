@@ -0,0 +1,11 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record ReplenishmentRequestDTO(
+    @NotEmpty @Size(max = 10000) List<@NotNull @Valid ProductTargetDTO> targets
+) {}
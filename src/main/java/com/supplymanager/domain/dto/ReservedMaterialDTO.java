@@ -0,0 +1,8 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+
+public record ReservedMaterialDTO(
+    Long rawMaterialId,
+    BigDecimal quantity
+) {}
@@ -0,0 +1,13 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record ScheduledReceiptDTO(
+    Long id,
+    @NotNull Long rawMaterialId,
+    @NotNull LocalDate dueDate,
+    @NotNull @DecimalMin(value = "0", inclusive = false) BigDecimal quantity
+) {}
@@ -0,0 +1,9 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record SensitivityDTO(
+    List<BigDecimal> steps,
+    List<MaterialSensitivityDTO> materials
+) {}
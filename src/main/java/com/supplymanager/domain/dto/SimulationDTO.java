@@ -0,0 +1,13 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record SimulationDTO(
+    int simulations,
+    long seed,
+    List<BigDecimal> percentiles,
+    BigDecimal meanTotalValue,
+    List<BigDecimal> totalValue,
+    List<ProductDistributionDTO> products
+) {}
@@ -0,0 +1,18 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+public record SimulationRequestDTO(
+    @Min(1) Integer simulations,
+    Long seed,
+    @DecimalMin("0") BigDecimal defaultRelativeStdDev,
+    @Size(max = 20) List<@NotNull @DecimalMin("0") @DecimalMax("100") BigDecimal> percentiles,
+    List<@NotNull @Valid MaterialUncertaintyDTO> materials
+) {}
@@ -0,0 +1,11 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record StockAtDTO(
+    Long rawMaterialId,
+    Instant at,
+    BigDecimal stockQuantity,
+    Instant recordedAt
+) {}
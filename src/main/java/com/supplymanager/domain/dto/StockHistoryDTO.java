@@ -0,0 +1,12 @@
+package com.supplymanager.domain.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockHistoryDTO(
+    Long rawMaterialId,
+    Instant from,
+    Instant to,
+    String resolution,
+    List<StockPointDTO> points
+) {}
@@ -0,0 +1,9 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record StockPointDTO(
+    Instant at,
+    BigDecimal stockQuantity
+) {}
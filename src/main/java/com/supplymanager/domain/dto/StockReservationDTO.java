@@ -0,0 +1,12 @@
+package com.supplymanager.domain.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record StockReservationDTO(
+    Long id,
+    Long productId,
+    Integer quantity,
+    Instant expiresAt,
+    List<ReservedMaterialDTO> materials
+) {}
@@ -0,0 +1,10 @@
+package com.supplymanager.domain.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockReservationRequestDTO(
+    @NotNull Long productId,
+    @NotNull @Min(1) Integer quantity,
+    @Min(1) Long ttlSeconds
+) {}
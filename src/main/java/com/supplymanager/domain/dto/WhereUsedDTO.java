@@ -0,0 +1,8 @@
+package com.supplymanager.domain.dto;
+
+import java.util.List;
+
+public record WhereUsedDTO(
+    Long rawMaterialId,
+    List<WhereUsedProductDTO> products
+) {}
@@ -0,0 +1,12 @@
+package com.supplymanager.domain.dto;
+
+import java.math.BigDecimal;
+
+public record WhereUsedProductDTO(
+    Long productId,
+    String productCode,
+    String productName,
+    BigDecimal productValue,
+    BigDecimal requiredQuantity,
+    int plannedQuantity
+) {}
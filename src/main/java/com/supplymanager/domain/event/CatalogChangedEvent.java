@@ -0,0 +1,20 @@
+package com.supplymanager.domain.event;
+
+/**
+ * Published by the catalog services inside their transaction and delivered to listeners after commit.
+ * For {@link Resource#PRODUCT_RAW_MATERIAL} the id is the owning product's id.
+ */
+public record CatalogChangedEvent(Resource resource, Long id, Action action) {
+
+    public enum Resource {
+        PRODUCT, RAW_MATERIAL, PRODUCT_RAW_MATERIAL
+    }
+
+    public enum Action {
+        CREATED, UPDATED, DELETED
+    }
+
+    public String key() {
+        return resource + ":" + id;
+    }
+}
@@ -0,0 +1,16 @@
+package com.supplymanager.domain.event;
+
+/**
+ * Published by the MRP service when a scheduled receipt or production order is created or deleted, and
+ * delivered to listeners after commit.
+ */
+public record ScheduleChangedEvent(Resource resource, Long id, Action action) {
+
+    public enum Resource {
+        SCHEDULED_RECEIPT, PRODUCTION_ORDER
+    }
+
+    public enum Action {
+        CREATED, DELETED
+    }
+}
@@ -1,11 +1,11 @@
 package com.supplymanager.domain.model;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +13,6 @@ import java.util.List;
 @Table(name = "product")
 @Getter @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class Product {
 
     @Id
@@ -29,6 +28,35 @@ public class Product {
     @Column(name = "\"value\"", nullable = false, precision = 15, scale = 2)
     private BigDecimal value;
 
+    @Column(name = "max_quantity")
+    private Integer maxQuantity;
+
+    @Column(name = "min_quantity")
+    private Integer minQuantity;
+
+    @Column(name = "committed_quantity")
+    private Integer committedQuantity;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductRawMaterial> rawMaterials = new ArrayList<>();
+
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public Product(Long id, String code, String name, BigDecimal value, List<ProductRawMaterial> rawMaterials) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.value = value;
+        this.rawMaterials = rawMaterials;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,33 @@
+package com.supplymanager.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "production_order")
+@Getter @Setter
+@NoArgsConstructor
+public class ProductionOrder {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    public ProductionOrder(Long productId, LocalDate dueDate, Integer quantity) {
+        this.productId = productId;
+        this.dueDate = dueDate;
+        this.quantity = quantity;
+    }
+}
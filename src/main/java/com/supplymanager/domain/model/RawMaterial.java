@@ -1,11 +1,11 @@
 package com.supplymanager.domain.model;
 
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,7 +13,6 @@ import java.util.List;
 @Table(name = "raw_material")
 @Getter @Setter
 @NoArgsConstructor
-@AllArgsConstructor
 public class RawMaterial {
 
     @Id
@@ -29,6 +28,39 @@ public class RawMaterial {
     @Column(name = "stock_quantity", nullable = false, precision = 15, scale = 4)
     private BigDecimal stockQuantity;
 
+    // Written only by RawMaterialRepository.updateReservedQuantity, so holds never bump the row version
+    @Column(name = "reserved_quantity", nullable = false, precision = 15, scale = 4, insertable = false, updatable = false)
+    private BigDecimal reservedQuantity = BigDecimal.ZERO;
+
+    @Column(name = "reservation_version", nullable = false, insertable = false, updatable = false)
+    private long reservationVersion;
+
+    @Column(name = "pack_size", precision = 15, scale = 4)
+    private BigDecimal packSize;
+
+    @Column(name = "min_order_quantity", precision = 15, scale = 4)
+    private BigDecimal minOrderQuantity;
+
     @OneToMany(mappedBy = "rawMaterial", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ProductRawMaterial> products = new ArrayList<>();
+
+    @Version
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public RawMaterial(Long id, String code, String name, BigDecimal stockQuantity, List<ProductRawMaterial> products) {
+        this.id = id;
+        this.code = code;
+        this.name = name;
+        this.stockQuantity = stockQuantity;
+        this.products = products;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -0,0 +1,21 @@
+package com.supplymanager.domain.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Embeddable
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservedMaterial {
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal quantity;
+}
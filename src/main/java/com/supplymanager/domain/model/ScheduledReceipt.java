@@ -0,0 +1,34 @@
+package com.supplymanager.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "scheduled_receipt")
+@Getter @Setter
+@NoArgsConstructor
+public class ScheduledReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    @Column(nullable = false, precision = 15, scale = 4)
+    private BigDecimal quantity;
+
+    public ScheduledReceipt(Long rawMaterialId, LocalDate dueDate, BigDecimal quantity) {
+        this.rawMaterialId = rawMaterialId;
+        this.dueDate = dueDate;
+        this.quantity = quantity;
+    }
+}
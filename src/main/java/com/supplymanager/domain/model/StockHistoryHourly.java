@@ -0,0 +1,60 @@
+package com.supplymanager.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_history_hourly",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"raw_material_id", "bucket_start"}))
+@Getter @Setter
+@NoArgsConstructor
+public class StockHistoryHourly {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "open_quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal openQuantity;
+
+    @Column(name = "min_quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal minQuantity;
+
+    @Column(name = "max_quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal maxQuantity;
+
+    @Column(name = "close_quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal closeQuantity;
+
+    @Column(nullable = false)
+    private int samples;
+
+    /**
+     * Starts a bucket at the level carried over from before the bucket.
+     */
+    public StockHistoryHourly(Long rawMaterialId, Instant bucketStart, BigDecimal openQuantity) {
+        this.rawMaterialId = rawMaterialId;
+        this.bucketStart = bucketStart;
+        this.openQuantity = openQuantity;
+        this.minQuantity = openQuantity;
+        this.maxQuantity = openQuantity;
+        this.closeQuantity = openQuantity;
+    }
+
+    public void record(BigDecimal quantity) {
+        minQuantity = minQuantity.min(quantity);
+        maxQuantity = maxQuantity.max(quantity);
+        closeQuantity = quantity;
+        samples++;
+    }
+}
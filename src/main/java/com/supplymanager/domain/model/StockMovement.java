@@ -0,0 +1,34 @@
+package com.supplymanager.domain.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "stock_movement")
+@Getter @Setter
+@NoArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    @Column(name = "stock_quantity", nullable = false, precision = 15, scale = 4)
+    private BigDecimal stockQuantity;
+
+    public StockMovement(Long rawMaterialId, Instant recordedAt, BigDecimal stockQuantity) {
+        this.rawMaterialId = rawMaterialId;
+        this.recordedAt = recordedAt;
+        this.stockQuantity = stockQuantity;
+    }
+}
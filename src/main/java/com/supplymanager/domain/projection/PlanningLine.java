@@ -0,0 +1,18 @@
+package com.supplymanager.domain.projection;
+
+import java.math.BigDecimal;
+
+public record PlanningLine(
+    Long productId,
+    BigDecimal productValue,
+    Long rawMaterialId,
+    BigDecimal requiredQuantity,
+    Integer maxQuantity,
+    Integer minQuantity,
+    Integer committedQuantity
+) {
+
+    public PlanningLine(Long productId, BigDecimal productValue, Long rawMaterialId, BigDecimal requiredQuantity) {
+        this(productId, productValue, rawMaterialId, requiredQuantity, null, null, null);
+    }
+}
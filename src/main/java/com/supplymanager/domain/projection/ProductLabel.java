@@ -0,0 +1,7 @@
+package com.supplymanager.domain.projection;
+
+public record ProductLabel(
+    Long id,
+    String code,
+    String name
+) {}
@@ -0,0 +1,11 @@
+package com.supplymanager.domain.projection;
+
+import java.math.BigDecimal;
+
+public record PurchasingTerms(
+    Long rawMaterialId,
+    String code,
+    String name,
+    BigDecimal packSize,
+    BigDecimal minOrderQuantity
+) {}
@@ -0,0 +1,10 @@
+package com.supplymanager.domain.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record StockBucket(
+    Instant bucketStart,
+    BigDecimal minQuantity,
+    BigDecimal maxQuantity
+) {}
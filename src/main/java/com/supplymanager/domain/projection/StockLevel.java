@@ -0,0 +1,8 @@
+package com.supplymanager.domain.projection;
+
+import java.math.BigDecimal;
+
+public record StockLevel(
+    Long rawMaterialId,
+    BigDecimal stockQuantity
+) {}
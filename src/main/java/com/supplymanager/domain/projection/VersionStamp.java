@@ -0,0 +1,24 @@
+package com.supplymanager.domain.projection;
+
+import java.time.Instant;
+
+/**
+ * Aggregated version of one or more rows: the row count, the sum of their {@code @Version} counters and the
+ * latest modification time. Any insert, update or delete changes at least one of the three, so the stamp can
+ * validate a cached representation without loading it.
+ */
+public record VersionStamp(Long count, Long versionSum, Instant lastModified) {
+
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+
+    public String eTag() {
+        long millis = lastModified == null ? 0 : lastModified.toEpochMilli();
+        return "W/\"" + count + "-" + (versionSum == null ? 0 : versionSum) + "-" + millis + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
@@ -0,0 +1,8 @@
+package com.supplymanager.exception;
+
+public class CapacityExceededException extends RuntimeException {
+
+    public CapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,9 +1,19 @@
 package com.supplymanager.repository;
 
+import com.supplymanager.domain.dto.ProductRawMaterialDTO;
 import com.supplymanager.domain.model.ProductRawMaterial;
+import com.supplymanager.domain.projection.PlanningLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRawMaterialRepository extends JpaRepository<ProductRawMaterial, Long> {
@@ -11,4 +21,22 @@ public interface ProductRawMaterialRepository extends JpaRepository<ProductRawMa
     Optional<ProductRawMaterial> findByProductIdAndRawMaterialId(Long productId, Long rawMaterialId);
 
     void deleteByProductIdAndRawMaterialId(Long productId, Long rawMaterialId);
+
+    @Query("SELECT new com.supplymanager.domain.dto.ProductRawMaterialDTO(prm.id, rm.id, rm.code, rm.name, prm.requiredQuantity) " +
+           "FROM ProductRawMaterial prm JOIN prm.rawMaterial rm WHERE prm.product.id = :productId")
+    List<ProductRawMaterialDTO> findDTOsByProductId(Long productId);
+
+    @Query("SELECT new com.supplymanager.domain.projection.PlanningLine(p.id, p.value, prm.rawMaterial.id, prm.requiredQuantity, " +
+           "p.maxQuantity, p.minQuantity, p.committedQuantity) " +
+           "FROM ProductRawMaterial prm JOIN prm.product p ORDER BY p.value DESC, p.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PlanningLine> streamPlanningLines();
+
+    @Modifying
+    @Query("DELETE FROM ProductRawMaterial prm WHERE prm.product.id IN :productIds")
+    int deleteByProductIdIn(Collection<Long> productIds);
+
+    @Modifying
+    @Query("DELETE FROM ProductRawMaterial prm WHERE prm.rawMaterial.id IN :rawMaterialIds")
+    int deleteByRawMaterialIdIn(Collection<Long> rawMaterialIds);
 }
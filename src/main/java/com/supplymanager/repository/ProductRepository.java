@@ -1,9 +1,15 @@
 package com.supplymanager.repository;
 
+import com.supplymanager.domain.dto.ProductDTO;
 import com.supplymanager.domain.model.Product;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.domain.projection.VersionStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +18,42 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     boolean existsByCode(String code);
 
-    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.rawMaterials prm LEFT JOIN FETCH prm.rawMaterial WHERE p.id = :id")
-    Optional<Product> findByIdWithRawMaterials(Long id);
+    @Query("SELECT new com.supplymanager.domain.dto.ProductDTO(p.id, p.code, p.name, p.value) FROM Product p")
+    List<ProductDTO> findAllDTOs();
 
-    @Query("SELECT DISTINCT p FROM Product p LEFT JOIN FETCH p.rawMaterials prm LEFT JOIN FETCH prm.rawMaterial ORDER BY p.value DESC")
-    List<Product> findAllWithRawMaterialsOrderByValueDesc();
+    @Query("SELECT new com.supplymanager.domain.dto.ProductDTO(p.id, p.code, p.name, p.value) FROM Product p WHERE p.id = :id")
+    Optional<ProductDTO> findDTOById(Long id);
+
+    @Query("SELECT new com.supplymanager.domain.projection.ProductLabel(p.id, p.code, p.name) FROM Product p WHERE p.id IN :ids")
+    List<ProductLabel> findLabelsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT new com.supplymanager.domain.projection.VersionStamp(COUNT(p), SUM(p.version), MAX(p.updatedAt)) FROM Product p")
+    VersionStamp findVersionStamp();
+
+    @Query("SELECT new com.supplymanager.domain.projection.VersionStamp(COUNT(p), SUM(p.version), MAX(p.updatedAt)) FROM Product p WHERE p.id = :id")
+    VersionStamp findVersionStampById(Long id);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id FROM Product p WHERE p.code LIKE :pattern ESCAPE '!'")
+    List<Long> findIdsByCodeLike(String pattern);
+
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :now WHERE p.id = :id")
+    void touch(Long id, Instant now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :now " +
+           "WHERE p.id IN (SELECT prm.product.id FROM ProductRawMaterial prm WHERE prm.rawMaterial.id = :rawMaterialId)")
+    void touchByRawMaterialId(Long rawMaterialId, Instant now);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :now " +
+           "WHERE p.id IN (SELECT prm.product.id FROM ProductRawMaterial prm WHERE prm.rawMaterial.id IN :rawMaterialIds)")
+    int touchByRawMaterialIdIn(Collection<Long> rawMaterialIds, Instant now);
 }
@@ -0,0 +1,12 @@
+package com.supplymanager.repository;
+
+import com.supplymanager.domain.model.ProductionOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ProductionOrderRepository extends JpaRepository<ProductionOrder, Long> {
+
+    List<ProductionOrder> findAllByOrderByDueDateAscIdAsc();
+}
@@ -1,11 +1,85 @@
 package com.supplymanager.repository;
 
+import com.supplymanager.domain.dto.RawMaterialDTO;
 import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.projection.PurchasingTerms;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
 
     boolean existsByCode(String code);
+
+    @Query("SELECT new com.supplymanager.domain.dto.RawMaterialDTO(r.id, r.code, r.name, r.stockQuantity) FROM RawMaterial r")
+    List<RawMaterialDTO> findAllDTOs();
+
+    @Query("SELECT new com.supplymanager.domain.dto.RawMaterialDTO(r.id, r.code, r.name, r.stockQuantity) FROM RawMaterial r WHERE r.id = :id")
+    Optional<RawMaterialDTO> findDTOById(Long id);
+
+    /**
+     * Stock available to planning: on hand minus what active reservations hold.
+     */
+    @Query("SELECT new com.supplymanager.domain.projection.StockLevel(r.id, r.stockQuantity - r.reservedQuantity) FROM RawMaterial r")
+    List<StockLevel> findAllStockLevels();
+
+    /**
+     * Locks one material, serializing the writers of its stock history.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RawMaterial r WHERE r.id = :id")
+    Optional<RawMaterial> findByIdForUpdate(Long id);
+
+    /**
+     * Locks the materials in id order, so concurrent reservations of overlapping BOMs cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RawMaterial r WHERE r.id IN :ids ORDER BY r.id")
+    List<RawMaterial> findAllByIdInForUpdate(Collection<Long> ids);
+
+    @Query("SELECT new com.supplymanager.domain.projection.VersionStamp(COUNT(r), SUM(r.version), MAX(r.updatedAt)) FROM RawMaterial r")
+    VersionStamp findVersionStamp();
+
+    /**
+     * Like {@link #findVersionStamp()}, but also moves when reserved quantities change, for caches of plans
+     * that subtract them from the stock.
+     */
+    @Query("SELECT new com.supplymanager.domain.projection.VersionStamp(COUNT(r), SUM(r.version + r.reservationVersion), MAX(r.updatedAt)) FROM RawMaterial r")
+    VersionStamp findPlanningStamp();
+
+    @Query("SELECT new com.supplymanager.domain.projection.VersionStamp(COUNT(r), SUM(r.version), MAX(r.updatedAt)) FROM RawMaterial r WHERE r.id = :id")
+    VersionStamp findVersionStampById(Long id);
+
+    @Query("SELECT new com.supplymanager.domain.projection.PurchasingTerms(r.id, r.code, r.name, r.packSize, r.minOrderQuantity) " +
+           "FROM RawMaterial r WHERE r.id IN :ids")
+    List<PurchasingTerms> findPurchasingTermsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT r.id FROM RawMaterial r WHERE r.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT r.id FROM RawMaterial r WHERE r.code LIKE :pattern ESCAPE '!'")
+    List<Long> findIdsByCodeLike(String pattern);
+
+    /**
+     * Sets what reservations hold of a material locked by the caller. Leaves {@code version} and
+     * {@code updatedAt} alone, so holds neither fail concurrent edits nor change the material's ETag.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RawMaterial r SET r.reservedQuantity = :quantity, r.reservationVersion = r.reservationVersion + 1 " +
+           "WHERE r.id = :id")
+    int updateReservedQuantity(Long id, BigDecimal quantity);
+
+    @Modifying
+    @Query("DELETE FROM RawMaterial r WHERE r.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
 }
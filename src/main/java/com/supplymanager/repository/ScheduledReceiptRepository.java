@@ -0,0 +1,12 @@
+package com.supplymanager.repository;
+
+import com.supplymanager.domain.model.ScheduledReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ScheduledReceiptRepository extends JpaRepository<ScheduledReceipt, Long> {
+
+    List<ScheduledReceipt> findAllByOrderByDueDateAscIdAsc();
+}
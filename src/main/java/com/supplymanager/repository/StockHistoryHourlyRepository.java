@@ -0,0 +1,25 @@
+package com.supplymanager.repository;
+
+import com.supplymanager.domain.model.StockHistoryHourly;
+import com.supplymanager.domain.projection.StockBucket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockHistoryHourlyRepository extends JpaRepository<StockHistoryHourly, Long> {
+
+    Optional<StockHistoryHourly> findByRawMaterialIdAndBucketStart(Long rawMaterialId, Instant bucketStart);
+
+    @Query("SELECT new com.supplymanager.domain.projection.StockBucket(h.bucketStart, h.minQuantity, h.maxQuantity) " +
+           "FROM StockHistoryHourly h WHERE h.rawMaterialId = :rawMaterialId AND h.bucketStart >= :from " +
+           "AND h.bucketStart <= :to ORDER BY h.bucketStart")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StockBucket> streamRange(Long rawMaterialId, Instant from, Instant to);
+}
@@ -0,0 +1,28 @@
+package com.supplymanager.repository;
+
+import com.supplymanager.domain.dto.StockPointDTO;
+import com.supplymanager.domain.model.StockMovement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    @Query("SELECT new com.supplymanager.domain.dto.StockPointDTO(m.recordedAt, m.stockQuantity) FROM StockMovement m " +
+           "WHERE m.rawMaterialId = :rawMaterialId AND m.recordedAt <= :at ORDER BY m.recordedAt DESC, m.id DESC")
+    List<StockPointDTO> findLatestAtOrBefore(Long rawMaterialId, Instant at, Limit limit);
+
+    @Query("SELECT new com.supplymanager.domain.dto.StockPointDTO(m.recordedAt, m.stockQuantity) FROM StockMovement m " +
+           "WHERE m.rawMaterialId = :rawMaterialId AND m.recordedAt > :from AND m.recordedAt <= :to " +
+           "ORDER BY m.recordedAt, m.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StockPointDTO> streamRange(Long rawMaterialId, Instant from, Instant to);
+}
@@ -0,0 +1,23 @@
+package com.supplymanager.repository;
+
+import com.supplymanager.domain.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.id = :id")
+    Optional<StockReservation> findByIdForUpdate(Long id);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.expiresAt <= :now ORDER BY r.expiresAt, r.id")
+    List<Long> findExpiredIds(Instant now, Limit limit);
+}
@@ -0,0 +1,62 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Resolves a {@link BulkDeleteDTO} to existing ids and splits them into chunks small enough for an
+ * {@code IN} list on every supported database.
+ */
+final class BulkSelection {
+
+    static final int CHUNK_SIZE = 500;
+
+    private BulkSelection() {
+    }
+
+    /**
+     * Existing ids matching every criterion of the selection: the listed ids and/or the code prefix.
+     */
+    static List<Long> resolve(BulkDeleteDTO selection,
+                              Function<Collection<Long>, List<Long>> existingIds,
+                              Function<String, List<Long>> idsByCodePattern) {
+        Set<Long> ids = null;
+        if (selection.ids() != null && !selection.ids().isEmpty()) {
+            ids = new LinkedHashSet<>();
+            for (List<Long> chunk : chunks(List.copyOf(new LinkedHashSet<>(selection.ids())))) {
+                ids.addAll(existingIds.apply(chunk));
+            }
+        }
+        if (selection.codePrefix() != null && !selection.codePrefix().isBlank()) {
+            List<Long> matching = idsByCodePattern.apply(prefixPattern(selection.codePrefix()));
+            if (ids == null) {
+                ids = new LinkedHashSet<>(matching);
+            } else {
+                ids.retainAll(Set.copyOf(matching));
+            }
+        }
+        return ids == null ? List.of() : new ArrayList<>(ids);
+    }
+
+    static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>((ids.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int start = 0; start < ids.size(); start += CHUNK_SIZE) {
+            chunks.add(ids.subList(start, Math.min(start + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * {@code LIKE} pattern for codes starting with {@code prefix}, escaped with {@code !} (a backslash would
+     * itself need escaping in MySQL string literals).
+     */
+    static String prefixPattern(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+}
@@ -0,0 +1,180 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.service.PendingEvents.StreamEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fans committed catalog changes and the resulting production suggestion out to SSE subscribers.
+ * Idle subscribers hold no thread (async servlet responses); a virtual thread is started only while a
+ * subscriber has pending events, and events for the same key coalesce while it is busy writing.
+ */
+@Service
+public class ChangeStreamService {
+
+    static final String SUGGESTION_KEY = "suggestion";
+    private static final String HEARTBEAT_KEY = "heartbeat";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamService.class);
+
+    private final PlanningCoordinator planningCoordinator;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-stream-", 1).factory());
+    private final ScheduledExecutorService refresher =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("suggestion-refresh").daemon().factory());
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    private final Duration timeout;
+    private final Duration debounce;
+    private final int maxSubscribers;
+    private final int maxPending;
+    private volatile ProductionSuggestionDTO lastSuggestion;
+
+    public ChangeStreamService(PlanningCoordinator planningCoordinator,
+                               @Value("${supplymanager.events.timeout:30m}") Duration timeout,
+                               @Value("${supplymanager.events.suggestion-debounce:500ms}") Duration debounce,
+                               @Value("${supplymanager.events.max-subscribers:10000}") int maxSubscribers,
+                               @Value("${supplymanager.events.max-pending:256}") int maxPending) {
+        this.planningCoordinator = planningCoordinator;
+        this.timeout = timeout;
+        this.debounce = debounce;
+        this.maxSubscribers = maxSubscribers;
+        this.maxPending = maxPending;
+    }
+
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new CapacityExceededException("Too many event stream subscribers, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, new PendingEvents(maxPending));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        ProductionSuggestionDTO suggestion = lastSuggestion;
+        if (suggestion != null) {
+            enqueue(subscriber, SUGGESTION_KEY, new StreamEvent("suggestion", suggestion));
+        } else {
+            scheduleSuggestionRefresh();
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            lastSuggestion = null;
+            return;
+        }
+        broadcast(event.key(), new StreamEvent("change", event));
+        scheduleSuggestionRefresh();
+    }
+
+    @Scheduled(fixedRateString = "${supplymanager.events.heartbeat:30s}")
+    public void heartbeat() {
+        // Comment lines keep proxies from closing idle streams and surface dead connections
+        broadcast(HEARTBEAT_KEY, new StreamEvent(null, "keep-alive"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdownNow();
+    }
+
+    private void scheduleSuggestionRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            refresher.schedule(this::refreshSuggestion, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshSuggestion() {
+        refreshScheduled.set(false);
+        if (subscribers.isEmpty()) {
+            lastSuggestion = null;
+            return;
+        }
+        try {
+            ProductionSuggestionDTO suggestion = planningCoordinator.suggestion();
+            if (!suggestion.equals(lastSuggestion)) {
+                lastSuggestion = suggestion;
+                broadcast(SUGGESTION_KEY, new StreamEvent("suggestion", suggestion));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the production suggestion for event stream subscribers", ex);
+        }
+    }
+
+    private void broadcast(String key, StreamEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, key, event);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, String key, StreamEvent event) {
+        subscriber.pending().offer(key, event);
+        if (subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            try {
+                StreamEvent event;
+                while ((event = subscriber.pending().poll()) != null) {
+                    subscriber.emitter().send(toSse(event));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter already completed
+                subscribers.remove(subscriber);
+                return;
+            } finally {
+                subscriber.sending().set(false);
+            }
+        } while (!subscriber.pending().isEmpty() && subscriber.sending().compareAndSet(false, true));
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(StreamEvent event) {
+        if (event.name() == null) {
+            return SseEmitter.event().comment(String.valueOf(event.data()));
+        }
+        SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.name());
+        return event.data() == null ? builder.data("") : builder.data(event.data(), MediaType.APPLICATION_JSON);
+    }
+
+    private record Subscriber(SseEmitter emitter, PendingEvents pending, AtomicBoolean sending) {
+
+        Subscriber(SseEmitter emitter, PendingEvents pending) {
+            this(emitter, pending, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialPlanDTO;
+import com.supplymanager.domain.dto.MaterialProjectionDTO;
+import com.supplymanager.domain.dto.ProductAvailabilityDTO;
+import com.supplymanager.domain.dto.ProductionOrderDTO;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.ScheduledReceiptDTO;
+import com.supplymanager.domain.event.ScheduleChangedEvent;
+import com.supplymanager.domain.event.ScheduleChangedEvent.Action;
+import com.supplymanager.domain.event.ScheduleChangedEvent.Resource;
+import com.supplymanager.domain.model.ProductionOrder;
+import com.supplymanager.domain.model.ScheduledReceipt;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.ProductionOrderRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.ScheduledReceiptRepository;
+import com.supplymanager.service.planning.MaterialSchedule;
+import com.supplymanager.service.planning.PlanningCatalog;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-phased material requirements planning: scheduled raw material receipts and production orders are
+ * projected over {@code supplymanager.planning.mrp.horizon-days} daily buckets starting today. The computed
+ * {@link MaterialSchedule} is kept between requests; when the only change since it was built is new receipts
+ * or orders it is updated incrementally from their due dates onward, while any product, stock or deletion
+ * change (or a new day) rebuilds it. Receipt and order changes are taken from this service's own create and
+ * delete paths after commit, like the other catalog caches, instead of being inferred from the tables.
+ * Announcements not yet drained when a schedule is rebuilt stay queued; the ids applied to the schedule make
+ * applying them again a no-op. Planning reads the primary, because an announced row or a deletion may not have
+ * reached a replica yet; an announced row that is still not found is queued again for the next plan.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class MrpService {
+
+    private record Cached(VersionStamp products, VersionStamp rawMaterials, LocalDate start, long deletions,
+                          Set<Long> receiptIds, Set<Long> orderIds, MaterialSchedule schedule,
+                          Map<Long, Integer> productIndex) {
+    }
+
+    private final PlanningCatalogProvider catalogProvider;
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ScheduledReceiptRepository receiptRepository;
+    private final ProductionOrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int horizonDays;
+    private final ZoneId zone;
+    private final Object lock = new Object();
+    private final AtomicLong deletions = new AtomicLong();
+    private final Queue<Long> addedReceipts = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> addedOrders = new ConcurrentLinkedQueue<>();
+    private Cached cached;
+
+    public MrpService(PlanningCatalogProvider catalogProvider,
+                      ProductRepository productRepository,
+                      RawMaterialRepository rawMaterialRepository,
+                      ScheduledReceiptRepository receiptRepository,
+                      ProductionOrderRepository orderRepository,
+                      ApplicationEventPublisher eventPublisher,
+                      @Value("${supplymanager.planning.mrp.horizon-days:28}") int horizonDays,
+                      @Value("${supplymanager.planning.mrp.zone:UTC}") ZoneId zone) {
+        this.catalogProvider = catalogProvider;
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.receiptRepository = receiptRepository;
+        this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.horizonDays = horizonDays;
+        this.zone = zone;
+    }
+
+    public List<ScheduledReceiptDTO> findReceipts() {
+        return receiptRepository.findAllByOrderByDueDateAscIdAsc().stream().map(this::toDTO).toList();
+    }
+
+    @Transactional
+    public ScheduledReceiptDTO createReceipt(ScheduledReceiptDTO dto) {
+        if (!rawMaterialRepository.existsById(dto.rawMaterialId())) {
+            throw new ResourceNotFoundException("RawMaterial", dto.rawMaterialId());
+        }
+        ScheduledReceipt saved = receiptRepository.save(new ScheduledReceipt(dto.rawMaterialId(), dto.dueDate(), dto.quantity()));
+        eventPublisher.publishEvent(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, saved.getId(), Action.CREATED));
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void deleteReceipt(Long id) {
+        if (!receiptRepository.existsById(id)) {
+            throw new ResourceNotFoundException("ScheduledReceipt", id);
+        }
+        receiptRepository.deleteById(id);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, id, Action.DELETED));
+    }
+
+    public List<ProductionOrderDTO> findOrders() {
+        return orderRepository.findAllByOrderByDueDateAscIdAsc().stream().map(this::toDTO).toList();
+    }
+
+    @Transactional
+    public ProductionOrderDTO createOrder(ProductionOrderDTO dto) {
+        if (!productRepository.existsById(dto.productId())) {
+            throw new ResourceNotFoundException("Product", dto.productId());
+        }
+        ProductionOrder saved = orderRepository.save(new ProductionOrder(dto.productId(), dto.dueDate(), dto.quantity()));
+        eventPublisher.publishEvent(new ScheduleChangedEvent(Resource.PRODUCTION_ORDER, saved.getId(), Action.CREATED));
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void deleteOrder(Long id) {
+        if (!orderRepository.existsById(id)) {
+            throw new ResourceNotFoundException("ProductionOrder", id);
+        }
+        orderRepository.deleteById(id);
+        eventPublisher.publishEvent(new ScheduleChangedEvent(Resource.PRODUCTION_ORDER, id, Action.DELETED));
+    }
+
+    /**
+     * Records a committed change for the next {@link #plan()}. Deletions are counted, so a schedule built
+     * before the count was bumped is rebuilt even if it was loaded after the commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (event.action() == Action.DELETED) {
+            deletions.incrementAndGet();
+        } else if (event.resource() == Resource.SCHEDULED_RECEIPT) {
+            addedReceipts.add(event.id());
+        } else {
+            addedOrders.add(event.id());
+        }
+    }
+
+    /**
+     * Projected on-hand and available stock per BOM material and feasible quantity per product for every
+     * bucket of the horizon. Receipts and orders due before today fall in the first bucket; those due after
+     * the horizon are ignored. Runs in a read-write transaction so it reads the primary, where every drained
+     * announcement has committed.
+     */
+    @Transactional
+    public MaterialPlanDTO plan() {
+        synchronized (lock) {
+            // Taken before the first query, so every change they cover committed before this transaction's reads
+            long deleted = deletions.get();
+            List<Long> receiptIds = drain(addedReceipts);
+            List<Long> orderIds = drain(addedOrders);
+
+            LocalDate start = LocalDate.now(zone);
+            VersionStamp products = productRepository.findVersionStamp();
+            VersionStamp rawMaterials = rawMaterialRepository.findPlanningStamp();
+            Cached current = cached;
+            Cached next;
+            if (current != null && current.products().equals(products) && current.rawMaterials().equals(rawMaterials)
+                    && current.start().equals(start) && current.deletions() == deleted) {
+                next = applyAdded(current, receiptIds, orderIds);
+            } else {
+                next = rebuild(products, rawMaterials, start, deleted);
+            }
+            cached = next;
+            return toDTO(next);
+        }
+    }
+
+    /**
+     * Applies the receipts and orders created since the cached schedule was built, skipping those it already
+     * contains. Only rows actually loaded are recorded as applied; the others go back to their queue.
+     */
+    private Cached applyAdded(Cached current, List<Long> receiptIds, List<Long> orderIds) {
+        receiptIds.removeAll(current.receiptIds());
+        orderIds.removeAll(current.orderIds());
+        if (receiptIds.isEmpty() && orderIds.isEmpty()) {
+            return current;
+        }
+        List<ScheduledReceipt> receipts = receiptIds.isEmpty() ? List.of() : receiptRepository.findAllById(receiptIds);
+        List<ProductionOrder> orders = orderIds.isEmpty() ? List.of() : orderRepository.findAllById(orderIds);
+        addAll(current.schedule(), current.start(), current.productIndex(), receipts, orders);
+        for (ScheduledReceipt receipt : receipts) {
+            current.receiptIds().add(receipt.getId());
+        }
+        for (ProductionOrder order : orders) {
+            current.orderIds().add(order.getId());
+        }
+        requeueMissing(receiptIds, current.receiptIds(), addedReceipts);
+        requeueMissing(orderIds, current.orderIds(), addedOrders);
+        return current;
+    }
+
+    private Cached rebuild(VersionStamp products, VersionStamp rawMaterials, LocalDate start, long deleted) {
+        PlanningCatalog catalog = catalogProvider.catalog();
+        Map<Long, Integer> productIndex = new HashMap<>();
+        for (int product = 0; product < catalog.productCount(); product++) {
+            productIndex.put(catalog.productId(product), product);
+        }
+        List<ScheduledReceipt> receipts = receiptRepository.findAll();
+        List<ProductionOrder> orders = orderRepository.findAll();
+        MaterialSchedule schedule = MaterialSchedule.of(catalog, horizonDays);
+        addAll(schedule, start, productIndex, receipts, orders);
+        Set<Long> receiptIds = new HashSet<>();
+        receipts.forEach(receipt -> receiptIds.add(receipt.getId()));
+        Set<Long> orderIds = new HashSet<>();
+        orders.forEach(order -> orderIds.add(order.getId()));
+        return new Cached(products, rawMaterials, start, deleted, receiptIds, orderIds, schedule, productIndex);
+    }
+
+    private static void requeueMissing(List<Long> ids, Set<Long> applied, Queue<Long> added) {
+        for (Long id : ids) {
+            if (!applied.contains(id)) added.add(id);
+        }
+    }
+
+    private static List<Long> drain(Queue<Long> added) {
+        List<Long> ids = new ArrayList<>();
+        for (Long id = added.poll(); id != null; id = added.poll()) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private void addAll(MaterialSchedule schedule, LocalDate start, Map<Long, Integer> productIndex,
+                        List<ScheduledReceipt> receipts, List<ProductionOrder> orders) {
+        PlanningCatalog catalog = schedule.catalog();
+        try {
+            for (ScheduledReceipt receipt : receipts) {
+                int material = catalog.materialIndex(receipt.getRawMaterialId());
+                int bucket = bucket(start, receipt.getDueDate());
+                if (material >= 0 && bucket < horizonDays) {
+                    schedule.addReceipt(material, bucket, PlanningCatalog.toUnits(receipt.getQuantity()));
+                }
+            }
+            for (ProductionOrder order : orders) {
+                Integer product = productIndex.get(order.getProductId());
+                int bucket = bucket(start, order.getDueDate());
+                if (product != null && bucket < horizonDays) {
+                    schedule.addDemand(product, bucket, order.getQuantity());
+                }
+            }
+            schedule.refresh();
+        } catch (ArithmeticException ex) {
+            cached = null;
+            throw new InvalidRequestException("scheduled quantities are too large");
+        }
+    }
+
+    private static int bucket(LocalDate start, LocalDate dueDate) {
+        long days = ChronoUnit.DAYS.between(start, dueDate);
+        return (int) Math.clamp(days, 0, Integer.MAX_VALUE);
+    }
+
+    private MaterialPlanDTO toDTO(Cached current) {
+        MaterialSchedule schedule = current.schedule();
+        PlanningCatalog catalog = schedule.catalog();
+        int buckets = schedule.buckets();
+
+        Map<Long, RawMaterialDTO> materialLabels = new HashMap<>();
+        for (RawMaterialDTO rawMaterial : rawMaterialRepository.findAllDTOs()) {
+            materialLabels.put(rawMaterial.id(), rawMaterial);
+        }
+        List<MaterialProjectionDTO> materials = new ArrayList<>(catalog.materialCount());
+        for (int material = 0; material < catalog.materialCount(); material++) {
+            RawMaterialDTO label = materialLabels.get(catalog.materialId(material));
+            if (label == null) continue; // deleted after the schedule was built
+            List<BigDecimal> onHand = new ArrayList<>(buckets);
+            List<BigDecimal> available = new ArrayList<>(buckets);
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                onHand.add(PlanningCatalog.fromUnits(schedule.onHand(material, bucket)));
+                available.add(PlanningCatalog.fromUnits(schedule.available(material, bucket)));
+            }
+            materials.add(new MaterialProjectionDTO(label.id(), label.code(), label.name(), onHand, available));
+        }
+
+        Map<Long, ProductLabel> productLabels = new HashMap<>();
+        for (ProductLabel label : productRepository.findLabelsByIdIn(current.productIndex().keySet())) {
+            productLabels.put(label.id(), label);
+        }
+        List<ProductAvailabilityDTO> products = new ArrayList<>(catalog.productCount());
+        for (int product = 0; product < catalog.productCount(); product++) {
+            ProductLabel label = productLabels.get(catalog.productId(product));
+            if (label == null) continue;
+            List<Integer> feasible = new ArrayList<>(buckets);
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                feasible.add(schedule.feasible(product, bucket));
+            }
+            products.add(new ProductAvailabilityDTO(label.id(), label.code(), label.name(), feasible));
+        }
+        return new MaterialPlanDTO(current.start(), buckets, materials, products);
+    }
+
+    private ScheduledReceiptDTO toDTO(ScheduledReceipt r) {
+        return new ScheduledReceiptDTO(r.getId(), r.getRawMaterialId(), r.getDueDate(), r.getQuantity());
+    }
+
+    private ProductionOrderDTO toDTO(ProductionOrder o) {
+        return new ProductionOrderDTO(o.getId(), o.getProductId(), o.getDueDate(), o.getQuantity());
+    }
+}
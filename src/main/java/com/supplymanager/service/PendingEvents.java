@@ -0,0 +1,52 @@
+package com.supplymanager.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-subscriber outbox of stream events keyed by what they describe, so a newer event replaces an unsent
+ * older one for the same key. When a slow subscriber accumulates more than {@code capacity} distinct keys the
+ * backlog is dropped and replaced by a single {@link #RESYNC} event telling the client to refetch.
+ */
+final class PendingEvents {
+
+    static final String RESYNC_KEY = "resync";
+    static final StreamEvent RESYNC = new StreamEvent("resync", null);
+
+    record StreamEvent(String name, Object data) {
+    }
+
+    private final Map<String, StreamEvent> events = new LinkedHashMap<>();
+    private final int capacity;
+
+    PendingEvents(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(String key, StreamEvent event) {
+        // Re-insert so the replaced event moves to the end and events keep their latest order
+        events.remove(key);
+        if (events.size() >= capacity) {
+            events.clear();
+            events.put(RESYNC_KEY, RESYNC);
+        }
+        events.put(key, event);
+    }
+
+    synchronized StreamEvent poll() {
+        Iterator<StreamEvent> iterator = events.values().iterator();
+        if (!iterator.hasNext()) return null;
+        StreamEvent event = iterator.next();
+        iterator.remove();
+        return event;
+    }
+
+    synchronized boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    synchronized int size() {
+        return events.size();
+    }
+}
@@ -0,0 +1,166 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.CatalogSnapshot;
+import com.supplymanager.service.planning.ImpactAnalysis;
+import com.supplymanager.service.planning.PlanningCatalog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the compiled product/BOM structure of the planning catalog between plans, keyed by the product
+ * {@link VersionStamp} (which every product, BOM and raw material rename/delete advances). With
+ * {@code supplymanager.planning.snapshot.path} set, the structure is also persisted as a {@link CatalogSnapshot}
+ * and served memory-mapped, so a restart can plan immediately when the file still matches the database.
+ */
+@Service
+public class PlanningCatalogProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanningCatalogProvider.class);
+
+    private record Loaded(VersionStamp version, PlanningCatalog structure) {
+    }
+
+    private record CachedBaseline(VersionStamp products, VersionStamp rawMaterials, ImpactAnalysis.Baseline plan) {
+    }
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRawMaterialRepository prmRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path snapshotFile;
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+    private final AtomicReference<CachedBaseline> baseline = new AtomicReference<>();
+    private final ExecutorService snapshotWriter =
+            Executors.newSingleThreadExecutor(Thread.ofPlatform().name("catalog-snapshot").daemon().factory());
+
+    public PlanningCatalogProvider(ProductRepository productRepository,
+                                   RawMaterialRepository rawMaterialRepository,
+                                   ProductRawMaterialRepository prmRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${supplymanager.planning.snapshot.path:}") String snapshotPath) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.prmRepository = prmRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.snapshotFile = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    /**
+     * Current catalog with fresh stock levels. Must run inside a read-only transaction; the structure is
+     * rebuilt from the database only when the stored version no longer matches.
+     */
+    public PlanningCatalog catalog() {
+        VersionStamp version = productRepository.findVersionStamp();
+        Loaded loaded = current.get();
+        PlanningCatalog structure;
+        if (loaded != null && loaded.version().equals(version)) {
+            structure = loaded.structure();
+        } else {
+            Loaded fresh = new Loaded(version, loadStructure());
+            current.set(fresh);
+            persistInBackground(fresh);
+            structure = fresh.structure();
+        }
+        return structure.withStock(rawMaterialRepository.findAllStockLevels());
+    }
+
+    /**
+     * Greedy plan of the current catalog together with the stock each BOM line saw, for what-if analysis.
+     * Kept until a product, raw material or reserved quantity changes. Must run inside a read-only transaction.
+     */
+    public ImpactAnalysis.Baseline baseline() {
+        VersionStamp products = productRepository.findVersionStamp();
+        VersionStamp rawMaterials = rawMaterialRepository.findPlanningStamp();
+        CachedBaseline cached = baseline.get();
+        if (cached != null && cached.products().equals(products) && cached.rawMaterials().equals(rawMaterials)) {
+            return cached.plan();
+        }
+        ImpactAnalysis.Baseline plan = ImpactAnalysis.baseline(catalog());
+        baseline.set(new CachedBaseline(products, rawMaterials, plan));
+        return plan;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (snapshotFile == null) return;
+        try {
+            CatalogSnapshot.read(snapshotFile)
+                    .ifPresent(mapped -> current.compareAndSet(null, new Loaded(mapped.version(), mapped.catalog())));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable planning catalog snapshot {}", snapshotFile, ex);
+        }
+        snapshotWriter.execute(this::reloadIfStale);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotWriter.shutdownNow();
+    }
+
+    private void reloadIfStale() {
+        try {
+            Loaded fresh = readOnlyTransaction.execute(status -> {
+                VersionStamp version = productRepository.findVersionStamp();
+                Loaded loaded = current.get();
+                if (loaded != null && loaded.version().equals(version)) {
+                    log.info("Planning catalog snapshot is current ({} products)", loaded.structure().productCount());
+                    return null;
+                }
+                return new Loaded(version, loadStructure());
+            });
+            if (fresh != null) {
+                log.info("Planning catalog snapshot is missing or stale, rebuilt {} products", fresh.structure().productCount());
+                current.set(fresh);
+                persist(fresh);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Background reload of the planning catalog failed", ex);
+        }
+    }
+
+    private PlanningCatalog loadStructure() {
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        try (Stream<PlanningLine> lines = prmRepository.streamPlanningLines()) {
+            lines.forEachOrdered(builder::add);
+        }
+        return builder.build();
+    }
+
+    private void persistInBackground(Loaded loaded) {
+        if (snapshotFile != null) {
+            snapshotWriter.execute(() -> persist(loaded));
+        }
+    }
+
+    private void persist(Loaded loaded) {
+        if (current.get() != loaded) return; // superseded by a newer structure
+        try {
+            CatalogSnapshot.write(snapshotFile, loaded.structure(), loaded.version());
+            // Swap the heap copy for the mapped one, unless a newer structure arrived meanwhile
+            CatalogSnapshot.read(snapshotFile).ifPresent(mapped ->
+                    current.compareAndSet(loaded, new Loaded(mapped.version(), mapped.catalog())));
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write planning catalog snapshot {}", snapshotFile, ex);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.OptimizedSuggestionDTO;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.service.planning.PlanningMetrics;
+import com.supplymanager.service.planning.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for on-demand suggestions. Concurrent requests share one in-flight computation, and a
+ * semaphore caps how many computations run at once, optimized suggestions included. Flights are keyed by a catalog generation that every
+ * committed change advances, so a request never joins a computation that started before a write it could see.
+ */
+@Service
+public class PlanningCoordinator {
+
+    private final ProductionService productionService;
+    private final PlanningMetrics metrics;
+    private final SingleFlight<Long, ProductionSuggestionDTO> flights = new SingleFlight<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Semaphore permits;
+    private final Duration admissionTimeout;
+
+    public PlanningCoordinator(ProductionService productionService,
+                               PlanningMetrics metrics,
+                               @Value("${supplymanager.planning.max-concurrent:2}") int maxConcurrent,
+                               @Value("${supplymanager.planning.admission-timeout:2s}") Duration admissionTimeout) {
+        this.productionService = productionService;
+        this.metrics = metrics;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.admissionTimeout = admissionTimeout;
+    }
+
+    public ProductionSuggestionDTO suggestion() {
+        return flights.execute(generation.get(), this::computeAdmitted, metrics::recordCoalesced);
+    }
+
+    /**
+     * Local search is randomized and bounded by the caller's time limit, so it is admitted like a plan but
+     * never shared with other requests.
+     */
+    public OptimizedSuggestionDTO optimizedSuggestion(Duration timeLimit) {
+        return admitted(() -> productionService.optimizedSuggestion(timeLimit));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private ProductionSuggestionDTO computeAdmitted() {
+        return admitted(productionService::calculateSuggestion);
+    }
+
+    private <T> T admitted(Supplier<T> computation) {
+        try {
+            if (!permits.tryAcquire(admissionTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                metrics.recordRejected();
+                throw new CapacityExceededException("Too many production plans in progress, try again later");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CapacityExceededException("Interrupted while waiting for a planning slot");
+        }
+        try {
+            metrics.recordExecuted();
+            return computation.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.PlanningJobDTO;
+import com.supplymanager.domain.dto.PlanningJobStatus;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.service.planning.PlanningJob;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class PlanningJobService {
+
+    private final ProductionService productionService;
+    private final ThreadPoolExecutor executor;
+    private final Map<Long, PlanningJob> jobs = new LinkedHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final int maxRetained;
+    private final Duration timeBudget;
+
+    public PlanningJobService(ProductionService productionService,
+                              @Value("${supplymanager.planning.jobs.workers:2}") int workers,
+                              @Value("${supplymanager.planning.jobs.queue-capacity:16}") int queueCapacity,
+                              @Value("${supplymanager.planning.jobs.max-retained:100}") int maxRetained,
+                              @Value("${supplymanager.planning.jobs.time-budget:60s}") Duration timeBudget) {
+        this.productionService = productionService;
+        this.maxRetained = maxRetained;
+        this.timeBudget = timeBudget;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("planning-job-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public PlanningJobDTO submit() {
+        PlanningJob job = new PlanningJob(ids.incrementAndGet(), timeBudget);
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            evictFinished();
+        }
+        try {
+            job.attach(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException ex) {
+            synchronized (jobs) {
+                jobs.remove(job.id());
+            }
+            throw new CapacityExceededException("Too many planning jobs in progress, try again later");
+        }
+        return job.toDTO();
+    }
+
+    public PlanningJobDTO find(Long id) {
+        return get(id).toDTO();
+    }
+
+    public Optional<ProductionSuggestionDTO> findResult(Long id) {
+        PlanningJob job = get(id);
+        return job.status() == PlanningJobStatus.COMPLETED ? Optional.of(job.result()) : Optional.empty();
+    }
+
+    public PlanningJobDTO cancel(Long id) {
+        PlanningJob job = get(id);
+        job.cancel();
+        return job.toDTO();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(PlanningJob job) {
+        if (!job.start()) return;
+        try {
+            job.complete(productionService.calculateSuggestion(job));
+        } catch (CancellationException ex) {
+            // status was already set by cancel() or by the time budget check
+        } catch (RuntimeException ex) {
+            job.fail(ex);
+        }
+    }
+
+    private PlanningJob get(Long id) {
+        synchronized (jobs) {
+            PlanningJob job = jobs.get(id);
+            if (job == null) throw new ResourceNotFoundException("PlanningJob", id);
+            return job;
+        }
+    }
+
+    private void evictFinished() {
+        Iterator<PlanningJob> iterator = jobs.values().iterator();
+        while (jobs.size() > maxRetained && iterator.hasNext()) {
+            if (iterator.next().status().isFinished()) iterator.remove();
+        }
+    }
+}
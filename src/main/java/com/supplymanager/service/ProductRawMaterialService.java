@@ -1,6 +1,9 @@
 package com.supplymanager.service;
 
 import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
 import com.supplymanager.domain.model.Product;
 import com.supplymanager.domain.model.ProductRawMaterial;
 import com.supplymanager.domain.model.RawMaterial;
@@ -9,34 +12,39 @@ import com.supplymanager.exception.ResourceNotFoundException;
 import com.supplymanager.repository.ProductRawMaterialRepository;
 import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
 public class ProductRawMaterialService {
 
     private final ProductRawMaterialRepository prmRepository;
     private final ProductRepository productRepository;
     private final RawMaterialRepository rawMaterialRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductRawMaterialService(ProductRawMaterialRepository prmRepository,
                                      ProductRepository productRepository,
-                                     RawMaterialRepository rawMaterialRepository) {
+                                     RawMaterialRepository rawMaterialRepository,
+                                     ApplicationEventPublisher eventPublisher) {
         this.prmRepository = prmRepository;
         this.productRepository = productRepository;
         this.rawMaterialRepository = rawMaterialRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ProductRawMaterialDTO> findByProductId(Long productId) {
         if (!productRepository.existsById(productId)) {
             throw new ResourceNotFoundException("Product", productId);
         }
-        Product product = productRepository.findByIdWithRawMaterials(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", productId));
-        return product.getRawMaterials().stream().map(this::toDTO).toList();
+        return prmRepository.findDTOsByProductId(productId);
     }
 
     @Transactional
@@ -55,7 +63,10 @@ public class ProductRawMaterialService {
         prm.setProduct(product);
         prm.setRawMaterial(rawMaterial);
         prm.setRequiredQuantity(dto.requiredQuantity());
-        return toDTO(prmRepository.save(prm));
+        productRepository.touch(productId, Instant.now());
+        ProductRawMaterial saved = prmRepository.save(prm);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT_RAW_MATERIAL, productId, Action.CREATED));
+        return toDTO(saved);
     }
 
     @Transactional
@@ -63,14 +74,19 @@ public class ProductRawMaterialService {
         ProductRawMaterial prm = prmRepository.findByProductIdAndRawMaterialId(productId, rawMaterialId)
                 .orElseThrow(() -> new ResourceNotFoundException("ProductRawMaterial", productId));
         prm.setRequiredQuantity(dto.requiredQuantity());
-        return toDTO(prmRepository.save(prm));
+        productRepository.touch(productId, Instant.now());
+        ProductRawMaterial saved = prmRepository.save(prm);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT_RAW_MATERIAL, productId, Action.UPDATED));
+        return toDTO(saved);
     }
 
     @Transactional
     public void remove(Long productId, Long rawMaterialId) {
         ProductRawMaterial prm = prmRepository.findByProductIdAndRawMaterialId(productId, rawMaterialId)
                 .orElseThrow(() -> new ResourceNotFoundException("ProductRawMaterial", productId));
+        productRepository.touch(productId, Instant.now());
         prmRepository.delete(prm);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT_RAW_MATERIAL, productId, Action.DELETED));
     }
 
     private ProductRawMaterialDTO toDTO(ProductRawMaterial prm) {
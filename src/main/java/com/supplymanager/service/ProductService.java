@@ -1,11 +1,20 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ProductConstraintsDTO;
 import com.supplymanager.domain.dto.ProductDTO;
-import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
 import com.supplymanager.domain.model.Product;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.exception.DuplicateResourceException;
 import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
 import com.supplymanager.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,24 +23,40 @@ import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductRawMaterialRepository prmRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ProductRawMaterialRepository prmRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.prmRepository = prmRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ProductDTO> findAll() {
-        return productRepository.findAll().stream()
-                .map(this::toDTOSimple)
-                .toList();
+        return productRepository.findAllDTOs();
     }
 
     public ProductDTO findById(Long id) {
-        Product product = productRepository.findByIdWithRawMaterials(id)
+        ProductDTO product = productRepository.findDTOById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", id));
-        return toDTOFull(product);
+        return product.withRawMaterials(prmRepository.findDTOsByProductId(id));
+    }
+
+    public VersionStamp findAllVersion() {
+        return productRepository.findVersionStamp();
+    }
+
+    public VersionStamp findVersion(Long id) {
+        VersionStamp version = productRepository.findVersionStampById(id);
+        if (!version.exists()) {
+            throw new ResourceNotFoundException("Product", id);
+        }
+        return version;
     }
 
     @Transactional
@@ -43,7 +68,9 @@ public class ProductService {
         product.setCode(dto.code());
         product.setName(dto.name());
         product.setValue(dto.value());
-        return toDTOSimple(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT, saved.getId(), Action.CREATED));
+        return toDTOSimple(saved);
     }
 
     @Transactional
@@ -56,7 +83,31 @@ public class ProductService {
         product.setCode(dto.code());
         product.setName(dto.name());
         product.setValue(dto.value());
-        return toDTOSimple(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT, id, Action.UPDATED));
+        return toDTOSimple(saved);
+    }
+
+    public ProductConstraintsDTO findConstraints(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+        return toConstraints(product);
+    }
+
+    /**
+     * Replaces the product's demand constraints; null clears a limit. Saving bumps the product version,
+     * so the planning catalog is rebuilt with the new limits on the next plan.
+     */
+    @Transactional
+    public ProductConstraintsDTO updateConstraints(Long id, ProductConstraintsDTO dto) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+        product.setMaxQuantity(dto.maxQuantity());
+        product.setMinQuantity(dto.minQuantity());
+        product.setCommittedQuantity(dto.committedQuantity());
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT, id, Action.UPDATED));
+        return toConstraints(saved);
     }
 
     @Transactional
@@ -65,21 +116,35 @@ public class ProductService {
             throw new ResourceNotFoundException("Product", id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT, id, Action.DELETED));
     }
 
-    private ProductDTO toDTOSimple(Product p) {
-        return new ProductDTO(p.getId(), p.getCode(), p.getName(), p.getValue(), Collections.emptyList());
+    /**
+     * Deletes the selected products and their compositions with set-based statements instead of loading
+     * each product's BOM collection. Removing rows changes the product version stamp, which invalidates
+     * ETags and the cached planning catalog.
+     */
+    @Transactional
+    public BulkDeleteResultDTO deleteAll(BulkDeleteDTO selection) {
+        List<Long> ids = BulkSelection.resolve(selection, productRepository::findIdsByIdIn,
+                productRepository::findIdsByCodeLike);
+        int compositions = 0;
+        int deleted = 0;
+        for (List<Long> chunk : BulkSelection.chunks(ids)) {
+            compositions += prmRepository.deleteByProductIdIn(chunk);
+            deleted += productRepository.deleteByIdIn(chunk);
+        }
+        for (Long id : ids) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(Resource.PRODUCT, id, Action.DELETED));
+        }
+        return new BulkDeleteResultDTO(deleted, compositions);
+    }
+
+    private ProductConstraintsDTO toConstraints(Product p) {
+        return new ProductConstraintsDTO(p.getMaxQuantity(), p.getMinQuantity(), p.getCommittedQuantity());
     }
 
-    private ProductDTO toDTOFull(Product p) {
-        List<ProductRawMaterialDTO> materials = p.getRawMaterials().stream()
-                .map(prm -> new ProductRawMaterialDTO(
-                        prm.getId(),
-                        prm.getRawMaterial().getId(),
-                        prm.getRawMaterial().getCode(),
-                        prm.getRawMaterial().getName(),
-                        prm.getRequiredQuantity()))
-                .toList();
-        return new ProductDTO(p.getId(), p.getCode(), p.getName(), p.getValue(), materials);
+    private ProductDTO toDTOSimple(Product p) {
+        return new ProductDTO(p.getId(), p.getCode(), p.getName(), p.getValue(), Collections.emptyList());
     }
 }
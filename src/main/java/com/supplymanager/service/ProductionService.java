@@ -1,80 +1,212 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.ExplainedSuggestionDTO;
+import com.supplymanager.domain.dto.LimitingFactor;
+import com.supplymanager.domain.dto.OptimizedSuggestionDTO;
 import com.supplymanager.domain.dto.ProducibleProductDTO;
+import com.supplymanager.domain.dto.ProductDecisionDTO;
 import com.supplymanager.domain.dto.ProductionSuggestionDTO;
-import com.supplymanager.domain.model.Product;
-import com.supplymanager.domain.model.ProductRawMaterial;
-import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.exception.InvalidRequestException;
 import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.DecisionTrace;
+import com.supplymanager.service.planning.GreedyPlanner;
+import com.supplymanager.service.planning.LocalSearch;
+import com.supplymanager.service.planning.PlanningCatalog;
+import com.supplymanager.service.planning.PlanningMetrics;
+import com.supplymanager.service.planning.PlanningProgress;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
 public class ProductionService {
 
     private final ProductRepository productRepository;
     private final RawMaterialRepository rawMaterialRepository;
-
-    public ProductionService(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository) {
+    private final PlanningCatalogProvider catalogProvider;
+    private final PlanningMetrics metrics;
+    private final ForkJoinPool pool;
+    private final Duration maxTimeLimit;
+    private final int searchWorkers;
+
+    public ProductionService(ProductRepository productRepository,
+                             RawMaterialRepository rawMaterialRepository,
+                             PlanningCatalogProvider catalogProvider,
+                             PlanningMetrics metrics,
+                             ForkJoinPool planningForkJoinPool,
+                             @Value("${supplymanager.planning.optimization.max-time-limit:30s}") Duration maxTimeLimit,
+                             @Value("${supplymanager.planning.optimization.workers:2}") int searchWorkers) {
         this.productRepository = productRepository;
         this.rawMaterialRepository = rawMaterialRepository;
+        this.catalogProvider = catalogProvider;
+        this.metrics = metrics;
+        this.pool = planningForkJoinPool;
+        this.maxTimeLimit = maxTimeLimit;
+        this.searchWorkers = searchWorkers;
     }
 
     public ProductionSuggestionDTO calculateSuggestion() {
+        return calculateSuggestion(PlanningProgress.NONE);
+    }
 
-        Map<Long, BigDecimal> availableStock = new HashMap<>();
-        for (RawMaterial rm : rawMaterialRepository.findAll()) {
-            availableStock.put(rm.getId(), rm.getStockQuantity());
-        }
-
-        List<Product> products = productRepository.findAllWithRawMaterialsOrderByValueDesc();
-
-        List<ProducibleProductDTO> producible = new ArrayList<>();
-        BigDecimal totalValue = BigDecimal.ZERO;
-
-        for (Product product : products) {
-            List<ProductRawMaterial> requirements = product.getRawMaterials();
-
-            if (requirements.isEmpty()) continue;
+    public ProductionSuggestionDTO calculateSuggestion(PlanningProgress progress) {
+        long start = System.nanoTime();
+        PlanningCatalog catalog = catalogProvider.catalog();
+        long loaded = System.nanoTime();
+        metrics.recordLoad(loaded - start);
+        progress.onProduct(0, catalog.productCount());
+
+        int[] units = GreedyPlanner.plan(catalog, catalog.stockCopy(), progress);
+        long computed = System.nanoTime();
+        metrics.recordCompute(computed - loaded);
+        metrics.recordPlan(catalog, units);
+
+        ProductionSuggestionDTO suggestion = toSuggestion(catalog, units);
+        metrics.recordSerialize(System.nanoTime() - computed);
+        return suggestion;
+    }
 
-            int maxUnits = Integer.MAX_VALUE;
-            for (ProductRawMaterial prm : requirements) {
-                BigDecimal available = availableStock.getOrDefault(prm.getRawMaterial().getId(), BigDecimal.ZERO);
-                BigDecimal required = prm.getRequiredQuantity();
-                if (required.compareTo(BigDecimal.ZERO) <= 0) continue;
+    /**
+     * The suggestion together with the value-ordered decision behind every product, in planning order: the
+     * scarcest material with its stock before and after the product was planned, or the maximum quantity when
+     * that is what stopped it. The plain suggestion does not record any of this.
+     */
+    public ExplainedSuggestionDTO explainSuggestion() {
+        PlanningCatalog catalog = catalogProvider.catalog();
+        DecisionTrace trace = new DecisionTrace(catalog.productCount());
+        int[] units = GreedyPlanner.plan(catalog, catalog.stockCopy(), PlanningProgress.NONE, trace);
+        ProductionSuggestionDTO suggestion = toSuggestion(catalog, units);
+
+        List<Long> productIds = new ArrayList<>(units.length);
+        for (int product = 0; product < units.length; product++) {
+            productIds.add(catalog.productId(product));
+        }
+        Map<Long, ProductLabel> products = new HashMap<>();
+        for (ProductLabel label : productRepository.findLabelsByIdIn(productIds)) {
+            products.put(label.id(), label);
+        }
+        Map<Long, RawMaterialDTO> materials = new HashMap<>();
+        for (RawMaterialDTO rawMaterial : rawMaterialRepository.findAllDTOs()) {
+            materials.put(rawMaterial.id(), rawMaterial);
+        }
+        List<ProductDecisionDTO> decisions = new ArrayList<>(units.length);
+        for (int product = 0; product < units.length; product++) {
+            ProductLabel label = products.get(catalog.productId(product));
+            if (label == null) continue; // deleted after the catalog was loaded
+            int line = trace.line(product);
+            if (line < 0) {
+                LimitingFactor factor = trace.limit(product) <= 0 ? LimitingFactor.MAXIMUM_QUANTITY : LimitingFactor.NO_MATERIALS;
+                decisions.add(new ProductDecisionDTO(label.id(), label.code(), label.name(), units[product], factor,
+                        null, null, null, null, null));
+                continue;
+            }
+            long required = catalog.lineRequired(line);
+            long available = trace.available(product);
+            RawMaterialDTO material = materials.get(catalog.materialId(catalog.lineMaterial(line)));
+            decisions.add(new ProductDecisionDTO(
+                    label.id(),
+                    label.code(),
+                    label.name(),
+                    units[product],
+                    trace.units(product) == trace.limit(product) ? LimitingFactor.MAXIMUM_QUANTITY : LimitingFactor.MATERIAL,
+                    catalog.materialId(catalog.lineMaterial(line)),
+                    material != null ? material.code() : null,
+                    PlanningCatalog.fromUnits(available),
+                    PlanningCatalog.fromUnits(required),
+                    PlanningCatalog.fromUnits(available - required * trace.units(product))));
+        }
+        return new ExplainedSuggestionDTO(suggestion.producibleProducts(), suggestion.totalProductionValue(), decisions);
+    }
 
-                int possible = available.divide(required, 0, RoundingMode.FLOOR).intValue();
-                maxUnits = Math.min(maxUnits, possible);
+    /**
+     * Greedy suggestion improved by {@link LocalSearch} on the planning pool for at most {@code timeLimit};
+     * the best plan found by then, which is never worth less than the greedy one. Callers go through
+     * {@link PlanningCoordinator}, which caps how many searches share the pool.
+     */
+    public OptimizedSuggestionDTO optimizedSuggestion(Duration timeLimit) {
+        if (timeLimit.isNegative() || timeLimit.isZero() || timeLimit.compareTo(maxTimeLimit) > 0) {
+            throw new InvalidRequestException("timeLimit must be positive and at most " + maxTimeLimit.toMillis() + " ms");
+        }
+        PlanningCatalog catalog = catalogProvider.catalog();
+        int[] greedy = GreedyPlanner.plan(catalog, catalog.stockCopy());
+        LocalSearch.Result result = LocalSearch.improve(catalog, greedy, timeLimit, System.nanoTime(), pool,
+                searchWorkers);
+
+        BigDecimal greedyValue = BigDecimal.ZERO;
+        for (int product = 0; product < greedy.length; product++) {
+            if (greedy[product] > 0) {
+                greedyValue = greedyValue.add(catalog.productValue(product).multiply(BigDecimal.valueOf(greedy[product])));
             }
+        }
+        ProductionSuggestionDTO suggestion = toSuggestion(catalog, result.units());
+        long convergedNanos = result.convergedNanos();
+        long moves = result.moves();
+        if (suggestion.totalProductionValue().compareTo(greedyValue) < 0) {
+            // Rounding in the search's double arithmetic accepted a move that is not an exact improvement;
+            // the greedy plan is served as found before any move
+            suggestion = toSuggestion(catalog, greedy);
+            convergedNanos = 0;
+            moves = 0;
+        }
+        return new OptimizedSuggestionDTO(
+                suggestion.producibleProducts(),
+                suggestion.totalProductionValue(),
+                greedyValue,
+                suggestion.totalProductionValue().subtract(greedyValue),
+                convergedNanos / 1_000_000,
+                result.elapsedNanos() / 1_000_000,
+                moves);
+    }
 
-            if (maxUnits == Integer.MAX_VALUE) maxUnits = 0;
+    private ProductionSuggestionDTO toSuggestion(PlanningCatalog catalog, int[] units) {
+        List<Long> producibleIds = new ArrayList<>();
+        for (int product = 0; product < units.length; product++) {
+            if (units[product] > 0) producibleIds.add(catalog.productId(product));
+        }
+
+        if (producibleIds.isEmpty()) {
+            return new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ZERO);
+        }
 
-            if (maxUnits > 0) {
-                for (ProductRawMaterial prm : requirements) {
-                    BigDecimal consumed = prm.getRequiredQuantity().multiply(BigDecimal.valueOf(maxUnits));
-                    availableStock.merge(prm.getRawMaterial().getId(), consumed, BigDecimal::subtract);
-                }
+        Map<Long, ProductLabel> labels = new HashMap<>();
+        for (ProductLabel label : productRepository.findLabelsByIdIn(producibleIds)) {
+            labels.put(label.id(), label);
+        }
 
-                BigDecimal productTotal = product.getValue().multiply(BigDecimal.valueOf(maxUnits));
-                totalValue = totalValue.add(productTotal);
+        List<ProducibleProductDTO> producible = new ArrayList<>(producibleIds.size());
+        BigDecimal totalValue = BigDecimal.ZERO;
 
-                producible.add(new ProducibleProductDTO(
-                        product.getId(),
-                        product.getCode(),
-                        product.getName(),
-                        product.getValue(),
-                        maxUnits,
-                        productTotal));
-            }
+        for (int product = 0; product < units.length; product++) {
+            if (units[product] <= 0) continue;
+
+            ProductLabel label = labels.get(catalog.productId(product));
+            if (label == null) continue; // deleted after the catalog was loaded
+            BigDecimal value = catalog.productValue(product);
+            BigDecimal productTotal = value.multiply(BigDecimal.valueOf(units[product]));
+            totalValue = totalValue.add(productTotal);
+
+            producible.add(new ProducibleProductDTO(
+                    label.id(),
+                    label.code(),
+                    label.name(),
+                    value,
+                    units[product],
+                    productTotal));
         }
 
         return new ProductionSuggestionDTO(producible, totalValue);
@@ -1,34 +1,67 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.PurchasingTermsDTO;
 import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
 import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.exception.DuplicateResourceException;
 import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
 public class RawMaterialService {
 
     private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRepository productRepository;
+    private final ProductRawMaterialRepository prmRepository;
+    private final StockHistoryService stockHistoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public RawMaterialService(RawMaterialRepository rawMaterialRepository) {
+    public RawMaterialService(RawMaterialRepository rawMaterialRepository, ProductRepository productRepository,
+                              ProductRawMaterialRepository prmRepository, StockHistoryService stockHistoryService,
+                              ApplicationEventPublisher eventPublisher) {
         this.rawMaterialRepository = rawMaterialRepository;
+        this.productRepository = productRepository;
+        this.prmRepository = prmRepository;
+        this.stockHistoryService = stockHistoryService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<RawMaterialDTO> findAll() {
-        return rawMaterialRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        return rawMaterialRepository.findAllDTOs();
     }
 
     public RawMaterialDTO findById(Long id) {
-        return toDTO(rawMaterialRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("RawMaterial", id)));
+        return rawMaterialRepository.findDTOById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("RawMaterial", id));
+    }
+
+    public VersionStamp findAllVersion() {
+        return rawMaterialRepository.findVersionStamp();
+    }
+
+    public VersionStamp findVersion(Long id) {
+        VersionStamp version = rawMaterialRepository.findVersionStampById(id);
+        if (!version.exists()) {
+            throw new ResourceNotFoundException("RawMaterial", id);
+        }
+        return version;
     }
 
     @Transactional
@@ -40,7 +73,10 @@ public class RawMaterialService {
         rawMaterial.setCode(dto.code());
         rawMaterial.setName(dto.name());
         rawMaterial.setStockQuantity(dto.stockQuantity());
-        return toDTO(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        stockHistoryService.record(saved.getId(), saved.getStockQuantity(), Instant.now());
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, saved.getId(), Action.CREATED));
+        return toDTO(saved);
     }
 
     @Transactional
@@ -50,10 +86,41 @@ public class RawMaterialService {
         if (!rawMaterial.getCode().equals(dto.code()) && rawMaterialRepository.existsByCode(dto.code())) {
             throw new DuplicateResourceException("RawMaterial with code '" + dto.code() + "' already exists");
         }
+        if (!rawMaterial.getCode().equals(dto.code()) || !rawMaterial.getName().equals(dto.name())) {
+            // Product detail embeds the material code and name, so the products using it change too
+            productRepository.touchByRawMaterialId(id, Instant.now());
+        }
+        boolean stockChanged = rawMaterial.getStockQuantity().compareTo(dto.stockQuantity()) != 0;
         rawMaterial.setCode(dto.code());
         rawMaterial.setName(dto.name());
         rawMaterial.setStockQuantity(dto.stockQuantity());
-        return toDTO(rawMaterialRepository.save(rawMaterial));
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        if (stockChanged) {
+            stockHistoryService.record(id, saved.getStockQuantity(), Instant.now());
+        }
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, id, Action.UPDATED));
+        return toDTO(saved);
+    }
+
+    public PurchasingTermsDTO findPurchasingTerms(Long id) {
+        RawMaterial rawMaterial = rawMaterialRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("RawMaterial", id));
+        return toPurchasingTerms(rawMaterial);
+    }
+
+    /**
+     * Replaces the supplier pack size and minimum order quantity used to round replenishment purchases;
+     * null clears a term.
+     */
+    @Transactional
+    public PurchasingTermsDTO updatePurchasingTerms(Long id, PurchasingTermsDTO dto) {
+        RawMaterial rawMaterial = rawMaterialRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("RawMaterial", id));
+        rawMaterial.setPackSize(dto.packSize());
+        rawMaterial.setMinOrderQuantity(dto.minOrderQuantity());
+        RawMaterial saved = rawMaterialRepository.save(rawMaterial);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, id, Action.UPDATED));
+        return toPurchasingTerms(saved);
     }
 
     @Transactional
@@ -61,7 +128,36 @@ public class RawMaterialService {
         if (!rawMaterialRepository.existsById(id)) {
             throw new ResourceNotFoundException("RawMaterial", id);
         }
+        productRepository.touchByRawMaterialId(id, Instant.now());
         rawMaterialRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, id, Action.DELETED));
+    }
+
+    /**
+     * Deletes the selected raw materials and the compositions using them with set-based statements. The
+     * products that lose a composition are touched first, as in {@link #delete}, so their ETags and the
+     * cached planning catalog are invalidated.
+     */
+    @Transactional
+    public BulkDeleteResultDTO deleteAll(BulkDeleteDTO selection) {
+        List<Long> ids = BulkSelection.resolve(selection, rawMaterialRepository::findIdsByIdIn,
+                rawMaterialRepository::findIdsByCodeLike);
+        Instant now = Instant.now();
+        int compositions = 0;
+        int deleted = 0;
+        for (List<Long> chunk : BulkSelection.chunks(ids)) {
+            productRepository.touchByRawMaterialIdIn(chunk, now);
+            compositions += prmRepository.deleteByRawMaterialIdIn(chunk);
+            deleted += rawMaterialRepository.deleteByIdIn(chunk);
+        }
+        for (Long id : ids) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, id, Action.DELETED));
+        }
+        return new BulkDeleteResultDTO(deleted, compositions);
+    }
+
+    private PurchasingTermsDTO toPurchasingTerms(RawMaterial r) {
+        return new PurchasingTermsDTO(r.getPackSize(), r.getMinOrderQuantity());
     }
 
     private RawMaterialDTO toDTO(RawMaterial rm) {
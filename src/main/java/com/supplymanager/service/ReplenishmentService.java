@@ -0,0 +1,131 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialShortageDTO;
+import com.supplymanager.domain.dto.ProductTargetDTO;
+import com.supplymanager.domain.dto.ReplenishmentDTO;
+import com.supplymanager.domain.dto.ReplenishmentRequestDTO;
+import com.supplymanager.domain.projection.PurchasingTerms;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.MaterialRequirements;
+import com.supplymanager.service.planning.PlanningCatalog;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverse of the suggestion: the raw material purchases needed to produce given product quantities.
+ * Requirements are exploded in one pass over the cached planning catalog with {@link MaterialRequirements};
+ * the database is only asked for the purchasing terms of the materials that are short.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class ReplenishmentService {
+
+    private final PlanningCatalogProvider catalogProvider;
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+
+    public ReplenishmentService(PlanningCatalogProvider catalogProvider, ProductRepository productRepository,
+                                RawMaterialRepository rawMaterialRepository) {
+        this.catalogProvider = catalogProvider;
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    /**
+     * Materials whose stock does not cover the targets, in material id order, with the shortage rounded up
+     * to the minimum order quantity and then to whole packs. Repeated products add up; products without a
+     * BOM need nothing.
+     */
+    public ReplenishmentDTO replenishment(ReplenishmentRequestDTO request) {
+        Map<Long, Integer> targets = new HashMap<>();
+        try {
+            for (ProductTargetDTO target : request.targets()) {
+                targets.merge(target.productId(), target.quantity(), Math::addExact);
+            }
+        } catch (ArithmeticException ex) {
+            throw new InvalidRequestException("target quantities are too large");
+        }
+
+        PlanningCatalog catalog = catalogProvider.catalog();
+        int[] units = new int[catalog.productCount()];
+        Set<Long> planned = new HashSet<>();
+        for (int product = 0; product < units.length; product++) {
+            Integer quantity = targets.get(catalog.productId(product));
+            if (quantity != null) {
+                units[product] = quantity;
+                planned.add(catalog.productId(product));
+            }
+        }
+        if (planned.size() < targets.size()) {
+            requireExisting(targets.keySet(), planned);
+        }
+
+        long[] required;
+        try {
+            required = MaterialRequirements.of(catalog, units);
+        } catch (ArithmeticException ex) {
+            throw new InvalidRequestException("target quantities are too large");
+        }
+
+        List<Integer> shortMaterials = new ArrayList<>();
+        List<Long> shortIds = new ArrayList<>();
+        for (int material = 0; material < required.length; material++) {
+            if (required[material] > catalog.stock(material)) {
+                shortMaterials.add(material);
+                shortIds.add(catalog.materialId(material));
+            }
+        }
+        Map<Long, PurchasingTerms> terms = new HashMap<>();
+        if (!shortIds.isEmpty()) {
+            for (PurchasingTerms term : rawMaterialRepository.findPurchasingTermsByIdIn(shortIds)) {
+                terms.put(term.rawMaterialId(), term);
+            }
+        }
+
+        List<MaterialShortageDTO> shortages = new ArrayList<>(shortMaterials.size());
+        for (int material : shortMaterials) {
+            PurchasingTerms term = terms.get(catalog.materialId(material));
+            if (term == null) continue; // deleted after the catalog was loaded
+            long shortage = required[material] - catalog.stock(material);
+            long purchase = MaterialRequirements.purchase(shortage, units(term.minOrderQuantity()), units(term.packSize()));
+            shortages.add(new MaterialShortageDTO(
+                    term.rawMaterialId(),
+                    term.code(),
+                    term.name(),
+                    PlanningCatalog.fromUnits(required[material]),
+                    PlanningCatalog.fromUnits(catalog.stock(material)),
+                    PlanningCatalog.fromUnits(shortage),
+                    term.packSize(),
+                    term.minOrderQuantity(),
+                    PlanningCatalog.fromUnits(purchase)));
+        }
+        return new ReplenishmentDTO(shortages);
+    }
+
+    private void requireExisting(Set<Long> requested, Set<Long> planned) {
+        List<Long> unplanned = requested.stream().filter(id -> !planned.contains(id)).toList();
+        Set<Long> existing = new HashSet<>(productRepository.findIdsByIdIn(unplanned));
+        for (Long id : unplanned) {
+            if (!existing.contains(id)) {
+                throw new ResourceNotFoundException("Product", id);
+            }
+        }
+    }
+
+    private static long units(BigDecimal quantity) {
+        return quantity == null ? 0 : PlanningCatalog.toUnits(quantity);
+    }
+}
@@ -0,0 +1,80 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialSensitivityDTO;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.SensitivityDTO;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.ImpactAnalysis;
+import com.supplymanager.service.planning.PlanningCatalog;
+import com.supplymanager.service.planning.SensitivitySweep;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Extra production value each raw material would unlock for a few stock increments, computed against the
+ * cached baseline plan on the planning fork-join pool.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class SensitivityService {
+
+    static final int MAX_STEPS = 10;
+
+    private final PlanningCatalogProvider catalogProvider;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ForkJoinPool pool;
+
+    public SensitivityService(PlanningCatalogProvider catalogProvider,
+                              RawMaterialRepository rawMaterialRepository,
+                              ForkJoinPool planningForkJoinPool) {
+        this.catalogProvider = catalogProvider;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.pool = planningForkJoinPool;
+    }
+
+    /**
+     * Value gained per BOM material for each stock increment, most valuable at the largest increment first.
+     */
+    public SensitivityDTO sensitivity(List<BigDecimal> steps) {
+        if (steps.isEmpty() || steps.size() > MAX_STEPS) {
+            throw new InvalidRequestException("between 1 and " + MAX_STEPS + " steps are required");
+        }
+        ImpactAnalysis.Baseline baseline = catalogProvider.baseline();
+        PlanningCatalog catalog = baseline.catalog();
+        BigDecimal[][] gains;
+        try {
+            long[] deltaUnits = steps.stream().mapToLong(PlanningCatalog::toUnits).toArray();
+            gains = SensitivitySweep.run(baseline, deltaUnits, pool);
+        } catch (ArithmeticException ex) {
+            throw new InvalidRequestException("stock increments are too large");
+        }
+
+        Map<Long, RawMaterialDTO> labels = new HashMap<>();
+        for (RawMaterialDTO rawMaterial : rawMaterialRepository.findAllDTOs()) {
+            labels.put(rawMaterial.id(), rawMaterial);
+        }
+        List<MaterialSensitivityDTO> materials = new ArrayList<>(catalog.materialCount());
+        for (int material = 0; material < catalog.materialCount(); material++) {
+            RawMaterialDTO label = labels.get(catalog.materialId(material));
+            if (label == null) continue; // deleted after the baseline was built
+            materials.add(new MaterialSensitivityDTO(label.id(), label.code(), label.name(),
+                    Arrays.asList(gains[material])));
+        }
+        int last = steps.size() - 1;
+        materials.sort(Comparator.comparing((MaterialSensitivityDTO m) -> m.valueGains().get(last)).reversed()
+                .thenComparing(MaterialSensitivityDTO::rawMaterialId));
+        return new SensitivityDTO(steps, materials);
+    }
+}
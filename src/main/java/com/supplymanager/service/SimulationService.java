@@ -0,0 +1,138 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialUncertaintyDTO;
+import com.supplymanager.domain.dto.ProductDistributionDTO;
+import com.supplymanager.domain.dto.SimulationDTO;
+import com.supplymanager.domain.dto.SimulationRequestDTO;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.service.planning.MonteCarloSimulation;
+import com.supplymanager.service.planning.PlanningCatalog;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of the greedy production plan under stock uncertainty, sampled by {@link MonteCarloSimulation}
+ * on the planning fork-join pool against the cached baseline catalog.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class SimulationService {
+
+    static final int DEFAULT_SIMULATIONS = 1000;
+    static final List<BigDecimal> DEFAULT_PERCENTILES = List.of(
+            BigDecimal.valueOf(5), BigDecimal.valueOf(25), BigDecimal.valueOf(50),
+            BigDecimal.valueOf(75), BigDecimal.valueOf(95));
+
+    private final PlanningCatalogProvider catalogProvider;
+    private final ProductRepository productRepository;
+    private final ForkJoinPool pool;
+    private final int maxSimulations;
+
+    public SimulationService(PlanningCatalogProvider catalogProvider,
+                             ProductRepository productRepository,
+                             ForkJoinPool planningForkJoinPool,
+                             @Value("${supplymanager.planning.simulation.max-simulations:20000}") int maxSimulations) {
+        this.catalogProvider = catalogProvider;
+        this.productRepository = productRepository;
+        this.pool = planningForkJoinPool;
+        this.maxSimulations = maxSimulations;
+    }
+
+    /**
+     * Percentiles of the total plan value and of every product's planned quantity. Materials without an
+     * explicit standard deviation vary by {@code defaultRelativeStdDev} of their current stock; materials
+     * no BOM uses are ignored. Without a seed a random one is drawn and returned, so a run can be repeated.
+     */
+    public SimulationDTO simulate(SimulationRequestDTO request) {
+        int simulations = request.simulations() != null ? request.simulations() : DEFAULT_SIMULATIONS;
+        if (simulations > maxSimulations) {
+            throw new InvalidRequestException("at most " + maxSimulations + " simulations are allowed");
+        }
+        long seed = request.seed() != null ? request.seed() : ThreadLocalRandom.current().nextLong();
+        List<BigDecimal> percentiles = request.percentiles() != null && !request.percentiles().isEmpty()
+                ? request.percentiles().stream().sorted().toList()
+                : DEFAULT_PERCENTILES;
+
+        PlanningCatalog catalog = catalogProvider.baseline().catalog();
+        MonteCarloSimulation.Result result = MonteCarloSimulation.run(
+                catalog, uncertainty(catalog, request), simulations, seed, pool);
+
+        List<BigDecimal> totalValue = new ArrayList<>(percentiles.size());
+        for (BigDecimal percentile : percentiles) {
+            totalValue.add(money(result.totalValuePercentile(percentile.doubleValue())));
+        }
+
+        // Only products planned in at least the highest requested percentile are reported
+        double highest = percentiles.getLast().doubleValue();
+        List<Integer> reported = new ArrayList<>();
+        List<Long> productIds = new ArrayList<>();
+        for (int product = 0; product < catalog.productCount(); product++) {
+            if (result.unitsPercentile(product, highest) > 0) {
+                reported.add(product);
+                productIds.add(catalog.productId(product));
+            }
+        }
+        Map<Long, ProductLabel> labels = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (ProductLabel label : productRepository.findLabelsByIdIn(productIds)) {
+                labels.put(label.id(), label);
+            }
+        }
+
+        List<ProductDistributionDTO> products = new ArrayList<>(reported.size());
+        for (int product : reported) {
+            ProductLabel label = labels.get(catalog.productId(product));
+            if (label == null) continue; // deleted after the baseline was built
+            List<Integer> quantities = new ArrayList<>(percentiles.size());
+            for (BigDecimal percentile : percentiles) {
+                quantities.add(result.unitsPercentile(product, percentile.doubleValue()));
+            }
+            products.add(new ProductDistributionDTO(label.id(), label.code(), label.name(), quantities));
+        }
+        return new SimulationDTO(simulations, seed, percentiles, money(result.meanTotalValue()), totalValue, products);
+    }
+
+    private static MonteCarloSimulation.Uncertainty uncertainty(PlanningCatalog catalog, SimulationRequestDTO request) {
+        MonteCarloSimulation.Uncertainty uncertainty = MonteCarloSimulation.Uncertainty.none(catalog);
+        if (request.defaultRelativeStdDev() != null && request.defaultRelativeStdDev().signum() > 0) {
+            double relative = request.defaultRelativeStdDev().doubleValue();
+            for (int material = 0; material < catalog.materialCount(); material++) {
+                uncertainty.stdDevUnits()[material] = Math.round(catalog.stock(material) * relative);
+            }
+        }
+        if (request.materials() != null) {
+            for (MaterialUncertaintyDTO entry : request.materials()) {
+                int material = catalog.materialIndex(entry.rawMaterialId());
+                if (material < 0) continue;
+                if (entry.stdDev() != null) {
+                    uncertainty.stdDevUnits()[material] = PlanningCatalog.toUnits(entry.stdDev());
+                }
+                if (entry.incomingQuantity() != null) {
+                    uncertainty.incomingUnits()[material] = PlanningCatalog.toUnits(entry.incomingQuantity());
+                    uncertainty.incomingProbability()[material] = entry.incomingProbability() != null
+                            ? entry.incomingProbability().doubleValue()
+                            : 1.0;
+                }
+            }
+        }
+        return uncertainty;
+    }
+
+    private static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,69 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.StockPointDTO;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass min/max downsampling: the range is split into equal time buckets and each bucket keeps only
+ * its lowest and highest sample, so spikes survive however many samples fall into one bucket. Samples must
+ * arrive in time order.
+ */
+final class StockDownsampler {
+
+    private final long fromMillis;
+    private final long spanMillis;
+    private final Instant from;
+    private final Instant[] minAt;
+    private final BigDecimal[] min;
+    private final Instant[] maxAt;
+    private final BigDecimal[] max;
+
+    StockDownsampler(Instant from, Instant to, int buckets) {
+        this.from = from;
+        this.fromMillis = from.toEpochMilli();
+        this.spanMillis = Math.max(1, to.toEpochMilli() - fromMillis);
+        this.minAt = new Instant[buckets];
+        this.min = new BigDecimal[buckets];
+        this.maxAt = new Instant[buckets];
+        this.max = new BigDecimal[buckets];
+    }
+
+    /**
+     * Adds a sample, or a pre-aggregated bucket with its lowest and highest levels.
+     */
+    void add(Instant at, BigDecimal low, BigDecimal high) {
+        if (at.isBefore(from)) at = from;
+        int bucket = (int) Math.min(min.length - 1, (at.toEpochMilli() - fromMillis) * min.length / spanMillis);
+        if (min[bucket] == null || low.compareTo(min[bucket]) < 0) {
+            min[bucket] = low;
+            minAt[bucket] = at;
+        }
+        if (max[bucket] == null || high.compareTo(max[bucket]) > 0) {
+            max[bucket] = high;
+            maxAt[bucket] = at;
+        }
+    }
+
+    List<StockPointDTO> points() {
+        List<StockPointDTO> points = new ArrayList<>();
+        for (int bucket = 0; bucket < min.length; bucket++) {
+            if (min[bucket] == null) continue;
+            StockPointDTO low = new StockPointDTO(minAt[bucket], min[bucket]);
+            StockPointDTO high = new StockPointDTO(maxAt[bucket], max[bucket]);
+            if (min[bucket].compareTo(max[bucket]) == 0) {
+                points.add(low);
+            } else if (maxAt[bucket].isBefore(minAt[bucket])) {
+                points.add(high);
+                points.add(low);
+            } else {
+                points.add(low);
+                points.add(high);
+            }
+        }
+        return points;
+    }
+}
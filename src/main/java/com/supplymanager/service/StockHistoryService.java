@@ -0,0 +1,120 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.StockAtDTO;
+import com.supplymanager.domain.dto.StockHistoryDTO;
+import com.supplymanager.domain.dto.StockPointDTO;
+import com.supplymanager.domain.model.StockHistoryHourly;
+import com.supplymanager.domain.model.StockMovement;
+import com.supplymanager.domain.projection.StockBucket;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockHistoryHourlyRepository;
+import com.supplymanager.repository.StockMovementRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Stock level history of raw materials. Every change is stored as a movement (indexed by material and
+ * time, which answers as-of queries with a single index seek) and folded into an hourly open/min/max/close
+ * rollup, so charts over long ranges read at most one row per hour instead of every movement.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class StockHistoryService {
+
+    static final int MIN_POINTS = 4;
+    static final int MAX_POINTS = 10_000;
+    static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+
+    private final StockMovementRepository movementRepository;
+    private final StockHistoryHourlyRepository hourlyRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+
+    public StockHistoryService(StockMovementRepository movementRepository,
+                               StockHistoryHourlyRepository hourlyRepository,
+                               RawMaterialRepository rawMaterialRepository) {
+        this.movementRepository = movementRepository;
+        this.hourlyRepository = hourlyRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+    }
+
+    /**
+     * Records a new stock level. Runs in the caller's transaction, so the history commits with the change.
+     * The material row is locked first: two changes opening the same hour would otherwise both miss the
+     * bucket and the second insert would fail on its unique key.
+     */
+    @Transactional
+    public void record(Long rawMaterialId, BigDecimal stockQuantity, Instant at) {
+        rawMaterialRepository.findByIdForUpdate(rawMaterialId);
+        Instant bucketStart = at.truncatedTo(ChronoUnit.HOURS);
+        StockHistoryHourly hour = hourlyRepository.findByRawMaterialIdAndBucketStart(rawMaterialId, bucketStart)
+                .orElseGet(() -> new StockHistoryHourly(rawMaterialId, bucketStart,
+                        latestAtOrBefore(rawMaterialId, at)
+                                .map(StockPointDTO::stockQuantity)
+                                .orElse(stockQuantity)));
+        hour.record(stockQuantity);
+        hourlyRepository.save(hour);
+        movementRepository.save(new StockMovement(rawMaterialId, at, stockQuantity));
+    }
+
+    public StockAtDTO stockAt(Long rawMaterialId, Instant at) {
+        StockPointDTO point = latestAtOrBefore(rawMaterialId, at)
+                .orElseThrow(() -> new ResourceNotFoundException("Stock history of RawMaterial", rawMaterialId));
+        return new StockAtDTO(rawMaterialId, at, point.stockQuantity(), point.at());
+    }
+
+    /**
+     * Stock levels between {@code from} and {@code to} reduced to at most {@code points} points. Ranges
+     * whose buckets are an hour or wider are read from the hourly rollup, shorter ones from the movements.
+     * The first and last points carry the level in effect at {@code from} and {@code to}.
+     */
+    public StockHistoryDTO history(Long rawMaterialId, Instant from, Instant to, int points) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (!start.isBefore(end)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+        if (points < MIN_POINTS || points > MAX_POINTS) {
+            throw new InvalidRequestException("points must be between " + MIN_POINTS + " and " + MAX_POINTS);
+        }
+
+        int buckets = (points - 2) / 2;
+        boolean hourly = Duration.between(start, end).dividedBy(buckets).compareTo(Duration.ofHours(1)) >= 0;
+        StockDownsampler sampler = new StockDownsampler(start, end, buckets);
+        if (hourly) {
+            try (Stream<StockBucket> rows = hourlyRepository.streamRange(rawMaterialId,
+                    start.truncatedTo(ChronoUnit.HOURS), end)) {
+                rows.forEach(row -> sampler.add(row.bucketStart(), row.minQuantity(), row.maxQuantity()));
+            }
+        } else {
+            try (Stream<StockPointDTO> rows = movementRepository.streamRange(rawMaterialId, start, end)) {
+                rows.forEach(row -> sampler.add(row.at(), row.stockQuantity(), row.stockQuantity()));
+            }
+        }
+
+        List<StockPointDTO> result = new ArrayList<>();
+        Optional<BigDecimal> opening = latestAtOrBefore(rawMaterialId, start).map(StockPointDTO::stockQuantity);
+        opening.ifPresent(quantity -> result.add(new StockPointDTO(start, quantity)));
+        result.addAll(sampler.points());
+        latestAtOrBefore(rawMaterialId, end)
+                .ifPresent(closing -> result.add(new StockPointDTO(end, closing.stockQuantity())));
+        return new StockHistoryDTO(rawMaterialId, start, end, hourly ? "hourly" : "raw", result);
+    }
+
+    private Optional<StockPointDTO> latestAtOrBefore(Long rawMaterialId, Instant at) {
+        return movementRepository.findLatestAtOrBefore(rawMaterialId, at, Limit.of(1)).stream().findFirst();
+    }
+}
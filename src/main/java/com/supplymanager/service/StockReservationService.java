@@ -0,0 +1,192 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.dto.ReservedMaterialDTO;
+import com.supplymanager.domain.dto.StockReservationDTO;
+import com.supplymanager.domain.dto.StockReservationRequestDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
+import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.model.ReservedMaterial;
+import com.supplymanager.domain.model.StockReservation;
+import com.supplymanager.exception.InsufficientStockException;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockReservationRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds on the raw materials of a product quantity until released or expired. A reservation locks every material
+ * of the BOM (in id order) and either raises all their {@code reserved_quantity} or fails without holding anything;
+ * planning subtracts reserved quantities from the stock. Holds are written with a bulk update that leaves the
+ * material's {@code version} alone, so they never make a concurrent edit fail or change its ETag. Expired
+ * reservations are released by a periodic sweep over the {@code expires_at} index, so a hold may outlive its TTL
+ * by up to {@code sweep-interval}.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRepository productRepository;
+    private final ProductRawMaterialRepository prmRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final int sweepBatch;
+
+    public StockReservationService(StockReservationRepository reservationRepository,
+                                   RawMaterialRepository rawMaterialRepository,
+                                   ProductRepository productRepository,
+                                   ProductRawMaterialRepository prmRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${supplymanager.reservations.default-ttl:15m}") Duration defaultTtl,
+                                   @Value("${supplymanager.reservations.max-ttl:24h}") Duration maxTtl,
+                                   @Value("${supplymanager.reservations.sweep-batch:500}") int sweepBatch) {
+        this.reservationRepository = reservationRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.productRepository = productRepository;
+        this.prmRepository = prmRepository;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.sweepBatch = sweepBatch;
+    }
+
+    public StockReservationDTO findById(Long id) {
+        return reservationRepository.findById(id)
+                .map(this::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("StockReservation", id));
+    }
+
+    @Transactional
+    public StockReservationDTO reserve(StockReservationRequestDTO request) {
+        Duration ttl = request.ttlSeconds() != null ? Duration.ofSeconds(request.ttlSeconds()) : defaultTtl;
+        if (ttl.compareTo(maxTtl) > 0) {
+            throw new InvalidRequestException("ttlSeconds must be at most " + maxTtl.toSeconds());
+        }
+        if (!productRepository.existsById(request.productId())) {
+            throw new ResourceNotFoundException("Product", request.productId());
+        }
+        Map<Long, BigDecimal> needed = new TreeMap<>();
+        for (ProductRawMaterialDTO line : prmRepository.findDTOsByProductId(request.productId())) {
+            needed.put(line.rawMaterialId(), line.requiredQuantity().multiply(BigDecimal.valueOf(request.quantity())));
+        }
+        if (needed.isEmpty()) {
+            throw new InvalidRequestException("Product " + request.productId() + " has no raw materials to reserve");
+        }
+
+        List<RawMaterial> rawMaterials = rawMaterialRepository.findAllByIdInForUpdate(needed.keySet());
+        for (RawMaterial rawMaterial : rawMaterials) {
+            BigDecimal available = rawMaterial.getStockQuantity().subtract(rawMaterial.getReservedQuantity());
+            BigDecimal quantity = needed.get(rawMaterial.getId());
+            if (available.compareTo(quantity) < 0) {
+                throw new InsufficientStockException("Raw material " + rawMaterial.getCode() + " has "
+                        + available.max(BigDecimal.ZERO).toPlainString() + " available, "
+                        + quantity.toPlainString() + " requested");
+            }
+        }
+        List<ReservedMaterial> materials = new ArrayList<>(rawMaterials.size());
+        for (RawMaterial rawMaterial : rawMaterials) {
+            BigDecimal quantity = needed.get(rawMaterial.getId());
+            rawMaterialRepository.updateReservedQuantity(rawMaterial.getId(), rawMaterial.getReservedQuantity().add(quantity));
+            materials.add(new ReservedMaterial(rawMaterial.getId(), quantity));
+            eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, rawMaterial.getId(), Action.UPDATED));
+        }
+        StockReservation saved = reservationRepository.save(new StockReservation(
+                request.productId(), request.quantity(), Instant.now().plus(ttl), materials));
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public void release(Long id) {
+        StockReservation reservation = reservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("StockReservation", id));
+        releaseLocked(reservation);
+    }
+
+    @Scheduled(fixedDelayString = "${supplymanager.reservations.sweep-interval:5s}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void releaseExpired() {
+        releaseExpired(Instant.now());
+    }
+
+    /**
+     * Releases the reservations expired by {@code now}, each in its own transaction. Like {@link #release(Long)}
+     * it locks the reservation and then its materials in id order, and holds them only for that reservation,
+     * so the sweep cannot deadlock with reservations or requested releases, nor hold hot materials for a batch.
+     *
+     * @return the number of reservations released
+     */
+    int releaseExpired(Instant now) {
+        int released = 0;
+        List<Long> ids;
+        do {
+            ids = reservationRepository.findExpiredIds(now, Limit.of(sweepBatch));
+            for (Long id : ids) {
+                // Skips reservations released by a request since the query
+                boolean expired = Boolean.TRUE.equals(transaction.execute(status ->
+                        reservationRepository.findByIdForUpdate(id)
+                                .filter(reservation -> !reservation.getExpiresAt().isAfter(now))
+                                .map(reservation -> {
+                                    releaseLocked(reservation);
+                                    return true;
+                                })
+                                .orElse(false)));
+                if (expired) {
+                    released++;
+                }
+            }
+        } while (ids.size() == sweepBatch);
+        return released;
+    }
+
+    private void releaseLocked(StockReservation reservation) {
+        Map<Long, BigDecimal> held = new TreeMap<>();
+        for (ReservedMaterial material : reservation.getMaterials()) {
+            held.put(material.getRawMaterialId(), material.getQuantity());
+        }
+        if (!held.isEmpty()) {
+            for (RawMaterial rawMaterial : rawMaterialRepository.findAllByIdInForUpdate(held.keySet())) {
+                BigDecimal reserved = rawMaterial.getReservedQuantity().subtract(held.get(rawMaterial.getId()));
+                rawMaterialRepository.updateReservedQuantity(rawMaterial.getId(), reserved.max(BigDecimal.ZERO));
+                eventPublisher.publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, rawMaterial.getId(), Action.UPDATED));
+            }
+        }
+        reservationRepository.delete(reservation);
+    }
+
+    private StockReservationDTO toDTO(StockReservation reservation) {
+        List<ReservedMaterialDTO> materials = reservation.getMaterials().stream()
+                .map(m -> new ReservedMaterialDTO(m.getRawMaterialId(), m.getQuantity()))
+                .toList();
+        return new StockReservationDTO(reservation.getId(), reservation.getProductId(), reservation.getQuantity(),
+                reservation.getExpiresAt(), materials);
+    }
+}
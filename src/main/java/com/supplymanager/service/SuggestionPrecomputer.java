@@ -0,0 +1,155 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Opt-in background computation of the production suggestion ({@code supplymanager.planning.precompute.enabled}).
+ * Committed catalog changes schedule a recomputation after a debounce; changes arriving meanwhile coalesce into
+ * that run, and a change during a run schedules one more. Each finished plan replaces the previous one with a
+ * single reference swap, so readers always get a complete plan without touching the database or the planner.
+ */
+@Service
+public class SuggestionPrecomputer {
+
+    private static final Logger log = LoggerFactory.getLogger(SuggestionPrecomputer.class);
+
+    /**
+     * A published plan with the versions of the data it was computed from.
+     */
+    public record Precomputed(ProductionSuggestionDTO suggestion, VersionStamp products, VersionStamp rawMaterials,
+                              Instant computedAt) {
+
+        public String eTag() {
+            return "W/\"" + tag(products) + "." + tag(rawMaterials) + "\"";
+        }
+
+        /**
+         * Latest modification of the products and raw materials the plan reflects, or -1 when unknown.
+         */
+        public long dataModifiedMillis() {
+            return Math.max(products.lastModifiedMillis(), rawMaterials.lastModifiedMillis());
+        }
+
+        public Duration age() {
+            return Duration.between(computedAt, Instant.now());
+        }
+
+        private static String tag(VersionStamp stamp) {
+            return stamp.count() + "-" + (stamp.versionSum() == null ? 0 : stamp.versionSum())
+                    + "-" + Math.max(0, stamp.lastModifiedMillis());
+        }
+    }
+
+    private final ProductionService productionService;
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final TransactionTemplate primaryTransaction;
+    private final boolean enabled;
+    private final Duration debounce;
+    private final Duration retryDelay;
+    private final AtomicReference<Precomputed> latest = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService worker =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("suggestion-precompute").daemon().factory());
+
+    public SuggestionPrecomputer(ProductionService productionService,
+                                 ProductRepository productRepository,
+                                 RawMaterialRepository rawMaterialRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${supplymanager.planning.precompute.enabled:false}") boolean enabled,
+                                 @Value("${supplymanager.planning.precompute.debounce:200ms}") Duration debounce,
+                                 @Value("${supplymanager.planning.precompute.retry-delay:5s}") Duration retryDelay) {
+        this.productionService = productionService;
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        // Not read-only, so replica routing sends it to the primary: a lagging replica would publish a stale plan
+        // under the versions it saw, and nothing would recompute it until the next change
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.debounce = debounce;
+        this.retryDelay = retryDelay;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Latest published plan. Never blocks; fails with 503 until the first computation has finished.
+     */
+    public Precomputed latest() {
+        Precomputed current = latest.get();
+        if (current == null) {
+            throw new CapacityExceededException("The production suggestion is still being computed, try again shortly");
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule(Duration.ZERO);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        schedule(debounce);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Computes and publishes a plan on the calling thread.
+     */
+    void recompute() {
+        // Stamps are read first, so a plan is never labelled with data newer than it saw
+        Precomputed computed = primaryTransaction.execute(status -> {
+            VersionStamp products = productRepository.findVersionStamp();
+            VersionStamp rawMaterials = rawMaterialRepository.findPlanningStamp();
+            return new Precomputed(productionService.calculateSuggestion(), products, rawMaterials, Instant.now());
+        });
+        latest.set(computed);
+    }
+
+    private void schedule(Duration delay) {
+        if (enabled && scheduled.compareAndSet(false, true)) {
+            worker.schedule(this::run, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void run() {
+        scheduled.set(false);
+        try {
+            recompute();
+        } catch (RuntimeException ex) {
+            log.warn("Background computation of the production suggestion failed, retrying in {}", retryDelay, ex);
+            schedule(retryDelay);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ImpactDTO;
+import com.supplymanager.domain.dto.ProductImpactDTO;
+import com.supplymanager.domain.dto.WhereUsedDTO;
+import com.supplymanager.domain.dto.WhereUsedProductDTO;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.ImpactAnalysis;
+import com.supplymanager.service.planning.PlanningCatalog;
+import com.supplymanager.service.planning.WhereUsedIndex;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers which products consume a raw material and how a change in its stock moves the production plan,
+ * from the catalog's {@link WhereUsedIndex} and the cached {@link PlanningCatalogProvider#baseline()} plan.
+ */
+@Service
+@Transactional(readOnly = true)
+@Timed(value = "supplymanager.service", histogram = true)
+public class WhereUsedService {
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRepository productRepository;
+    private final PlanningCatalogProvider catalogProvider;
+
+    public WhereUsedService(RawMaterialRepository rawMaterialRepository, ProductRepository productRepository,
+                            PlanningCatalogProvider catalogProvider) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.productRepository = productRepository;
+        this.catalogProvider = catalogProvider;
+    }
+
+    public WhereUsedDTO whereUsed(Long rawMaterialId) {
+        requireExists(rawMaterialId);
+        ImpactAnalysis.Baseline baseline = catalogProvider.baseline();
+        PlanningCatalog catalog = baseline.catalog();
+        int material = catalog.materialIndex(rawMaterialId);
+        if (material < 0) {
+            return new WhereUsedDTO(rawMaterialId, List.of());
+        }
+
+        WhereUsedIndex index = catalog.whereUsed();
+        List<Long> productIds = new ArrayList<>();
+        for (int usage = index.usageStart(material); usage < index.usageEnd(material); usage++) {
+            productIds.add(catalog.productId(index.lineProduct(index.usageLine(usage))));
+        }
+        Map<Long, ProductLabel> labels = labels(productIds);
+
+        List<WhereUsedProductDTO> products = new ArrayList<>(productIds.size());
+        for (int usage = index.usageStart(material); usage < index.usageEnd(material); usage++) {
+            int line = index.usageLine(usage);
+            int product = index.lineProduct(line);
+            ProductLabel label = labels.get(catalog.productId(product));
+            if (label == null) continue; // deleted after the baseline was built
+            products.add(new WhereUsedProductDTO(
+                    label.id(),
+                    label.code(),
+                    label.name(),
+                    catalog.productValue(product),
+                    PlanningCatalog.fromUnits(catalog.lineRequired(line)),
+                    baseline.units()[product]));
+        }
+        return new WhereUsedDTO(rawMaterialId, products);
+    }
+
+    public ImpactDTO impact(Long rawMaterialId, BigDecimal delta) {
+        requireExists(rawMaterialId);
+        ImpactAnalysis.Baseline baseline = catalogProvider.baseline();
+        PlanningCatalog catalog = baseline.catalog();
+        int material = catalog.materialIndex(rawMaterialId);
+        List<ImpactAnalysis.Change> changes;
+        try {
+            changes = material < 0
+                    ? List.of()
+                    : ImpactAnalysis.evaluate(baseline, material, PlanningCatalog.toUnits(delta));
+        } catch (ArithmeticException ex) {
+            throw new InvalidRequestException("stock change is too large");
+        }
+
+        List<Long> productIds = new ArrayList<>(changes.size());
+        for (ImpactAnalysis.Change change : changes) {
+            productIds.add(catalog.productId(change.product()));
+        }
+        Map<Long, ProductLabel> labels = labels(productIds);
+
+        List<ProductImpactDTO> affected = new ArrayList<>(changes.size());
+        BigDecimal totalValueChange = BigDecimal.ZERO;
+        for (ImpactAnalysis.Change change : changes) {
+            ProductLabel label = labels.get(catalog.productId(change.product()));
+            if (label == null) continue; // deleted after the baseline was built
+            int quantityChange = change.projectedUnits() - change.baselineUnits();
+            BigDecimal valueChange = catalog.productValue(change.product()).multiply(BigDecimal.valueOf(quantityChange));
+            totalValueChange = totalValueChange.add(valueChange);
+            affected.add(new ProductImpactDTO(
+                    label.id(),
+                    label.code(),
+                    label.name(),
+                    change.baselineUnits(),
+                    change.projectedUnits(),
+                    quantityChange,
+                    valueChange));
+        }
+        return new ImpactDTO(rawMaterialId, delta, affected, totalValueChange);
+    }
+
+    private Map<Long, ProductLabel> labels(List<Long> productIds) {
+        Map<Long, ProductLabel> labels = new HashMap<>();
+        if (productIds.isEmpty()) return labels;
+        for (ProductLabel label : productRepository.findLabelsByIdIn(productIds)) {
+            labels.put(label.id(), label);
+        }
+        return labels;
+    }
+
+    private void requireExists(Long rawMaterialId) {
+        if (!rawMaterialRepository.existsById(rawMaterialId)) {
+            throw new ResourceNotFoundException("RawMaterial", rawMaterialId);
+        }
+    }
+}
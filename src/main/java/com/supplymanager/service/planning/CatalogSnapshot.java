@@ -0,0 +1,183 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.VersionStamp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Binary file holding the product and BOM structure of a {@link PlanningCatalog} together with the
+ * {@link VersionStamp} of the data it was built from. Sections are flat little-endian primitive arrays
+ * (longs first, so every section stays aligned) that are memory-mapped on read instead of copied to the heap.
+ *
+ * <pre>
+ * header (64 bytes): magic, format, count, versionSum, lastModified, flags, products, lines, materials
+ * long[products] productIds      long[products] valueUnscaled   long[lines] lineRequired
+ * long[materials] materialIds    int[products] valueScales      int[products] maxUnits
+ * int[products] minUnits         int[products] committedUnits   int[products + 1] lineOffsets
+ * int[lines] lineMaterials
+ * </pre>
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x534D5043; // "SMPC"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 64;
+    private static final int HAS_VERSION_SUM = 1;
+    private static final int HAS_LAST_MODIFIED = 2;
+
+    public record Mapped(VersionStamp version, PlanningCatalog catalog) {
+    }
+
+    private CatalogSnapshot() {
+    }
+
+    /**
+     * Writes the snapshot to a temporary file next to {@code file} and atomically replaces it, so readers
+     * never map a partially written file.
+     */
+    public static void write(Path file, PlanningCatalog catalog, VersionStamp version) throws IOException {
+        int products = catalog.productCount();
+        int lines = catalog.lineCount();
+        int materials = catalog.materialCount();
+        long size = size(products, lines, materials);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                writeHeader(buffer, version, products, lines, materials);
+
+                int offset = HEADER_BYTES;
+                offset = putLongs(buffer, offset, catalog.productIds());
+                offset = putLongs(buffer, offset, catalog.valueUnscaled());
+                offset = putLongs(buffer, offset, catalog.lineRequired());
+                offset = putLongs(buffer, offset, catalog.materialIds());
+                offset = putInts(buffer, offset, catalog.valueScales());
+                offset = putInts(buffer, offset, catalog.maxUnits());
+                offset = putInts(buffer, offset, catalog.minUnits());
+                offset = putInts(buffer, offset, catalog.committedUnits());
+                offset = putInts(buffer, offset, catalog.lineOffsets());
+                putInts(buffer, offset, catalog.lineMaterials());
+                buffer.force();
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a snapshot. Empty when the file does not exist, is truncated or was written in another format.
+     */
+    public static Optional<Mapped> read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return Optional.empty();
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            return Optional.empty();
+        }
+        int flags = buffer.getInt(36);
+        VersionStamp version = new VersionStamp(
+                buffer.getLong(8),
+                (flags & HAS_VERSION_SUM) != 0 ? buffer.getLong(16) : null,
+                (flags & HAS_LAST_MODIFIED) != 0 ? Instant.ofEpochSecond(buffer.getLong(24), buffer.getInt(32)) : null);
+        int products = buffer.getInt(40);
+        int lines = buffer.getInt(44);
+        int materials = buffer.getInt(48);
+        if (buffer.capacity() != size(products, lines, materials)) {
+            return Optional.empty();
+        }
+
+        int offset = HEADER_BYTES;
+        LongBuffer productIds = longs(buffer, offset, products);
+        offset += Long.BYTES * products;
+        LongBuffer valueUnscaled = longs(buffer, offset, products);
+        offset += Long.BYTES * products;
+        LongBuffer lineRequired = longs(buffer, offset, lines);
+        offset += Long.BYTES * lines;
+        LongBuffer materialIds = longs(buffer, offset, materials);
+        offset += Long.BYTES * materials;
+        IntBuffer valueScales = ints(buffer, offset, products);
+        offset += Integer.BYTES * products;
+        IntBuffer maxUnits = ints(buffer, offset, products);
+        offset += Integer.BYTES * products;
+        IntBuffer minUnits = ints(buffer, offset, products);
+        offset += Integer.BYTES * products;
+        IntBuffer committedUnits = ints(buffer, offset, products);
+        offset += Integer.BYTES * products;
+        IntBuffer lineOffsets = ints(buffer, offset, products + 1);
+        offset += Integer.BYTES * (products + 1);
+        IntBuffer lineMaterials = ints(buffer, offset, lines);
+
+        PlanningCatalog catalog = new PlanningCatalog(productIds, valueUnscaled, valueScales, lineOffsets,
+                lineMaterials, lineRequired, materialIds, maxUnits, minUnits, committedUnits, new long[materials]);
+        return Optional.of(new Mapped(version, catalog));
+    }
+
+    private static long size(int products, int lines, int materials) {
+        return HEADER_BYTES
+                + Long.BYTES * (2L * products + lines + materials)
+                + Integer.BYTES * (5L * products + 1 + lines);
+    }
+
+    private static void writeHeader(ByteBuffer buffer, VersionStamp version, int products, int lines, int materials) {
+        int flags = 0;
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        buffer.putLong(8, version.count());
+        if (version.versionSum() != null) {
+            buffer.putLong(16, version.versionSum());
+            flags |= HAS_VERSION_SUM;
+        }
+        if (version.lastModified() != null) {
+            buffer.putLong(24, version.lastModified().getEpochSecond());
+            buffer.putInt(32, version.lastModified().getNano());
+            flags |= HAS_LAST_MODIFIED;
+        }
+        buffer.putInt(36, flags);
+        buffer.putInt(40, products);
+        buffer.putInt(44, lines);
+        buffer.putInt(48, materials);
+    }
+
+    private static int putLongs(ByteBuffer buffer, int offset, LongBuffer values) {
+        int length = values.capacity();
+        longs(buffer, offset, length).put(values.duplicate().clear());
+        return offset + Long.BYTES * length;
+    }
+
+    private static int putInts(ByteBuffer buffer, int offset, IntBuffer values) {
+        int length = values.capacity();
+        ints(buffer, offset, length).put(values.duplicate().clear());
+        return offset + Integer.BYTES * length;
+    }
+
+    private static LongBuffer longs(ByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, Long.BYTES * length).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private static IntBuffer ints(ByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, Integer.BYTES * length).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+}
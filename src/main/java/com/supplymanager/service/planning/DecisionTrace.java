@@ -0,0 +1,53 @@
+package com.supplymanager.service.planning;
+
+import java.util.Arrays;
+
+/**
+ * {@link PlanningTrace} that keeps the value-ordered decision of every product in flat arrays indexed like
+ * the catalog, for explaining a plan.
+ */
+public final class DecisionTrace implements PlanningTrace {
+
+    private final int[] lines;
+    private final long[] available;
+    private final int[] limits;
+    private final int[] units;
+
+    public DecisionTrace(int products) {
+        this.lines = new int[products];
+        this.available = new long[products];
+        this.limits = new int[products];
+        this.units = new int[products];
+        Arrays.fill(lines, -1);
+    }
+
+    @Override
+    public void onAllocation(int product, int line, long available, int limit, int units) {
+        this.lines[product] = line;
+        this.available[product] = available;
+        this.limits[product] = limit;
+        this.units[product] = units;
+    }
+
+    /**
+     * BOM line of the product's scarcest material when it was planned, or -1.
+     */
+    public int line(int product) {
+        return lines[product];
+    }
+
+    public long available(int product) {
+        return available[product];
+    }
+
+    public int limit(int product) {
+        return limits[product];
+    }
+
+    /**
+     * Units allocated in the value-ordered pass, on top of any committed or minimum quantity.
+     */
+    public int units(int product) {
+        return units[product];
+    }
+}
@@ -0,0 +1,82 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Value-ordered greedy allocation: each product, in catalog order, takes as many
+ * units as the remaining stock and its maximum allow. When the catalog has priorities,
+ * committed quantities and then minimums are served first, in the same order.
+ */
+public final class GreedyPlanner {
+
+    private GreedyPlanner() {
+    }
+
+    /**
+     * Plans every product against {@code stock}, which is consumed in place.
+     */
+    public static int[] plan(PlanningCatalog catalog, long[] stock) {
+        return plan(catalog, stock, PlanningProgress.NONE);
+    }
+
+    public static int[] plan(PlanningCatalog catalog, long[] stock, PlanningProgress progress) {
+        return plan(catalog, stock, progress, PlanningTrace.NONE);
+    }
+
+    /**
+     * Plans like {@link #plan(PlanningCatalog, long[], PlanningProgress)}, reporting each product's
+     * value-ordered allocation to {@code trace}.
+     */
+    public static int[] plan(PlanningCatalog catalog, long[] stock, PlanningProgress progress, PlanningTrace trace) {
+        int[] units = new int[catalog.productCount()];
+        if (catalog.hasPriorities()) {
+            for (int product = 0; product < units.length; product++) {
+                units[product] += allocate(catalog, stock, product,
+                        Math.min(catalog.committedUnits(product), catalog.maxUnits(product)));
+            }
+            for (int product = 0; product < units.length; product++) {
+                units[product] += allocate(catalog, stock, product,
+                        Math.min(catalog.minUnits(product), catalog.maxUnits(product)) - units[product]);
+            }
+        }
+        for (int product = 0; product < units.length; product++) {
+            units[product] += allocate(catalog, stock, product, catalog.maxUnits(product) - units[product], trace);
+            progress.onProduct(product + 1, units.length);
+        }
+        return units;
+    }
+
+    /**
+     * Allocates up to {@code limit} units of {@code product}, consuming {@code stock} in place.
+     */
+    static int allocate(PlanningCatalog catalog, long[] stock, int product, int limit) {
+        return allocate(catalog, stock, product, limit, PlanningTrace.NONE);
+    }
+
+    private static int allocate(PlanningCatalog catalog, long[] stock, int product, int limit, PlanningTrace trace) {
+        if (limit <= 0) {
+            trace.onAllocation(product, -1, 0, limit, 0);
+            return 0;
+        }
+        int start = catalog.lineStart(product);
+        int end = catalog.lineEnd(product);
+
+        long maxUnits = Long.MAX_VALUE;
+        int scarcest = -1;
+        for (int line = start; line < end; line++) {
+            long required = catalog.lineRequired(line);
+            if (required <= 0) continue;
+            long available = Math.max(stock[catalog.lineMaterial(line)], 0);
+            if (available / required < maxUnits) {
+                maxUnits = available / required;
+                scarcest = line;
+            }
+        }
+        long scarcestStock = scarcest < 0 ? 0 : Math.max(stock[catalog.lineMaterial(scarcest)], 0);
+
+        int units = maxUnits == Long.MAX_VALUE || maxUnits <= 0 ? 0 : (int) Math.min(maxUnits, limit);
+        for (int line = start; line < end && units > 0; line++) {
+            stock[catalog.lineMaterial(line)] -= catalog.lineRequired(line) * units;
+        }
+        trace.onAllocation(product, scarcest, scarcestStock, limit, units);
+        return units;
+    }
+}
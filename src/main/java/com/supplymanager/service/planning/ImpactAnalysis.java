@@ -0,0 +1,201 @@
+package com.supplymanager.service.planning;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * What-if analysis of a stock change on the greedy plan. The baseline plan records the stock each BOM line
+ * saw before its product was allocated; a change then only re-evaluates the products reachable from the
+ * material through the {@link WhereUsedIndex}, following the materials whose consumption actually moved.
+ * Catalogs with committed or minimum quantities are planned in three passes, so their baseline records the
+ * stock of every line in every pass, and a change to a product in one pass also re-evaluates it in the later
+ * passes, whose limits depend on what it already received.
+ */
+public final class ImpactAnalysis {
+
+    /**
+     * @param passUnits units allocated to each product by each pass, indexed {@code pass * productCount + product}
+     * @param lineAvailable stock each line saw before its product's allocation in each pass, indexed
+     *                      {@code pass * lineCount + line}
+     */
+    public record Baseline(PlanningCatalog catalog, int[] units, int[] passUnits, long[] lineAvailable) {
+
+        int passes() {
+            return passUnits.length / Math.max(units.length, 1);
+        }
+    }
+
+    public record Change(int product, int baselineUnits, int projectedUnits) {
+    }
+
+    private ImpactAnalysis() {
+    }
+
+    public static Baseline baseline(PlanningCatalog catalog) {
+        int passes = catalog.hasPriorities() ? 3 : 1;
+        int products = catalog.productCount();
+        long[] stock = catalog.stockCopy();
+        long[] lineAvailable = new long[passes * catalog.lineCount()];
+        int[] passUnits = new int[passes * products];
+        int[] units = new int[products];
+        for (int pass = 0; pass < passes; pass++) {
+            for (int product = 0; product < products; product++) {
+                for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                    lineAvailable[pass * catalog.lineCount() + line] = stock[catalog.lineMaterial(line)];
+                }
+                int allocated = GreedyPlanner.allocate(catalog, stock, product,
+                        limit(catalog, pass, passes, product, units[product]));
+                passUnits[pass * products + product] = allocated;
+                units[product] += allocated;
+            }
+        }
+        return new Baseline(catalog, units, passUnits, lineAvailable);
+    }
+
+    /**
+     * Scratch state of one evaluation, reusable across evaluations on the same thread so sweeps over many
+     * materials do not allocate per-material arrays.
+     */
+    public static final class Workspace {
+
+        private final long[] diff;
+        private final BitSet touched;
+        private final BitSet pending;
+        private final int[] shift;
+        private final BitSet shifted;
+
+        public Workspace(PlanningCatalog catalog) {
+            this.diff = new long[catalog.materialCount()];
+            this.touched = new BitSet(catalog.materialCount());
+            this.pending = new BitSet((catalog.hasPriorities() ? 3 : 1) * catalog.productCount());
+            this.shift = new int[catalog.productCount()];
+            this.shifted = new BitSet(catalog.productCount());
+        }
+
+        private void adjust(int material, long amount) {
+            diff[material] = Math.addExact(diff[material], amount);
+            touched.set(material);
+        }
+
+        private void reset() {
+            for (int material = touched.nextSetBit(0); material >= 0; material = touched.nextSetBit(material + 1)) {
+                diff[material] = 0;
+            }
+            for (int product = shifted.nextSetBit(0); product >= 0; product = shifted.nextSetBit(product + 1)) {
+                shift[product] = 0;
+            }
+            touched.clear();
+            pending.clear();
+            shifted.clear();
+        }
+    }
+
+    /**
+     * Products whose planned units differ when {@code material}'s stock changes by {@code deltaUnits},
+     * in planning order. The result matches rerunning {@link GreedyPlanner} on the changed stock. Throws
+     * {@link ArithmeticException} when the changed stock no longer fits in a {@code long} of units.
+     */
+    public static List<Change> evaluate(Baseline baseline, int material, long deltaUnits) {
+        return evaluate(baseline, material, deltaUnits, new Workspace(baseline.catalog()));
+    }
+
+    public static List<Change> evaluate(Baseline baseline, int material, long deltaUnits, Workspace workspace) {
+        PlanningCatalog catalog = baseline.catalog();
+        WhereUsedIndex index = catalog.whereUsed();
+        List<Change> changes = new ArrayList<>();
+        if (deltaUnits == 0) return changes;
+
+        int passes = baseline.passes();
+        int products = catalog.productCount();
+        BitSet pending = workspace.pending;
+        workspace.adjust(material, deltaUnits);
+        schedule(index, material, 0, -1, passes, products, pending);
+        // Positions are pass * productCount + product, so the bits run in planning order across passes
+        for (int position = pending.nextSetBit(0); position >= 0; position = pending.nextSetBit(position + 1)) {
+            int pass = position / products;
+            int product = position % products;
+            int before = workspace.shift[product];
+            for (int earlier = 0; earlier < pass; earlier++) {
+                before += baseline.passUnits()[earlier * products + product];
+            }
+            int projected = allocate(catalog, baseline.lineAvailable(), pass * catalog.lineCount(), workspace.diff,
+                    product, limit(catalog, pass, passes, product, before));
+            int current = baseline.passUnits()[position];
+            if (projected == current) continue;
+
+            long extra = (long) projected - current;
+            workspace.shift[product] += (int) extra;
+            workspace.shifted.set(product);
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                long required = catalog.lineRequired(line);
+                if (required == 0) continue;
+                workspace.adjust(catalog.lineMaterial(line), Math.multiplyExact(-required, extra));
+                schedule(index, catalog.lineMaterial(line), pass, product, passes, products, pending);
+            }
+            for (int later = pass + 1; later < passes; later++) {
+                pending.set(later * products + product);
+            }
+        }
+        BitSet shifted = workspace.shifted;
+        for (int product = shifted.nextSetBit(0); product >= 0; product = shifted.nextSetBit(product + 1)) {
+            if (workspace.shift[product] != 0) {
+                int current = baseline.units()[product];
+                changes.add(new Change(product, current, current + workspace.shift[product]));
+            }
+        }
+        workspace.reset();
+        return changes;
+    }
+
+    /**
+     * Production value gained (or lost, when negative) by the given changes.
+     */
+    public static BigDecimal valueChange(PlanningCatalog catalog, List<Change> changes) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Change change : changes) {
+            long units = (long) change.projectedUnits() - change.baselineUnits();
+            total = total.add(catalog.productValue(change.product()).multiply(BigDecimal.valueOf(units)));
+        }
+        return total;
+    }
+
+    /**
+     * Marks the positions using {@code material} after {@code product} in {@code pass} and in every later pass.
+     */
+    private static void schedule(WhereUsedIndex index, int material, int pass, int product, int passes,
+                                 int products, BitSet pending) {
+        for (int later = pass; later < passes; later++) {
+            int after = later == pass ? product : -1;
+            for (int usage = index.usageEnd(material) - 1; usage >= index.usageStart(material); usage--) {
+                int user = index.lineProduct(index.usageLine(usage));
+                if (user <= after) break; // usages are in planning order
+                pending.set(later * products + user);
+            }
+        }
+    }
+
+    private static int allocate(PlanningCatalog catalog, long[] lineAvailable, int offset, long[] diff, int product,
+                                int limit) {
+        if (limit <= 0) return 0;
+        long maxUnits = Long.MAX_VALUE;
+        for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+            long required = catalog.lineRequired(line);
+            if (required <= 0) continue;
+            long available = Math.max(Math.addExact(lineAvailable[offset + line], diff[catalog.lineMaterial(line)]), 0);
+            maxUnits = Math.min(maxUnits, available / required);
+        }
+        if (maxUnits == Long.MAX_VALUE || maxUnits <= 0) return 0;
+        return (int) Math.min(maxUnits, limit);
+    }
+
+    /**
+     * The units {@link GreedyPlanner} offers {@code product} in {@code pass}, given what earlier passes allocated.
+     */
+    private static int limit(PlanningCatalog catalog, int pass, int passes, int product, int allocated) {
+        if (pass == passes - 1) return catalog.maxUnits(product) - allocated;
+        int target = pass == 0 ? catalog.committedUnits(product) : catalog.minUnits(product);
+        return Math.min(target, catalog.maxUnits(product)) - allocated;
+    }
+}
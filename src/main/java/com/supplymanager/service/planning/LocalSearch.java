@@ -0,0 +1,331 @@
+package com.supplymanager.service.planning;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Anytime improvement of a plan by iterated local search. Each worker, at most one per pool thread, repeatedly
+ * frees some units of a planned product and refills the released stock with other products that use it,
+ * keeping the move when the plan value does not drop. After a run of moves without improvement a worker
+ * restarts from the best plan found by any worker and perturbs it by releasing several products at once.
+ * Workers stop at the deadline; the best plan seen is returned, never worse than the initial one. Moves respect
+ * product maximums and never take a product below the committed or minimum quantity the initial plan reached.
+ */
+public final class LocalSearch {
+
+    private static final int STALL_MOVES = 512;
+    private static final int KICK_PRODUCTS = 3;
+    private static final int MAX_CANDIDATES_PER_MATERIAL = 64;
+    private static final double EPSILON = 1e-6;
+
+    public record Result(int[] units, double value, double initialValue, long convergedNanos, long elapsedNanos,
+                         long moves) {
+    }
+
+    private record Best(int[] units, double value, long foundNanos) {
+    }
+
+    private LocalSearch() {
+    }
+
+    public static Result improve(PlanningCatalog catalog, int[] initial, Duration timeLimit, long seed,
+                                 ForkJoinPool pool) {
+        return improve(catalog, initial, timeLimit, seed, pool, pool.getParallelism());
+    }
+
+    /**
+     * Runs at most {@code workers} workers, so concurrent searches leave the rest of {@code pool} to other
+     * planning work until the deadline.
+     */
+    public static Result improve(PlanningCatalog catalog, int[] initial, Duration timeLimit, long seed,
+                                 ForkJoinPool pool, int workers) {
+        long start = System.nanoTime();
+        double[] values = new double[catalog.productCount()];
+        for (int product = 0; product < values.length; product++) {
+            values[product] = catalog.productValue(product).doubleValue();
+        }
+        double initialValue = value(initial, values);
+        AtomicReference<Best> best = new AtomicReference<>(new Best(initial.clone(), initialValue, start));
+
+        long moves = 0;
+        if (Arrays.stream(initial).anyMatch(units -> units > 0)) {
+            long deadline = start + timeLimit.toNanos();
+            SplittableRandom random = new SplittableRandom(seed);
+            List<Worker> tasks = new ArrayList<>();
+            for (int i = 0; i < Math.max(1, Math.min(workers, pool.getParallelism())); i++) {
+                tasks.add(new Worker(catalog, values, initial, best, deadline, random.split()));
+            }
+            for (Future<Long> future : pool.invokeAll(tasks)) {
+                moves += result(future);
+            }
+        }
+        Best found = best.get();
+        return new Result(found.units(), found.value(), initialValue, found.foundNanos() - start,
+                System.nanoTime() - start, moves);
+    }
+
+    private static long result(Future<Long> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while improving the plan", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Local search worker failed", ex.getCause());
+        }
+    }
+
+    private static double value(int[] units, double[] values) {
+        double total = 0;
+        for (int product = 0; product < units.length; product++) {
+            total += units[product] * values[product];
+        }
+        return total;
+    }
+
+    private static final class Worker implements Callable<Long> {
+
+        private final PlanningCatalog catalog;
+        private final WhereUsedIndex index;
+        private final double[] values;
+        private final AtomicReference<Best> shared;
+        private final long deadline;
+        private final SplittableRandom random;
+
+        private final int[] units;
+        private final long[] stock;
+        private final int[] floor;
+        private double value;
+        private int[] bestUnits;
+        private double bestValue;
+
+        // Products with units > 0, for uniform sampling; position is -1 for unplanned products
+        private final int[] planned;
+        private final int[] position;
+        private int plannedCount;
+
+        // Undo log of the current move
+        private int[] logProducts = new int[64];
+        private int[] logDeltas = new int[64];
+        private int logSize;
+
+        private final BitSet seen;
+        private int[] candidates = new int[256];
+
+        Worker(PlanningCatalog catalog, double[] values, int[] initial, AtomicReference<Best> shared,
+               long deadline, SplittableRandom random) {
+            this.catalog = catalog;
+            this.index = catalog.whereUsed();
+            this.values = values;
+            this.shared = shared;
+            this.deadline = deadline;
+            this.random = random;
+            this.units = new int[initial.length];
+            this.stock = new long[catalog.materialCount()];
+            this.floor = new int[initial.length];
+            for (int product = 0; product < initial.length; product++) {
+                int required = Math.max(catalog.committedUnits(product), catalog.minUnits(product));
+                floor[product] = Math.min(initial[product], required);
+            }
+            this.planned = new int[initial.length];
+            this.position = new int[initial.length];
+            this.seen = new BitSet(initial.length);
+            load(initial);
+            this.bestUnits = initial.clone();
+            this.bestValue = value;
+        }
+
+        @Override
+        public Long call() {
+            long moves = 0;
+            int stalled = 0;
+            while (System.nanoTime() < deadline && plannedCount > 0) {
+                moves++;
+                if (move()) {
+                    stalled = 0;
+                } else if (++stalled >= STALL_MOVES) {
+                    restart();
+                    stalled = 0;
+                }
+            }
+            return moves;
+        }
+
+        /**
+         * Releases some units of a random planned product and refills the freed stock. Kept unless the plan
+         * value drops; true when it rose.
+         */
+        private boolean move() {
+            int product = planned[random.nextInt(plannedCount)];
+            int removable = units[product] - floor[product];
+            if (removable <= 0) return false;
+
+            double before = value;
+            logSize = 0;
+            change(product, -(random.nextBoolean() ? removable : 1 + random.nextInt(removable)));
+            refill(product);
+            if (value > before + EPSILON) {
+                if (value > bestValue + EPSILON) {
+                    bestUnits = units.clone();
+                    bestValue = value;
+                    publish();
+                }
+                return true;
+            }
+            if (value < before - EPSILON) {
+                undo(before);
+            }
+            return false;
+        }
+
+        /**
+         * Continues from the best plan known to any worker, released at a few random products.
+         */
+        private void restart() {
+            Best global = shared.get();
+            if (global.value() > bestValue + EPSILON) {
+                bestUnits = global.units().clone();
+                bestValue = global.value();
+            }
+            load(bestUnits);
+            logSize = 0;
+            for (int kick = 0; kick < KICK_PRODUCTS && plannedCount > 0; kick++) {
+                int product = planned[random.nextInt(plannedCount)];
+                int removable = units[product] - floor[product];
+                if (removable > 0) change(product, -(1 + random.nextInt(removable)));
+            }
+            refill(-1);
+            if (value > bestValue + EPSILON) {
+                bestUnits = units.clone();
+                bestValue = value;
+                publish();
+            }
+        }
+
+        private void publish() {
+            Best candidate = new Best(bestUnits, bestValue, System.nanoTime());
+            Best current = shared.get();
+            while (candidate.value() > current.value() + EPSILON && !shared.compareAndSet(current, candidate)) {
+                current = shared.get();
+            }
+        }
+
+        /**
+         * Offers the stock released by this move's removals to the products that use it, in random or
+         * planning order, each taking as many units as now fit. {@code excluded} does not take any.
+         */
+        private void refill(int excluded) {
+            int count = 0;
+            int removals = logSize;
+            for (int entry = 0; entry < removals; entry++) {
+                int product = logProducts[entry];
+                for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                    count = collect(catalog.lineMaterial(line), count);
+                }
+            }
+            seen.clear();
+            if (random.nextBoolean()) {
+                Arrays.sort(candidates, 0, count);
+            } else {
+                for (int i = count - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1);
+                    int swap = candidates[i];
+                    candidates[i] = candidates[j];
+                    candidates[j] = swap;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int product = candidates[i];
+                if (product == excluded) continue;
+                int fit = fit(product);
+                if (fit > 0) change(product, fit);
+            }
+        }
+
+        private int collect(int material, int count) {
+            int start = index.usageStart(material);
+            int usages = index.usageEnd(material) - start;
+            int take = Math.min(usages, MAX_CANDIDATES_PER_MATERIAL);
+            for (int i = 0; i < take; i++) {
+                int usage = usages == take ? start + i : start + random.nextInt(usages);
+                int product = index.lineProduct(index.usageLine(usage));
+                if (seen.get(product)) continue;
+                seen.set(product);
+                if (count == candidates.length) candidates = Arrays.copyOf(candidates, count * 2);
+                candidates[count++] = product;
+            }
+            return count;
+        }
+
+        private int fit(int product) {
+            long max = Long.MAX_VALUE;
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                long required = catalog.lineRequired(line);
+                if (required <= 0) continue;
+                max = Math.min(max, Math.max(stock[catalog.lineMaterial(line)], 0) / required);
+            }
+            if (max == Long.MAX_VALUE) return 0;
+            return (int) Math.min(max, (long) catalog.maxUnits(product) - units[product]);
+        }
+
+        private void change(int product, int delta) {
+            apply(product, delta);
+            if (logSize == logProducts.length) {
+                logProducts = Arrays.copyOf(logProducts, logSize * 2);
+                logDeltas = Arrays.copyOf(logDeltas, logSize * 2);
+            }
+            logProducts[logSize] = product;
+            logDeltas[logSize] = delta;
+            logSize++;
+        }
+
+        private void undo(double before) {
+            for (int entry = logSize - 1; entry >= 0; entry--) {
+                apply(logProducts[entry], -logDeltas[entry]);
+            }
+            logSize = 0;
+            value = before;
+        }
+
+        private void apply(int product, int delta) {
+            boolean wasPlanned = units[product] > 0;
+            units[product] += delta;
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                stock[catalog.lineMaterial(line)] -= catalog.lineRequired(line) * delta;
+            }
+            value += delta * values[product];
+            boolean isPlanned = units[product] > 0;
+            if (isPlanned && !wasPlanned) {
+                position[product] = plannedCount;
+                planned[plannedCount++] = product;
+            } else if (wasPlanned && !isPlanned) {
+                int last = planned[--plannedCount];
+                planned[position[product]] = last;
+                position[last] = position[product];
+                position[product] = -1;
+            }
+        }
+
+        private void load(int[] plan) {
+            Arrays.fill(units, 0);
+            Arrays.fill(position, -1);
+            plannedCount = 0;
+            for (int material = 0; material < stock.length; material++) {
+                stock[material] = catalog.stock(material);
+            }
+            value = 0;
+            for (int product = 0; product < plan.length; product++) {
+                if (plan[product] > 0) apply(product, plan[product]);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Gross material requirements of a plan: one pass over the BOM lines of the planned products, summing
+ * units times required quantity into a per-material array indexed like the catalog.
+ */
+public final class MaterialRequirements {
+
+    private MaterialRequirements() {
+    }
+
+    /**
+     * Units of every material consumed by producing {@code units} of each product.
+     *
+     * @throws ArithmeticException when a requirement does not fit in a long
+     */
+    public static long[] of(PlanningCatalog catalog, int[] units) {
+        long[] required = new long[catalog.materialCount()];
+        for (int product = 0; product < units.length; product++) {
+            if (units[product] == 0) continue;
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                int material = catalog.lineMaterial(line);
+                required[material] = Math.addExact(required[material],
+                        Math.multiplyExact(catalog.lineRequired(line), units[product]));
+            }
+        }
+        return required;
+    }
+
+    /**
+     * Smallest purchase covering {@code shortage} that is at least {@code minOrder} and a multiple of
+     * {@code packSize} (ignored when not positive). Zero when nothing is short.
+     */
+    public static long purchase(long shortage, long minOrder, long packSize) {
+        if (shortage <= 0) return 0;
+        long quantity = Math.max(shortage, minOrder);
+        return packSize > 0 ? Math.multiplyExact(Math.ceilDiv(quantity, packSize), packSize) : quantity;
+    }
+}
@@ -0,0 +1,181 @@
+package com.supplymanager.service.planning;
+
+import java.util.Arrays;
+
+/**
+ * Time-phased material plan over a horizon of daily buckets. Every material has a per-bucket net change
+ * (scheduled receipts minus the consumption of production orders) from which the projected on-hand stock at
+ * the end of each bucket and the quantity still available to bucket {@code d} (the smallest projected on-hand
+ * from {@code d} to the end of the horizon, never negative) follow. A product's feasible quantity in a bucket
+ * is what its scarcest material allows from the available quantities, each product considered on its own.
+ *
+ * <p>Changes are recorded with {@link #addReceipt} and {@link #addDemand} and applied by {@link #refresh},
+ * which recomputes the on-hand stock of every changed material only from its earliest changed bucket onward,
+ * walks the available quantities back just as far as they actually change, and then re-derives the feasible
+ * quantities of the products using those materials over the changed range. Not thread-safe.
+ */
+public final class MaterialSchedule {
+
+    private final PlanningCatalog catalog;
+    private final int buckets;
+    private final long[] net;
+    private final long[] onHand;
+    private final long[] available;
+    private final int[] feasible;
+    private final int[] materialDirtyFrom;
+    private final int[] productDirtyFrom;
+    private boolean dirty;
+    private long recomputedBuckets;
+
+    private MaterialSchedule(PlanningCatalog catalog, int buckets) {
+        this.catalog = catalog;
+        this.buckets = buckets;
+        this.net = new long[catalog.materialCount() * buckets];
+        this.onHand = new long[net.length];
+        this.available = new long[net.length];
+        this.feasible = new int[catalog.productCount() * buckets];
+        this.materialDirtyFrom = new int[catalog.materialCount()];
+        this.productDirtyFrom = new int[catalog.productCount()];
+        Arrays.fill(productDirtyFrom, buckets);
+    }
+
+    /**
+     * Schedule of the catalog's current stock with no receipts or demand; {@link #refresh} computes it.
+     */
+    public static MaterialSchedule of(PlanningCatalog catalog, int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("buckets must be positive");
+        }
+        MaterialSchedule schedule = new MaterialSchedule(catalog, buckets);
+        schedule.dirty = catalog.materialCount() > 0;
+        return schedule;
+    }
+
+    public PlanningCatalog catalog() {
+        return catalog;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    /**
+     * Adds {@code units} of the material arriving in {@code bucket}; negative units withdraw a receipt.
+     */
+    public void addReceipt(int material, int bucket, long units) {
+        change(material, bucket, units);
+    }
+
+    /**
+     * Consumes the BOM of {@code units} of the product in {@code bucket}; negative units withdraw an order.
+     *
+     * @throws ArithmeticException when the consumption does not fit in a long
+     */
+    public void addDemand(int product, int bucket, int units) {
+        for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+            change(catalog.lineMaterial(line), bucket, Math.negateExact(Math.multiplyExact(catalog.lineRequired(line), units)));
+        }
+    }
+
+    /**
+     * Recomputes what the changes since the last refresh affect.
+     *
+     * @return the number of material buckets whose projected on-hand stock was recomputed
+     * @throws ArithmeticException when a projected level does not fit in a long
+     */
+    public long refresh() {
+        if (!dirty) return 0;
+        long before = recomputedBuckets;
+        WhereUsedIndex whereUsed = catalog.whereUsed();
+        for (int material = 0; material < materialDirtyFrom.length; material++) {
+            int from = materialDirtyFrom[material];
+            if (from == buckets) continue;
+            int changedFrom = recomputeMaterial(material, from);
+            materialDirtyFrom[material] = buckets;
+            for (int usage = whereUsed.usageStart(material); usage < whereUsed.usageEnd(material); usage++) {
+                int product = whereUsed.lineProduct(whereUsed.usageLine(usage));
+                productDirtyFrom[product] = Math.min(productDirtyFrom[product], changedFrom);
+            }
+        }
+        for (int product = 0; product < productDirtyFrom.length; product++) {
+            if (productDirtyFrom[product] < buckets) {
+                recomputeProduct(product, productDirtyFrom[product]);
+                productDirtyFrom[product] = buckets;
+            }
+        }
+        dirty = false;
+        return recomputedBuckets - before;
+    }
+
+    /**
+     * Projected stock at the end of the bucket; negative when receipts do not cover the demand.
+     */
+    public long onHand(int material, int bucket) {
+        return onHand[material * buckets + bucket];
+    }
+
+    /**
+     * Units of the material that bucket {@code bucket} can consume without any later bucket running short.
+     */
+    public long available(int material, int bucket) {
+        return available[material * buckets + bucket];
+    }
+
+    public int feasible(int product, int bucket) {
+        return feasible[product * buckets + bucket];
+    }
+
+    /**
+     * Material buckets recomputed since the schedule was created.
+     */
+    public long recomputedBuckets() {
+        return recomputedBuckets;
+    }
+
+    private void change(int material, int bucket, long units) {
+        if (units == 0) return;
+        int index = material * buckets + bucket;
+        net[index] = Math.addExact(net[index], units);
+        materialDirtyFrom[material] = Math.min(materialDirtyFrom[material], bucket);
+        dirty = true;
+    }
+
+    /**
+     * Returns the first bucket whose available quantity may have changed.
+     */
+    private int recomputeMaterial(int material, int from) {
+        int base = material * buckets;
+        long level = from == 0 ? catalog.stock(material) : onHand[base + from - 1];
+        for (int bucket = from; bucket < buckets; bucket++) {
+            level = Math.addExact(level, net[base + bucket]);
+            onHand[base + bucket] = level;
+        }
+        recomputedBuckets += buckets - from;
+
+        // Earlier buckets see the new levels only through the minimum, so stop once it no longer changes
+        long minimum = Long.MAX_VALUE;
+        for (int bucket = buckets - 1; bucket >= 0; bucket--) {
+            minimum = Math.min(minimum, onHand[base + bucket]);
+            long value = Math.max(0, minimum);
+            if (bucket < from && available[base + bucket] == value) {
+                return bucket + 1;
+            }
+            available[base + bucket] = value;
+        }
+        return 0;
+    }
+
+    private void recomputeProduct(int product, int from) {
+        int base = product * buckets;
+        for (int bucket = from; bucket < buckets; bucket++) {
+            long units = Integer.MAX_VALUE;
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                long required = catalog.lineRequired(line);
+                if (required > 0) {
+                    units = Math.min(units, available(catalog.lineMaterial(line), bucket) / required);
+                }
+            }
+            feasible[base + bucket] = (int) units;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.supplymanager.service.planning;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Greedy plans over randomly drawn stock scenarios. Each material's stock is its current level plus
+ * normally distributed noise (clamped at zero) and, with some probability, an incoming delivery.
+ * Scenarios run in batches on a fork-join pool; every fork splits its {@link SplittableRandom}, so results
+ * depend only on the seed, not on the pool size or scheduling. Per-product quantities are folded into
+ * bounded {@link UnitHistogram}s after each batch instead of being kept for every scenario.
+ */
+public final class MonteCarloSimulation {
+
+    private static final int BATCH_SIMULATIONS = 256;
+    private static final int LEAF_SIMULATIONS = 8;
+    private static final int LEAF_PRODUCTS = 512;
+
+    /**
+     * Per-material distribution parameters, indexed like the catalog materials. Quantities are in units.
+     */
+    public record Uncertainty(long[] stdDevUnits, long[] incomingUnits, double[] incomingProbability) {
+
+        public static Uncertainty none(PlanningCatalog catalog) {
+            int materials = catalog.materialCount();
+            return new Uncertainty(new long[materials], new long[materials], new double[materials]);
+        }
+    }
+
+    private MonteCarloSimulation() {
+    }
+
+    public static Result run(PlanningCatalog catalog, Uncertainty uncertainty, int simulations, long seed,
+                             ForkJoinPool pool) {
+        int products = catalog.productCount();
+        double[] values = new double[products];
+        UnitHistogram[] histograms = new UnitHistogram[products];
+        for (int product = 0; product < products; product++) {
+            values[product] = catalog.productValue(product).doubleValue();
+            histograms[product] = new UnitHistogram();
+        }
+
+        double[] totals = new double[simulations];
+        int[][] batch = new int[Math.min(BATCH_SIMULATIONS, simulations)][];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int offset = 0; offset < simulations; offset += BATCH_SIMULATIONS) {
+            int size = Math.min(BATCH_SIMULATIONS, simulations - offset);
+            pool.invoke(new Simulate(catalog, uncertainty, values, random.split(), batch, totals, offset, 0, size));
+            pool.invoke(new Record(batch, size, histograms, 0, products));
+        }
+        Arrays.sort(totals);
+        return new Result(totals, histograms);
+    }
+
+    static void draw(PlanningCatalog catalog, Uncertainty uncertainty, SplittableRandom random, long[] stock) {
+        for (int material = 0; material < stock.length; material++) {
+            long level = catalog.stock(material);
+            long stdDev = uncertainty.stdDevUnits()[material];
+            if (stdDev > 0) {
+                level = Math.max(0, level + Math.round(random.nextGaussian() * stdDev));
+            }
+            long incoming = uncertainty.incomingUnits()[material];
+            if (incoming > 0 && random.nextDouble() < uncertainty.incomingProbability()[material]) {
+                level += incoming;
+            }
+            stock[material] = level;
+        }
+    }
+
+    public static final class Result {
+
+        private final double[] sortedTotals;
+        private final UnitHistogram[] histograms;
+
+        private Result(double[] sortedTotals, UnitHistogram[] histograms) {
+            this.sortedTotals = sortedTotals;
+            this.histograms = histograms;
+        }
+
+        public int simulations() {
+            return sortedTotals.length;
+        }
+
+        /**
+         * Nearest-rank percentile (0-100) of the total production value.
+         */
+        public double totalValuePercentile(double percentile) {
+            int rank = (int) Math.max(1, Math.ceil(percentile / 100.0 * sortedTotals.length));
+            return sortedTotals[Math.min(rank, sortedTotals.length) - 1];
+        }
+
+        public double meanTotalValue() {
+            double sum = 0;
+            for (double total : sortedTotals) sum += total;
+            return sortedTotals.length == 0 ? 0 : sum / sortedTotals.length;
+        }
+
+        /**
+         * Percentile (0-100) of the units planned for {@code product}; exact unless the product's quantities
+         * spread over more than {@link UnitHistogram#MAX_BUCKETS} distinct values.
+         */
+        public int unitsPercentile(int product, double percentile) {
+            return histograms[product].percentile(percentile);
+        }
+    }
+
+    private static final class Simulate extends RecursiveAction {
+
+        private final PlanningCatalog catalog;
+        private final Uncertainty uncertainty;
+        private final double[] values;
+        private final SplittableRandom random;
+        private final int[][] batch;
+        private final double[] totals;
+        private final int offset;
+        private final int start;
+        private final int end;
+
+        Simulate(PlanningCatalog catalog, Uncertainty uncertainty, double[] values, SplittableRandom random,
+                 int[][] batch, double[] totals, int offset, int start, int end) {
+            this.catalog = catalog;
+            this.uncertainty = uncertainty;
+            this.values = values;
+            this.random = random;
+            this.batch = batch;
+            this.totals = totals;
+            this.offset = offset;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_SIMULATIONS) {
+                int mid = (start + end) >>> 1;
+                // The split happens before either half runs, so each range always gets the same stream
+                SplittableRandom left = random.split();
+                invokeAll(new Simulate(catalog, uncertainty, values, left, batch, totals, offset, start, mid),
+                        new Simulate(catalog, uncertainty, values, random, batch, totals, offset, mid, end));
+                return;
+            }
+            long[] stock = new long[catalog.materialCount()];
+            for (int simulation = start; simulation < end; simulation++) {
+                draw(catalog, uncertainty, random, stock);
+                int[] units = GreedyPlanner.plan(catalog, stock);
+                double total = 0;
+                for (int product = 0; product < units.length; product++) {
+                    total += units[product] * values[product];
+                }
+                batch[simulation] = units;
+                totals[offset + simulation] = total;
+            }
+        }
+    }
+
+    private static final class Record extends RecursiveAction {
+
+        private final int[][] batch;
+        private final int size;
+        private final UnitHistogram[] histograms;
+        private final int start;
+        private final int end;
+
+        Record(int[][] batch, int size, UnitHistogram[] histograms, int start, int end) {
+            this.batch = batch;
+            this.size = size;
+            this.histograms = histograms;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_PRODUCTS) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new Record(batch, size, histograms, start, mid),
+                        new Record(batch, size, histograms, mid, end));
+                return;
+            }
+            for (int product = start; product < end; product++) {
+                UnitHistogram histogram = histograms[product];
+                for (int simulation = 0; simulation < size; simulation++) {
+                    histogram.record(batch[simulation][product]);
+                }
+            }
+        }
+    }
+}
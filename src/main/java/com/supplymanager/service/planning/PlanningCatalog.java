@@ -0,0 +1,351 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Flat view of the products (in planning order), their BOM lines and the raw material stock.
+ * Quantities are fixed-point longs at {@link #QUANTITY_SCALE}; product values are kept as unscaled
+ * long plus scale. The product and BOM structure lives in primitive buffers that are either heap
+ * arrays or slices of a memory-mapped {@link CatalogSnapshot}; only the stock is a per-plan array.
+ * Materials are indexed in ascending id order. Products may carry a maximum, minimum and committed
+ * quantity; absent limits are stored as {@link #UNLIMITED} and zero.
+ */
+public final class PlanningCatalog {
+
+    public static final int QUANTITY_SCALE = 4;
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private final LongBuffer productIds;
+    private final LongBuffer valueUnscaled;
+    private final IntBuffer valueScales;
+    private final IntBuffer lineOffsets;
+    private final IntBuffer lineMaterials;
+    private final LongBuffer lineRequired;
+    private final LongBuffer materialIds;
+    private final IntBuffer maxUnits;
+    private final IntBuffer minUnits;
+    private final IntBuffer committedUnits;
+    private final boolean priorities;
+    private final long[] stock;
+    private final AtomicReference<WhereUsedIndex> whereUsed;
+
+    PlanningCatalog(LongBuffer productIds, LongBuffer valueUnscaled, IntBuffer valueScales, IntBuffer lineOffsets,
+                    IntBuffer lineMaterials, LongBuffer lineRequired, LongBuffer materialIds, IntBuffer maxUnits,
+                    IntBuffer minUnits, IntBuffer committedUnits, long[] stock) {
+        this(productIds, valueUnscaled, valueScales, lineOffsets, lineMaterials, lineRequired, materialIds,
+                maxUnits, minUnits, committedUnits, anyPositive(minUnits) || anyPositive(committedUnits), stock,
+                new AtomicReference<>());
+    }
+
+    private PlanningCatalog(LongBuffer productIds, LongBuffer valueUnscaled, IntBuffer valueScales,
+                            IntBuffer lineOffsets, IntBuffer lineMaterials, LongBuffer lineRequired,
+                            LongBuffer materialIds, IntBuffer maxUnits, IntBuffer minUnits, IntBuffer committedUnits,
+                            boolean priorities, long[] stock, AtomicReference<WhereUsedIndex> whereUsed) {
+        this.productIds = productIds;
+        this.valueUnscaled = valueUnscaled;
+        this.valueScales = valueScales;
+        this.lineOffsets = lineOffsets;
+        this.lineMaterials = lineMaterials;
+        this.lineRequired = lineRequired;
+        this.materialIds = materialIds;
+        this.maxUnits = maxUnits;
+        this.minUnits = minUnits;
+        this.committedUnits = committedUnits;
+        this.priorities = priorities;
+        this.stock = stock;
+        this.whereUsed = whereUsed;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static long toUnits(BigDecimal quantity) {
+        return quantity.setScale(QUANTITY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromUnits(long units) {
+        return BigDecimal.valueOf(units, QUANTITY_SCALE);
+    }
+
+    /**
+     * Returns a catalog sharing this structure with the given stock. Materials not used by any BOM line
+     * are ignored; BOM materials without a stock level get zero.
+     */
+    public PlanningCatalog withStock(Collection<StockLevel> stockLevels) {
+        long[] levels = new long[materialCount()];
+        for (StockLevel level : stockLevels) {
+            int material = materialIndex(level.rawMaterialId());
+            if (material >= 0) {
+                levels[material] = toUnits(level.stockQuantity());
+            }
+        }
+        return new PlanningCatalog(productIds, valueUnscaled, valueScales, lineOffsets, lineMaterials, lineRequired,
+                materialIds, maxUnits, minUnits, committedUnits, priorities, levels, whereUsed);
+    }
+
+    /**
+     * Material-to-lines index of this structure, built on first use and shared with {@link #withStock} copies.
+     */
+    public WhereUsedIndex whereUsed() {
+        WhereUsedIndex index = whereUsed.get();
+        if (index == null) {
+            index = WhereUsedIndex.of(this);
+            if (!whereUsed.compareAndSet(null, index)) {
+                index = whereUsed.get();
+            }
+        }
+        return index;
+    }
+
+    public int productCount() {
+        return productIds.capacity();
+    }
+
+    public int materialCount() {
+        return materialIds.capacity();
+    }
+
+    public int lineCount() {
+        return lineMaterials.capacity();
+    }
+
+    public long productId(int product) {
+        return productIds.get(product);
+    }
+
+    public BigDecimal productValue(int product) {
+        return BigDecimal.valueOf(valueUnscaled.get(product), valueScales.get(product));
+    }
+
+    public int lineStart(int product) {
+        return lineOffsets.get(product);
+    }
+
+    public int lineEnd(int product) {
+        return lineOffsets.get(product + 1);
+    }
+
+    public int lineMaterial(int line) {
+        return lineMaterials.get(line);
+    }
+
+    public long lineRequired(int line) {
+        return lineRequired.get(line);
+    }
+
+    public long materialId(int material) {
+        return materialIds.get(material);
+    }
+
+    /**
+     * Index of the material with the given id, or a negative value when no BOM line uses it.
+     */
+    public int materialIndex(long rawMaterialId) {
+        int low = 0;
+        int high = materialCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = materialIds.get(mid);
+            if (id < rawMaterialId) low = mid + 1;
+            else if (id > rawMaterialId) high = mid - 1;
+            else return mid;
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Most units of {@code product} a plan may contain; {@link #UNLIMITED} when uncapped.
+     */
+    public int maxUnits(int product) {
+        return maxUnits.get(product);
+    }
+
+    public int minUnits(int product) {
+        return minUnits.get(product);
+    }
+
+    public int committedUnits(int product) {
+        return committedUnits.get(product);
+    }
+
+    /**
+     * Whether any product has a minimum or committed quantity, which the planner serves before the
+     * value-ordered pass.
+     */
+    public boolean hasPriorities() {
+        return priorities;
+    }
+
+    public long stock(int material) {
+        return stock[material];
+    }
+
+    public long[] stockCopy() {
+        return stock.clone();
+    }
+
+    LongBuffer productIds() {
+        return productIds;
+    }
+
+    LongBuffer valueUnscaled() {
+        return valueUnscaled;
+    }
+
+    IntBuffer valueScales() {
+        return valueScales;
+    }
+
+    IntBuffer lineOffsets() {
+        return lineOffsets;
+    }
+
+    IntBuffer lineMaterials() {
+        return lineMaterials;
+    }
+
+    LongBuffer lineRequired() {
+        return lineRequired;
+    }
+
+    LongBuffer materialIds() {
+        return materialIds;
+    }
+
+    IntBuffer maxUnits() {
+        return maxUnits;
+    }
+
+    IntBuffer minUnits() {
+        return minUnits;
+    }
+
+    IntBuffer committedUnits() {
+        return committedUnits;
+    }
+
+    private static boolean anyPositive(IntBuffer values) {
+        for (int i = 0; i < values.capacity(); i++) {
+            if (values.get(i) > 0) return true;
+        }
+        return false;
+    }
+
+    public static final class Builder {
+
+        private final Map<Long, Integer> materialIndex = new HashMap<>();
+        private long[] materialIds = new long[16];
+        private int materialCount;
+
+        private long[] productIds = new long[64];
+        private long[] valueUnscaled = new long[64];
+        private int[] valueScales = new int[64];
+        private int[] maxUnits = new int[64];
+        private int[] minUnits = new int[64];
+        private int[] committedUnits = new int[64];
+        private int[] lineOffsets = new int[65];
+        private int productCount;
+
+        private int[] lineMaterials = new int[256];
+        private long[] lineRequired = new long[256];
+        private int lineCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Appends a BOM line. Lines of the same product must be contiguous, in planning order.
+         */
+        public Builder add(PlanningLine line) {
+            if (productCount == 0 || productIds[productCount - 1] != line.productId()) {
+                startProduct(line);
+            }
+            if (lineCount == lineMaterials.length) {
+                lineMaterials = Arrays.copyOf(lineMaterials, lineCount * 2);
+                lineRequired = Arrays.copyOf(lineRequired, lineCount * 2);
+            }
+            lineMaterials[lineCount] = materialIndex(line.rawMaterialId());
+            lineRequired[lineCount] = toUnits(line.requiredQuantity());
+            lineCount++;
+            lineOffsets[productCount] = lineCount;
+            return this;
+        }
+
+        public PlanningCatalog build() {
+            // Renumber materials in ascending id order so stock can be matched by binary search
+            Integer[] order = new Integer[materialCount];
+            for (int i = 0; i < materialCount; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Long.compare(materialIds[a], materialIds[b]));
+            int[] renumber = new int[materialCount];
+            long[] sortedIds = new long[materialCount];
+            for (int i = 0; i < materialCount; i++) {
+                renumber[order[i]] = i;
+                sortedIds[i] = materialIds[order[i]];
+            }
+            int[] lines = new int[lineCount];
+            for (int line = 0; line < lineCount; line++) {
+                lines[line] = renumber[lineMaterials[line]];
+            }
+
+            return new PlanningCatalog(
+                    LongBuffer.wrap(Arrays.copyOf(productIds, productCount)),
+                    LongBuffer.wrap(Arrays.copyOf(valueUnscaled, productCount)),
+                    IntBuffer.wrap(Arrays.copyOf(valueScales, productCount)),
+                    IntBuffer.wrap(Arrays.copyOf(lineOffsets, productCount + 1)),
+                    IntBuffer.wrap(lines),
+                    LongBuffer.wrap(Arrays.copyOf(lineRequired, lineCount)),
+                    LongBuffer.wrap(sortedIds),
+                    IntBuffer.wrap(Arrays.copyOf(maxUnits, productCount)),
+                    IntBuffer.wrap(Arrays.copyOf(minUnits, productCount)),
+                    IntBuffer.wrap(Arrays.copyOf(committedUnits, productCount)),
+                    new long[materialCount]);
+        }
+
+        private void startProduct(PlanningLine line) {
+            if (productCount == productIds.length) {
+                productIds = Arrays.copyOf(productIds, productCount * 2);
+                valueUnscaled = Arrays.copyOf(valueUnscaled, productCount * 2);
+                valueScales = Arrays.copyOf(valueScales, productCount * 2);
+                maxUnits = Arrays.copyOf(maxUnits, productCount * 2);
+                minUnits = Arrays.copyOf(minUnits, productCount * 2);
+                committedUnits = Arrays.copyOf(committedUnits, productCount * 2);
+                lineOffsets = Arrays.copyOf(lineOffsets, productCount * 2 + 1);
+            }
+            BigDecimal value = line.productValue();
+            productIds[productCount] = line.productId();
+            valueUnscaled[productCount] = value.unscaledValue().longValueExact();
+            valueScales[productCount] = value.scale();
+            maxUnits[productCount] = line.maxQuantity() != null ? line.maxQuantity() : UNLIMITED;
+            minUnits[productCount] = line.minQuantity() != null ? line.minQuantity() : 0;
+            committedUnits[productCount] = line.committedQuantity() != null ? line.committedQuantity() : 0;
+            lineOffsets[productCount] = lineCount;
+            productCount++;
+            lineOffsets[productCount] = lineCount;
+        }
+
+        private int materialIndex(Long rawMaterialId) {
+            Integer existing = materialIndex.get(rawMaterialId);
+            if (existing != null) {
+                return existing;
+            }
+            if (materialCount == materialIds.length) {
+                materialIds = Arrays.copyOf(materialIds, materialCount * 2);
+            }
+            materialIds[materialCount] = rawMaterialId;
+            materialIndex.put(rawMaterialId, materialCount);
+            return materialCount++;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.dto.PlanningJobDTO;
+import com.supplymanager.domain.dto.PlanningJobStatus;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+
+/**
+ * State of one asynchronous planning run. Doubles as the planner's progress sink, which is
+ * where cancellation and the time budget are enforced between products.
+ */
+public class PlanningJob implements PlanningProgress {
+
+    private final long id;
+    private final Instant submittedAt = Instant.now();
+    private final long deadlineNanos;
+
+    private volatile PlanningJobStatus status = PlanningJobStatus.QUEUED;
+    private volatile int processed;
+    private volatile int total;
+    private volatile Instant finishedAt;
+    private volatile ProductionSuggestionDTO result;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    public PlanningJob(long id, Duration timeBudget) {
+        this.id = id;
+        this.deadlineNanos = System.nanoTime() + timeBudget.toNanos();
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public PlanningJobStatus status() {
+        return status;
+    }
+
+    public ProductionSuggestionDTO result() {
+        return result;
+    }
+
+    /**
+     * Records the execution running this job so {@link #cancel} can interrupt it.
+     */
+    public void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    @Override
+    public void onProduct(int processed, int total) {
+        this.processed = processed;
+        this.total = total;
+        checkAlive();
+    }
+
+    public synchronized boolean start() {
+        if (status != PlanningJobStatus.QUEUED) return false;
+        status = PlanningJobStatus.RUNNING;
+        return true;
+    }
+
+    public void checkAlive() {
+        if (status.isFinished() || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Planning job " + id + " was cancelled");
+        }
+        if (System.nanoTime() - deadlineNanos > 0) {
+            finish(PlanningJobStatus.TIMED_OUT, null, "Time budget exceeded");
+            throw new CancellationException("Planning job " + id + " exceeded its time budget");
+        }
+    }
+
+    public boolean cancel() {
+        if (!finish(PlanningJobStatus.CANCELLED, null, null)) return false;
+        Future<?> running = future;
+        if (running != null) running.cancel(true);
+        return true;
+    }
+
+    public void complete(ProductionSuggestionDTO suggestion) {
+        finish(PlanningJobStatus.COMPLETED, suggestion, null);
+    }
+
+    public void fail(Throwable cause) {
+        finish(PlanningJobStatus.FAILED, null, cause.getMessage());
+    }
+
+    private synchronized boolean finish(PlanningJobStatus outcome, ProductionSuggestionDTO suggestion, String message) {
+        if (status.isFinished()) return false;
+        result = suggestion;
+        error = message;
+        finishedAt = Instant.now();
+        status = outcome;
+        return true;
+    }
+
+    public PlanningJobDTO toDTO() {
+        return new PlanningJobDTO(id, status, processed, total, submittedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,90 @@
+package com.supplymanager.service.planning;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class PlanningMetrics {
+
+    private final Timer loadTimer;
+    private final Timer computeTimer;
+    private final Timer serializeTimer;
+    private final DistributionSummary productsConsidered;
+    private final DistributionSummary linesScanned;
+    private final DistributionSummary unitsSuggested;
+    private final Counter executedCalls;
+    private final Counter coalescedCalls;
+    private final Counter rejectedCalls;
+
+    public PlanningMetrics(MeterRegistry registry) {
+        this.loadTimer = phaseTimer(registry, "load");
+        this.computeTimer = phaseTimer(registry, "compute");
+        this.serializeTimer = phaseTimer(registry, "serialize");
+        this.productsConsidered = summary(registry, "supplymanager.planner.products.considered", "products");
+        this.linesScanned = summary(registry, "supplymanager.planner.bom.lines.scanned", "lines");
+        this.unitsSuggested = summary(registry, "supplymanager.planner.units.suggested", "units");
+        this.executedCalls = callCounter(registry, "executed");
+        this.coalescedCalls = callCounter(registry, "coalesced");
+        this.rejectedCalls = callCounter(registry, "rejected");
+    }
+
+    public void recordLoad(long nanos) {
+        loadTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCompute(long nanos) {
+        computeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSerialize(long nanos) {
+        serializeTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordPlan(PlanningCatalog catalog, int[] units) {
+        long total = 0;
+        for (int quantity : units) {
+            total += quantity;
+        }
+        productsConsidered.record(catalog.productCount());
+        linesScanned.record(catalog.lineCount());
+        unitsSuggested.record(total);
+    }
+
+    public void recordExecuted() {
+        executedCalls.increment();
+    }
+
+    public void recordCoalesced() {
+        coalescedCalls.increment();
+    }
+
+    public void recordRejected() {
+        rejectedCalls.increment();
+    }
+
+    private static Counter callCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("supplymanager.planner.calls")
+                .description("Suggestion requests by outcome: executed, joined an in-flight run, or rejected")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Timer phaseTimer(MeterRegistry registry, String phase) {
+        return Timer.builder("supplymanager.planner.phase")
+                .description("Time spent in each phase of a production suggestion")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static DistributionSummary summary(MeterRegistry registry, String name, String unit) {
+        return DistributionSummary.builder(name)
+                .baseUnit(unit)
+                .register(registry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Receives progress from the planner after each product. Implementations may abort
+ * the run by throwing an unchecked exception, e.g. {@link java.util.concurrent.CancellationException}.
+ */
+@FunctionalInterface
+public interface PlanningProgress {
+
+    PlanningProgress NONE = (processed, total) -> { };
+
+    void onProduct(int processed, int total);
+}
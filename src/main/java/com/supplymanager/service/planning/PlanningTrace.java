@@ -0,0 +1,20 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Receives the planner's decision for each product in the value-ordered pass. {@link #NONE} is a
+ * stateless no-op, so a plan without a trace allocates nothing for it.
+ */
+@FunctionalInterface
+public interface PlanningTrace {
+
+    PlanningTrace NONE = (product, line, available, limit, units) -> { };
+
+    /**
+     * @param line      BOM line of the scarcest material, or -1 when the product had no room left under its
+     *                  maximum or needs no material
+     * @param available stock of that material before the allocation
+     * @param limit     units the product could still take under its maximum
+     * @param units     units allocated
+     */
+    void onAllocation(int product, int line, long available, int limit, int units);
+}
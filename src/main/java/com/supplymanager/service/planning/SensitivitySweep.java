@@ -0,0 +1,62 @@
+package com.supplymanager.service.planning;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Marginal production value of every BOM material for a set of stock increments. Materials are split
+ * across a fork-join pool; each perturbed plan is evaluated incrementally against the shared baseline by
+ * {@link ImpactAnalysis}, so only the products downstream of the material are re-planned.
+ */
+public final class SensitivitySweep {
+
+    private static final int LEAF_MATERIALS = 16;
+
+    private SensitivitySweep() {
+    }
+
+    /**
+     * Value gained per material (rows, in catalog material order) and increment (columns).
+     */
+    public static BigDecimal[][] run(ImpactAnalysis.Baseline baseline, long[] deltaUnits, ForkJoinPool pool) {
+        BigDecimal[][] gains = new BigDecimal[baseline.catalog().materialCount()][deltaUnits.length];
+        pool.invoke(new Slice(baseline, deltaUnits, gains, 0, gains.length));
+        return gains;
+    }
+
+    private static final class Slice extends RecursiveAction {
+
+        private final ImpactAnalysis.Baseline baseline;
+        private final long[] deltaUnits;
+        private final BigDecimal[][] gains;
+        private final int start;
+        private final int end;
+
+        Slice(ImpactAnalysis.Baseline baseline, long[] deltaUnits, BigDecimal[][] gains, int start, int end) {
+            this.baseline = baseline;
+            this.deltaUnits = deltaUnits;
+            this.gains = gains;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > LEAF_MATERIALS) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new Slice(baseline, deltaUnits, gains, start, mid),
+                        new Slice(baseline, deltaUnits, gains, mid, end));
+                return;
+            }
+            PlanningCatalog catalog = baseline.catalog();
+            ImpactAnalysis.Workspace workspace = new ImpactAnalysis.Workspace(catalog);
+            for (int material = start; material < end; material++) {
+                for (int step = 0; step < deltaUnits.length; step++) {
+                    gains[material][step] = ImpactAnalysis.valueChange(catalog,
+                            ImpactAnalysis.evaluate(baseline, material, deltaUnits[step], workspace));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Histogram of non-negative unit counts over a sliding range of buckets. Counts are exact while the
+ * observed range fits {@link #MAX_BUCKETS}; wider ranges double the bucket width, keeping memory bounded
+ * per product however many scenarios are recorded.
+ */
+final class UnitHistogram {
+
+    static final int MAX_BUCKETS = 4096;
+
+    private int shift;
+    private long first;
+    private int[] counts = new int[0];
+    private long lowest;
+    private long highest;
+    private long total;
+
+    void record(int units) {
+        long bucket = units >> shift;
+        if (total == 0) {
+            first = bucket;
+            counts = new int[8];
+            lowest = bucket;
+            highest = bucket;
+        } else if (bucket < first || bucket >= first + counts.length) {
+            bucket = include(units);
+        }
+        counts[(int) (bucket - first)]++;
+        lowest = Math.min(lowest, bucket);
+        highest = Math.max(highest, bucket);
+        total++;
+    }
+
+    long total() {
+        return total;
+    }
+
+    /**
+     * Nearest-rank percentile; the midpoint of the bucket once buckets are wider than one unit.
+     */
+    int percentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        long bucket = lowest;
+        for (; bucket < highest; bucket++) {
+            seen += counts[(int) (bucket - first)];
+            if (seen >= rank) break;
+        }
+        return (int) ((bucket << shift) + ((1L << shift) >> 1));
+    }
+
+    /**
+     * Makes room for {@code units}, coarsening until the observed range including it fits, and returns
+     * its bucket.
+     */
+    private long include(int units) {
+        long bucket = units >> shift;
+        while (Math.max(highest, bucket) - Math.min(lowest, bucket) + 1 > MAX_BUCKETS) {
+            coarsen();
+            bucket = units >> shift;
+        }
+        if (bucket >= first && bucket < first + counts.length) {
+            return bucket;
+        }
+        long low = Math.min(lowest, bucket);
+        long high = Math.max(highest, bucket);
+        int length = (int) Math.min(MAX_BUCKETS, Math.max(high - low + 1, counts.length * 2L));
+        // Leave the spare buckets on the side the range is growing towards
+        long newFirst = bucket < lowest ? Math.max(0, high - length + 1) : low;
+        int[] grown = new int[length];
+        System.arraycopy(counts, (int) (lowest - first), grown, (int) (lowest - newFirst), (int) (highest - lowest + 1));
+        counts = grown;
+        first = newFirst;
+        return bucket;
+    }
+
+    private void coarsen() {
+        long newFirst = first >> 1;
+        int[] merged = new int[(int) (((first + counts.length - 1) >> 1) - newFirst + 1)];
+        for (int i = 0; i < counts.length; i++) {
+            merged[(int) (((first + i) >> 1) - newFirst)] += counts[i];
+        }
+        counts = merged;
+        first = newFirst;
+        lowest >>= 1;
+        highest >>= 1;
+        shift++;
+    }
+}
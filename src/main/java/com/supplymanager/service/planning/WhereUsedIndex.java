@@ -0,0 +1,62 @@
+package com.supplymanager.service.planning;
+
+/**
+ * Reverse of the catalog's product-to-lines layout: for every material, the BOM lines that consume it,
+ * in planning order. Built in O(lines) with a counting sort and shared by every catalog that reuses the
+ * same structure, so it is rebuilt only when the product/BOM version changes.
+ */
+public final class WhereUsedIndex {
+
+    private final int[] materialOffsets;
+    private final int[] materialLines;
+    private final int[] lineProducts;
+
+    private WhereUsedIndex(int[] materialOffsets, int[] materialLines, int[] lineProducts) {
+        this.materialOffsets = materialOffsets;
+        this.materialLines = materialLines;
+        this.lineProducts = lineProducts;
+    }
+
+    static WhereUsedIndex of(PlanningCatalog catalog) {
+        int lines = catalog.lineCount();
+        int[] lineProducts = new int[lines];
+        for (int product = 0; product < catalog.productCount(); product++) {
+            for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                lineProducts[line] = product;
+            }
+        }
+
+        int[] offsets = new int[catalog.materialCount() + 1];
+        for (int line = 0; line < lines; line++) {
+            offsets[catalog.lineMaterial(line) + 1]++;
+        }
+        for (int material = 0; material < catalog.materialCount(); material++) {
+            offsets[material + 1] += offsets[material];
+        }
+        int[] next = offsets.clone();
+        int[] materialLines = new int[lines];
+        for (int line = 0; line < lines; line++) {
+            materialLines[next[catalog.lineMaterial(line)]++] = line;
+        }
+        return new WhereUsedIndex(offsets, materialLines, lineProducts);
+    }
+
+    public int usageStart(int material) {
+        return materialOffsets[material];
+    }
+
+    public int usageEnd(int material) {
+        return materialOffsets[material + 1];
+    }
+
+    /**
+     * BOM line at position {@code usage} of the material ranges above.
+     */
+    public int usageLine(int usage) {
+        return materialLines[usage];
+    }
+
+    public int lineProduct(int line) {
+        return lineProducts[line];
+    }
+}
@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS idx_product_value_id ON product ("value" DESC, id);
+CREATE INDEX IF NOT EXISTS idx_product_raw_material_raw_material ON product_raw_material (raw_material_id);
@@ -0,0 +1,30 @@
+-- Every stock level a raw material has had; kept after the material is deleted
+CREATE TABLE stock_movement (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    raw_material_id BIGINT                      NOT NULL,
+    recorded_at     TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    stock_quantity  NUMERIC(15, 4)              NOT NULL
+);
+
+CREATE INDEX idx_stock_movement_material_time ON stock_movement (raw_material_id, recorded_at, id);
+
+-- Hourly open/min/max/close of the stock level, maintained on every movement
+CREATE TABLE stock_history_hourly (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    raw_material_id BIGINT                      NOT NULL,
+    bucket_start    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    open_quantity   NUMERIC(15, 4)              NOT NULL,
+    min_quantity    NUMERIC(15, 4)              NOT NULL,
+    max_quantity    NUMERIC(15, 4)              NOT NULL,
+    close_quantity  NUMERIC(15, 4)              NOT NULL,
+    samples         INTEGER                     NOT NULL,
+    CONSTRAINT uk_stock_history_hourly UNIQUE (raw_material_id, bucket_start)
+);
+
+INSERT INTO stock_movement (raw_material_id, recorded_at, stock_quantity)
+SELECT id, updated_at, stock_quantity FROM raw_material;
+
+INSERT INTO stock_history_hourly (raw_material_id, bucket_start, open_quantity, min_quantity, max_quantity,
+                                  close_quantity, samples)
+SELECT id, DATE_TRUNC('HOUR', updated_at), stock_quantity, stock_quantity, stock_quantity, stock_quantity, 1
+FROM raw_material;
@@ -0,0 +1,3 @@
+-- Supplier pack size and minimum order quantity used to round replenishment purchases; NULL means none
+ALTER TABLE raw_material ADD COLUMN pack_size NUMERIC(15, 4);
+ALTER TABLE raw_material ADD COLUMN min_order_quantity NUMERIC(15, 4);
@@ -0,0 +1,15 @@
+-- Raw material receipts expected on a date, removed with their material
+CREATE TABLE scheduled_receipt (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    raw_material_id BIGINT         NOT NULL REFERENCES raw_material (id) ON DELETE CASCADE,
+    due_date        DATE           NOT NULL,
+    quantity        NUMERIC(15, 4) NOT NULL
+);
+
+-- Product quantities planned for a date, consuming their BOM on that date
+CREATE TABLE production_order (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT  NOT NULL REFERENCES product (id) ON DELETE CASCADE,
+    due_date   DATE    NOT NULL,
+    quantity   INTEGER NOT NULL
+);
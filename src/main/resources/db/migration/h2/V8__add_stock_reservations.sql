@@ -0,0 +1,20 @@
+-- Stock held by active reservations; planning uses stock_quantity - reserved_quantity
+ALTER TABLE raw_material ADD COLUMN reserved_quantity NUMERIC(15, 4) DEFAULT 0 NOT NULL;
+
+-- A hold on the BOM of a product quantity until expires_at; outlives its product so the stock is still released
+CREATE TABLE stock_reservation (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT                      REFERENCES product (id) ON DELETE SET NULL,
+    quantity   INTEGER                     NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_stock_reservation_expires_at ON stock_reservation (expires_at, id);
+
+-- Quantity of each raw material a reservation holds
+CREATE TABLE stock_reservation_line (
+    reservation_id  BIGINT         NOT NULL REFERENCES stock_reservation (id) ON DELETE CASCADE,
+    raw_material_id BIGINT         NOT NULL REFERENCES raw_material (id) ON DELETE CASCADE,
+    quantity        NUMERIC(15, 4) NOT NULL,
+    PRIMARY KEY (reservation_id, raw_material_id)
+);
@@ -0,0 +1,2 @@
+-- Counts reserved_quantity changes, which leave version untouched so reservations never conflict with edits
+ALTER TABLE raw_material ADD COLUMN reservation_version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,29 @@
+-- Schema as previously generated by Hibernate; IF NOT EXISTS lets databases created by ddl-auto adopt it
+CREATE TABLE IF NOT EXISTS raw_material (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    code           VARCHAR(50)    NOT NULL,
+    name           VARCHAR(255)   NOT NULL,
+    stock_quantity DECIMAL(15, 4) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_raw_material_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS product (
+    id      BIGINT         NOT NULL AUTO_INCREMENT,
+    code    VARCHAR(50)    NOT NULL,
+    name    VARCHAR(255)   NOT NULL,
+    `value` DECIMAL(15, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_code UNIQUE (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS product_raw_material (
+    id                BIGINT         NOT NULL AUTO_INCREMENT,
+    product_id        BIGINT         NOT NULL,
+    raw_material_id   BIGINT         NOT NULL,
+    required_quantity DECIMAL(15, 4) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_raw_material UNIQUE (product_id, raw_material_id),
+    CONSTRAINT fk_product_raw_material_product FOREIGN KEY (product_id) REFERENCES product (id),
+    CONSTRAINT fk_product_raw_material_raw_material FOREIGN KEY (raw_material_id) REFERENCES raw_material (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,19 @@
+-- MySQL has no ADD COLUMN IF NOT EXISTS; skip columns that ddl-auto already created
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'product' AND column_name = 'version') = 0,
+              'ALTER TABLE product ADD COLUMN version BIGINT, ADD COLUMN updated_at DATETIME(6)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'raw_material' AND column_name = 'version') = 0,
+              'ALTER TABLE raw_material ADD COLUMN version BIGINT, ADD COLUMN updated_at DATETIME(6)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+UPDATE product SET version = 0 WHERE version IS NULL;
+UPDATE product SET updated_at = CURRENT_TIMESTAMP(6) WHERE updated_at IS NULL;
+UPDATE raw_material SET version = 0 WHERE version IS NULL;
+UPDATE raw_material SET updated_at = CURRENT_TIMESTAMP(6) WHERE updated_at IS NULL;
@@ -0,0 +1,5 @@
+-- Planner stream: ORDER BY p.value DESC, p.id walks this index instead of sorting the product table
+CREATE INDEX idx_product_value_id ON product (`value` DESC, id);
+
+-- product_raw_material(raw_material_id) needs no explicit index here: InnoDB already keeps one for the
+-- foreign key, which serves reverse lookups and cascade deletes
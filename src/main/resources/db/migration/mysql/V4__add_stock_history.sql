@@ -0,0 +1,32 @@
+-- Every stock level a raw material has had; kept after the material is deleted
+CREATE TABLE stock_movement (
+    id              BIGINT         NOT NULL AUTO_INCREMENT,
+    raw_material_id BIGINT         NOT NULL,
+    recorded_at     DATETIME(6)    NOT NULL,
+    stock_quantity  DECIMAL(15, 4) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_stock_movement_material_time (raw_material_id, recorded_at, id)
+) ENGINE = InnoDB;
+
+-- Hourly open/min/max/close of the stock level, maintained on every movement
+CREATE TABLE stock_history_hourly (
+    id               BIGINT         NOT NULL AUTO_INCREMENT,
+    raw_material_id  BIGINT         NOT NULL,
+    bucket_start     DATETIME(6)    NOT NULL,
+    open_quantity    DECIMAL(15, 4) NOT NULL,
+    min_quantity     DECIMAL(15, 4) NOT NULL,
+    max_quantity     DECIMAL(15, 4) NOT NULL,
+    close_quantity   DECIMAL(15, 4) NOT NULL,
+    samples          INT            NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stock_history_hourly UNIQUE (raw_material_id, bucket_start)
+) ENGINE = InnoDB;
+
+INSERT INTO stock_movement (raw_material_id, recorded_at, stock_quantity)
+SELECT id, updated_at, stock_quantity FROM raw_material;
+
+INSERT INTO stock_history_hourly (raw_material_id, bucket_start, open_quantity, min_quantity, max_quantity,
+                                  close_quantity, samples)
+SELECT id, DATE_FORMAT(updated_at, '%Y-%m-%d %H:00:00'), stock_quantity, stock_quantity, stock_quantity,
+       stock_quantity, 1
+FROM raw_material;
@@ -0,0 +1,5 @@
+-- Optional demand constraints honoured by the planner; NULL means unconstrained
+ALTER TABLE product
+    ADD COLUMN max_quantity INT NULL,
+    ADD COLUMN min_quantity INT NULL,
+    ADD COLUMN committed_quantity INT NULL;
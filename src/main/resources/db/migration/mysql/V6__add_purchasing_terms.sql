@@ -0,0 +1,4 @@
+-- Supplier pack size and minimum order quantity used to round replenishment purchases; NULL means none
+ALTER TABLE raw_material
+    ADD COLUMN pack_size DECIMAL(15, 4) NULL,
+    ADD COLUMN min_order_quantity DECIMAL(15, 4) NULL;
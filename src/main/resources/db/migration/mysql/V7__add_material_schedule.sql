@@ -0,0 +1,20 @@
+-- Raw material receipts expected on a date, removed with their material
+CREATE TABLE scheduled_receipt (
+    id              BIGINT         NOT NULL AUTO_INCREMENT,
+    raw_material_id BIGINT         NOT NULL,
+    due_date        DATE           NOT NULL,
+    quantity        DECIMAL(15, 4) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_scheduled_receipt_raw_material FOREIGN KEY (raw_material_id) REFERENCES raw_material (id)
+        ON DELETE CASCADE
+) ENGINE = InnoDB;
+
+-- Product quantities planned for a date, consuming their BOM on that date
+CREATE TABLE production_order (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    product_id BIGINT NOT NULL,
+    due_date   DATE   NOT NULL,
+    quantity   INT    NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_production_order_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE
+) ENGINE = InnoDB;
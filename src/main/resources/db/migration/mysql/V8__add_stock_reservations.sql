@@ -0,0 +1,25 @@
+-- Stock held by active reservations; planning uses stock_quantity - reserved_quantity
+ALTER TABLE raw_material ADD COLUMN reserved_quantity DECIMAL(15, 4) NOT NULL DEFAULT 0;
+
+-- A hold on the BOM of a product quantity until expires_at; outlives its product so the stock is still released
+CREATE TABLE stock_reservation (
+    id         BIGINT      NOT NULL AUTO_INCREMENT,
+    product_id BIGINT      NULL,
+    quantity   INT         NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_stock_reservation_expires_at (expires_at, id),
+    CONSTRAINT fk_stock_reservation_product FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE SET NULL
+) ENGINE = InnoDB;
+
+-- Quantity of each raw material a reservation holds
+CREATE TABLE stock_reservation_line (
+    reservation_id  BIGINT         NOT NULL,
+    raw_material_id BIGINT         NOT NULL,
+    quantity        DECIMAL(15, 4) NOT NULL,
+    PRIMARY KEY (reservation_id, raw_material_id),
+    CONSTRAINT fk_stock_reservation_line_reservation FOREIGN KEY (reservation_id) REFERENCES stock_reservation (id)
+        ON DELETE CASCADE,
+    CONSTRAINT fk_stock_reservation_line_raw_material FOREIGN KEY (raw_material_id) REFERENCES raw_material (id)
+        ON DELETE CASCADE
+) ENGINE = InnoDB;
@@ -0,0 +1,24 @@
+-- Schema as previously generated by Hibernate; IF NOT EXISTS lets databases created by ddl-auto adopt it
+CREATE TABLE IF NOT EXISTS raw_material (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code           VARCHAR(50)    NOT NULL,
+    name           VARCHAR(255)   NOT NULL,
+    stock_quantity NUMERIC(15, 4) NOT NULL,
+    CONSTRAINT uk_raw_material_code UNIQUE (code)
+);
+
+CREATE TABLE IF NOT EXISTS product (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    code    VARCHAR(50)    NOT NULL,
+    name    VARCHAR(255)   NOT NULL,
+    "value" NUMERIC(15, 2) NOT NULL,
+    CONSTRAINT uk_product_code UNIQUE (code)
+);
+
+CREATE TABLE IF NOT EXISTS product_raw_material (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id        BIGINT         NOT NULL REFERENCES product (id),
+    raw_material_id   BIGINT         NOT NULL REFERENCES raw_material (id),
+    required_quantity NUMERIC(15, 4) NOT NULL,
+    CONSTRAINT uk_product_raw_material UNIQUE (product_id, raw_material_id)
+);
@@ -0,0 +1,9 @@
+ALTER TABLE product ADD COLUMN IF NOT EXISTS version BIGINT;
+ALTER TABLE product ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE raw_material ADD COLUMN IF NOT EXISTS version BIGINT;
+ALTER TABLE raw_material ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+UPDATE product SET version = 0 WHERE version IS NULL;
+UPDATE product SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
+UPDATE raw_material SET version = 0 WHERE version IS NULL;
+UPDATE raw_material SET updated_at = CURRENT_TIMESTAMP WHERE updated_at IS NULL;
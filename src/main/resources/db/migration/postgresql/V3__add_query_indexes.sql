@@ -0,0 +1,6 @@
+-- Planner stream: ORDER BY p.value DESC, p.id walks this index instead of sorting the product table
+CREATE INDEX IF NOT EXISTS idx_product_value_id ON product ("value" DESC, id);
+
+-- PostgreSQL does not index foreign keys; reverse lookups (where-used, raw material renames) and the
+-- cascade on raw material delete would otherwise scan the whole BOM table
+CREATE INDEX IF NOT EXISTS idx_product_raw_material_raw_material ON product_raw_material (raw_material_id);
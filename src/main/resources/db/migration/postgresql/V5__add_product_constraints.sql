@@ -0,0 +1,4 @@
+-- Optional demand constraints honoured by the planner; NULL means unconstrained
+ALTER TABLE product ADD COLUMN max_quantity INTEGER;
+ALTER TABLE product ADD COLUMN min_quantity INTEGER;
+ALTER TABLE product ADD COLUMN committed_quantity INTEGER;
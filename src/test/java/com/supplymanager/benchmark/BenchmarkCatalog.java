@@ -0,0 +1,58 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.domain.model.Product;
+import com.supplymanager.domain.model.ProductRawMaterial;
+import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import org.springframework.context.ApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+final class BenchmarkCatalog {
+
+    private BenchmarkCatalog() {
+    }
+
+    static void seed(ApplicationContext context, int materials, int products, int linesPerProduct) {
+        RawMaterialRepository rawMaterialRepository = context.getBean(RawMaterialRepository.class);
+        ProductRepository productRepository = context.getBean(ProductRepository.class);
+        ProductRawMaterialRepository prmRepository = context.getBean(ProductRawMaterialRepository.class);
+        SplittableRandom random = new SplittableRandom(42);
+
+        List<RawMaterial> rawMaterials = new ArrayList<>(materials);
+        for (int i = 0; i < materials; i++) {
+            rawMaterials.add(new RawMaterial(null, "RM-" + i, "Raw material " + i,
+                    BigDecimal.valueOf(random.nextInt(1_000, 100_000)), new ArrayList<>()));
+        }
+        rawMaterials = rawMaterialRepository.saveAll(rawMaterials);
+
+        List<Product> saved = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            saved.add(new Product(null, "P-" + i, "Product " + i,
+                    BigDecimal.valueOf(random.nextInt(100, 100_000), 2), new ArrayList<>()));
+        }
+        saved = productRepository.saveAll(saved);
+
+        List<ProductRawMaterial> lines = new ArrayList<>(products * linesPerProduct);
+        for (Product product : saved) {
+            int first = random.nextInt(materials);
+            for (int line = 0; line < Math.min(linesPerProduct, materials); line++) {
+                RawMaterial rawMaterial = rawMaterials.get((first + line) % materials);
+                lines.add(new ProductRawMaterial(null, product, rawMaterial,
+                        BigDecimal.valueOf(random.nextInt(1, 500), 1)));
+            }
+        }
+        prmRepository.saveAll(lines);
+    }
+
+    static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,67 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.service.planning.GreedyPlanner;
+import com.supplymanager.service.planning.LocalSearch;
+import com.supplymanager.service.planning.PlanningCatalog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Value gained by the local search over the greedy plan of a 20,000-product catalog for increasing time
+ * limits, with the time at which the best plan was found. Run with
+ * {@code ./gradlew benchmark --tests '*LocalSearchBenchmark'}.
+ */
+@Tag("benchmark")
+class LocalSearchBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int MATERIALS = 2_000;
+    private static final int LINES_PER_PRODUCT = 5;
+
+    @Test
+    void improveGreedyPlanWithinDeadlines() {
+        PlanningCatalog catalog = catalog();
+        int[] greedy = GreedyPlanner.plan(catalog, catalog.stockCopy());
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            System.out.println();
+            System.out.printf("%-12s %16s %16s %10s %14s %12s%n",
+                    "limit ms", "greedy", "improved", "gain %", "converged ms", "moves");
+            for (long limit : new long[]{100, 500, 2_000, 10_000}) {
+                LocalSearch.Result result = LocalSearch.improve(catalog, greedy, Duration.ofMillis(limit), 1, pool);
+                System.out.printf("%-12d %16.2f %16.2f %10.2f %14.1f %12d%n", limit, result.initialValue(),
+                        result.value(), 100 * (result.value() / result.initialValue() - 1),
+                        result.convergedNanos() / 1e6, result.moves());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static PlanningCatalog catalog() {
+        SplittableRandom random = new SplittableRandom(23);
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        for (long product = 1; product <= PRODUCTS; product++) {
+            BigDecimal value = BigDecimal.valueOf(2_000_000 - product, 2);
+            int firstMaterial = random.nextInt(MATERIALS);
+            for (int line = 0; line < LINES_PER_PRODUCT; line++) {
+                builder.add(new PlanningLine(product, value, (long) (firstMaterial + line * 97) % MATERIALS + 1,
+                        BigDecimal.valueOf(random.nextInt(1, 50))));
+            }
+        }
+        List<StockLevel> stock = new ArrayList<>(MATERIALS);
+        for (long material = 1; material <= MATERIALS; material++) {
+            stock.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(0, 20_000))));
+        }
+        return builder.build().withStock(stock);
+    }
+}
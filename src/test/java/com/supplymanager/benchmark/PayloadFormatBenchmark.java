@@ -0,0 +1,107 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.config.ProductionSuggestionProtobufConverter;
+import com.supplymanager.domain.dto.ProducibleProductDTO;
+import com.supplymanager.domain.dto.ProductDTO;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares payload size (raw and gzip) and serialization CPU of JSON, CBOR, Smile and
+ * protobuf for a realistic catalog. Run with {@code ./gradlew benchmark --tests '*PayloadFormatBenchmark'}.
+ */
+@Tag("benchmark")
+class PayloadFormatBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int MATERIALS = 2_000;
+    private static final int ITERATIONS = 200;
+
+    private final ObjectMapper json = JsonMapper.builder().build();
+    private final ObjectMapper cbor = CBORMapper.builder().build();
+    private final ObjectMapper smile = SmileMapper.builder().build();
+
+    @Test
+    void compareFormats() {
+        SplittableRandom random = new SplittableRandom(7);
+        List<ProductDTO> products = new ArrayList<>(PRODUCTS);
+        List<ProducibleProductDTO> producible = new ArrayList<>(PRODUCTS);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < PRODUCTS; i++) {
+            BigDecimal value = BigDecimal.valueOf(random.nextInt(100, 1_000_000), 2);
+            int units = random.nextInt(1, 5_000);
+            BigDecimal productTotal = value.multiply(BigDecimal.valueOf(units));
+            total = total.add(productTotal);
+            products.add(new ProductDTO((long) i, "PROD-" + i, "Product number " + i, value));
+            producible.add(new ProducibleProductDTO((long) i, "PROD-" + i, "Product number " + i, value, units, productTotal));
+        }
+        List<RawMaterialDTO> materials = new ArrayList<>(MATERIALS);
+        for (int i = 0; i < MATERIALS; i++) {
+            materials.add(new RawMaterialDTO((long) i, "RM-" + i, "Raw material " + i,
+                    BigDecimal.valueOf(random.nextLong(0, 10_000_000_000L), 4)));
+        }
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(producible, total);
+
+        System.out.println();
+        System.out.printf("%-26s %-9s %12s %12s %12s%n", "payload", "format", "bytes", "gzip bytes", "us/op");
+        compare("/api/products", products, false);
+        compare("/api/raw-materials", materials, false);
+        compare("/api/production/suggestion", suggestion, true);
+    }
+
+    private void compare(String payload, Object body, boolean protobuf) {
+        report(payload, "json", body, json::writeValueAsBytes);
+        report(payload, "cbor", body, cbor::writeValueAsBytes);
+        report(payload, "smile", body, smile::writeValueAsBytes);
+        if (protobuf) {
+            report(payload, "protobuf", body, value -> {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try {
+                    ProductionSuggestionProtobufConverter.write((ProductionSuggestionDTO) value, out);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                return out.toByteArray();
+            });
+        }
+    }
+
+    private void report(String payload, String format, Object body, Function<Object, byte[]> serializer) {
+        byte[] bytes = serializer.apply(body);
+        for (int i = 0; i < ITERATIONS / 4; i++) {
+            serializer.apply(body);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = serializer.apply(body);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+        System.out.printf("%-26s %-9s %12d %12d %12.1f%n", payload, format, bytes.length, gzip(bytes), micros);
+    }
+
+    private static int gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,88 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.service.planning.DecisionTrace;
+import com.supplymanager.service.planning.GreedyPlanner;
+import com.supplymanager.service.planning.PlanningCatalog;
+import com.supplymanager.service.planning.PlanningProgress;
+import com.supplymanager.service.planning.PlanningTrace;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Heap allocated per greedy plan of a 20,000-product catalog with and without a {@link DecisionTrace}. The
+ * untraced plan must allocate nothing beyond its result array. Run with
+ * {@code ./gradlew benchmark --tests '*PlanningAllocationBenchmark'}.
+ */
+@Tag("benchmark")
+class PlanningAllocationBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int MATERIALS = 2_000;
+    private static final int LINES_PER_PRODUCT = 5;
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 1_000;
+    private static final long SLACK_BYTES = 64;
+
+    @Test
+    void traceCostsNothingWhenDisabled() {
+        PlanningCatalog catalog = catalog();
+        long[] initial = catalog.stockCopy();
+        long[] stock = new long[initial.length];
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long untraced = bytesPerPlan(threads, catalog, initial, stock, () -> PlanningTrace.NONE);
+        long traced = bytesPerPlan(threads, catalog, initial, stock, () -> new DecisionTrace(PRODUCTS));
+        long result = 16 + (long) Integer.BYTES * PRODUCTS;
+
+        System.out.println();
+        System.out.printf("%-12s %16s %16s%n", "trace", "bytes/plan", "over result");
+        System.out.printf("%-12s %16d %16d%n", "none", untraced, untraced - result);
+        System.out.printf("%-12s %16d %16d%n", "decisions", traced, traced - result);
+
+        assertTrue(untraced <= result + SLACK_BYTES, "untraced plan allocated " + untraced + " bytes");
+    }
+
+    private static long bytesPerPlan(com.sun.management.ThreadMXBean threads, PlanningCatalog catalog,
+                                     long[] initial, long[] stock, Supplier<PlanningTrace> traces) {
+        long thread = Thread.currentThread().threadId();
+        for (int i = 0; i < WARMUP; i++) {
+            System.arraycopy(initial, 0, stock, 0, initial.length);
+            GreedyPlanner.plan(catalog, stock, PlanningProgress.NONE, traces.get());
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ROUNDS; i++) {
+            System.arraycopy(initial, 0, stock, 0, initial.length);
+            GreedyPlanner.plan(catalog, stock, PlanningProgress.NONE, traces.get());
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / ROUNDS;
+    }
+
+    private static PlanningCatalog catalog() {
+        SplittableRandom random = new SplittableRandom(23);
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        for (long product = 1; product <= PRODUCTS; product++) {
+            BigDecimal value = BigDecimal.valueOf(2_000_000 - product, 2);
+            int firstMaterial = random.nextInt(MATERIALS);
+            for (int line = 0; line < LINES_PER_PRODUCT; line++) {
+                builder.add(new PlanningLine(product, value, (long) (firstMaterial + line * 97) % MATERIALS + 1,
+                        BigDecimal.valueOf(random.nextInt(1, 50))));
+            }
+        }
+        List<StockLevel> stock = new ArrayList<>(MATERIALS);
+        for (long material = 1; material <= MATERIALS; material++) {
+            stock.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(0, 20_000))));
+        }
+        return builder.build().withStock(stock);
+    }
+}
@@ -0,0 +1,92 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.SupplyManagerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares boot time of {@code ddl-auto=update} against Flyway with {@code ddl-auto=validate} on an existing
+ * schema, then prints the plans and timings of the planner stream and the reverse BOM lookup with and without
+ * the migration indexes. Run with {@code ./gradlew benchmark --tests '*SchemaMigrationBenchmark'}.
+ */
+@Tag("benchmark")
+class SchemaMigrationBenchmark {
+
+    private static final int RESTARTS = 5;
+    private static final int QUERY_RUNS = 20;
+
+    private static final String PLANNING_SQL = "SELECT p.id, p.\"value\", prm.raw_material_id, prm.required_quantity "
+            + "FROM product_raw_material prm JOIN product p ON p.id = prm.product_id ORDER BY p.\"value\" DESC, p.id";
+    private static final String WHERE_USED_SQL = "SELECT prm.product_id FROM product_raw_material prm WHERE prm.raw_material_id = 17";
+
+    @Test
+    void compareStartupAndPlans() {
+        long update = startup("update", "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update");
+        long validate = startup("flyway");
+
+        System.out.println();
+        System.out.printf("%-28s %10s%n", "schema mode", "boot ms");
+        System.out.printf("%-28s %10d%n", "ddl-auto=update", update);
+        System.out.printf("%-28s %10d%n", "flyway + ddl-auto=validate", validate);
+
+        try (ConfigurableApplicationContext context = start("plans")) {
+            BenchmarkCatalog.seed(context, 500, 20_000, 6);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            jdbc.execute("ANALYZE");
+            report(jdbc, "with indexes");
+            jdbc.execute("DROP INDEX idx_product_value_id");
+            jdbc.execute("DROP INDEX idx_product_raw_material_raw_material");
+            report(jdbc, "without indexes");
+        }
+    }
+
+    private long startup(String database, String... overrides) {
+        start(database, overrides).close();
+        long[] samples = new long[RESTARTS];
+        for (int i = 0; i < RESTARTS; i++) {
+            long start = System.nanoTime();
+            start(database, overrides).close();
+            samples[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(samples);
+        return BenchmarkCatalog.percentile(samples, 50);
+    }
+
+    private ConfigurableApplicationContext start(String database, String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.datasource.url=jdbc:h2:mem:schema_" + database + ";DB_CLOSE_DELAY=-1"));
+        args.addAll(List.of(overrides));
+        return new SpringApplicationBuilder(SupplyManagerApplication.class)
+                .profiles("test")
+                .run(args.toArray(String[]::new));
+    }
+
+    private void report(JdbcTemplate jdbc, String label) {
+        System.out.println();
+        System.out.println("== " + label);
+        explain(jdbc, "planner stream", PLANNING_SQL);
+        explain(jdbc, "where-used", WHERE_USED_SQL);
+    }
+
+    private void explain(JdbcTemplate jdbc, String name, String sql) {
+        String plan = jdbc.queryForObject("EXPLAIN " + sql, String.class);
+        for (int i = 0; i < 3; i++) {
+            jdbc.query(sql, rs -> { });
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERY_RUNS; i++) {
+            jdbc.query(sql, rs -> { });
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / QUERY_RUNS;
+        System.out.printf("%s: %.2f ms/query%n%s%n", name, millis, plan);
+    }
+}
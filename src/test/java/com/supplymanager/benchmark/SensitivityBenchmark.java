@@ -0,0 +1,87 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.service.planning.GreedyPlanner;
+import com.supplymanager.service.planning.ImpactAnalysis;
+import com.supplymanager.service.planning.PlanningCatalog;
+import com.supplymanager.service.planning.SensitivitySweep;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares the sensitivity sweep (+1, +10, +100 units for every material) against replanning from scratch
+ * once per material and step. The naive cost is extrapolated from a sample of materials. Run with
+ * {@code ./gradlew benchmark --tests '*SensitivityBenchmark'}.
+ */
+@Tag("benchmark")
+class SensitivityBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final int MATERIALS = 2_000;
+    private static final int LINES_PER_PRODUCT = 5;
+    private static final int NAIVE_SAMPLE = 50;
+    private static final long[] STEPS = {
+            PlanningCatalog.toUnits(BigDecimal.ONE),
+            PlanningCatalog.toUnits(BigDecimal.TEN),
+            PlanningCatalog.toUnits(BigDecimal.valueOf(100))};
+
+    @Test
+    void compareSweepWithNaiveReplanning() {
+        PlanningCatalog catalog = catalog();
+
+        long start = System.nanoTime();
+        ImpactAnalysis.Baseline baseline = ImpactAnalysis.baseline(catalog);
+        long baselineNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int material = 0; material < NAIVE_SAMPLE; material++) {
+            for (long step : STEPS) {
+                long[] stock = catalog.stockCopy();
+                stock[material] += step;
+                GreedyPlanner.plan(catalog, stock);
+            }
+        }
+        double naiveMillis = (System.nanoTime() - start) / 1e6 * catalog.materialCount() / NAIVE_SAMPLE;
+
+        System.out.println();
+        System.out.printf("%-28s %12s%n", "strategy", "ms");
+        System.out.printf("%-28s %12.1f%n", "baseline plan", baselineNanos / 1e6);
+        System.out.printf("%-28s %12.1f%n", "naive (extrapolated)", naiveMillis);
+        for (int parallelism : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                SensitivitySweep.run(baseline, STEPS, pool);
+                start = System.nanoTime();
+                SensitivitySweep.run(baseline, STEPS, pool);
+                System.out.printf("%-28s %12.1f%n", "sweep, parallelism " + parallelism,
+                        (System.nanoTime() - start) / 1e6);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static PlanningCatalog catalog() {
+        SplittableRandom random = new SplittableRandom(11);
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        for (long product = 1; product <= PRODUCTS; product++) {
+            BigDecimal value = BigDecimal.valueOf(2_000_000 - product, 2);
+            for (int line = 0; line < LINES_PER_PRODUCT; line++) {
+                builder.add(new PlanningLine(product, value, (long) random.nextInt(1, MATERIALS + 1),
+                        BigDecimal.valueOf(random.nextInt(1, 50))));
+            }
+        }
+        List<StockLevel> stock = new ArrayList<>(MATERIALS);
+        for (long material = 1; material <= MATERIALS; material++) {
+            stock.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(0, 20_000))));
+        }
+        return builder.build().withStock(stock);
+    }
+}
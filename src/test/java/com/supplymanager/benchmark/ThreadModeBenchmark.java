@@ -0,0 +1,140 @@
+package com.supplymanager.benchmark;
+
+import com.supplymanager.SupplyManagerApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the existing controllers with a bursty mix of suggestion and CRUD reads, once on
+ * platform threads and once on virtual threads, and prints throughput and tail latency.
+ * Run with {@code ./gradlew benchmark --tests '*ThreadModeBenchmark'}.
+ */
+@Tag("benchmark")
+class ThreadModeBenchmark {
+
+    private static final int CLIENTS = 400;
+    private static final int TOMCAT_THREADS = 64;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    @Test
+    void compareThreadModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.println();
+        System.out.printf("%-10s %12s %10s %10s %10s %10s %8s%n",
+                "mode", "requests/s", "p50 ms", "p99 ms", "crud p99", "sugg p99", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SupplyManagerApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.jpa.show-sql=false",
+                        "--spring.datasource.url=jdbc:h2:mem:bench_" + mode + ";DB_CLOSE_DELAY=-1")) {
+            BenchmarkCatalog.seed(context, 300, 3_000, 6);
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            load(baseUrl, WARMUP);
+            return load(baseUrl, MEASUREMENT);
+        }
+    }
+
+    private Result load(String baseUrl, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        List<Future<long[][]>> futures = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                int clientId = c;
+                futures.add(clients.submit(() -> {
+                    long[] crud = new long[1024];
+                    long[] suggestion = new long[256];
+                    int crudCount = 0;
+                    int suggestionCount = 0;
+                    int iteration = 0;
+                    while (System.nanoTime() < deadline) {
+                        boolean planning = (clientId + iteration++) % 5 == 0;
+                        String path = planning ? "/api/production/suggestion"
+                                : (iteration % 2 == 0 ? "/api/raw-materials/" + (1 + iteration % 300) : "/api/products");
+                        long start = System.nanoTime();
+                        HttpResponse<Void> response = client.send(
+                                HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        long elapsed = System.nanoTime() - start;
+                        if (response.statusCode() >= 500) errors.incrementAndGet();
+                        if (planning) {
+                            if (suggestionCount == suggestion.length) suggestion = Arrays.copyOf(suggestion, suggestionCount * 2);
+                            suggestion[suggestionCount++] = elapsed;
+                        } else {
+                            if (crudCount == crud.length) crud = Arrays.copyOf(crud, crudCount * 2);
+                            crud[crudCount++] = elapsed;
+                        }
+                    }
+                    return new long[][] {Arrays.copyOf(crud, crudCount), Arrays.copyOf(suggestion, suggestionCount)};
+                }));
+            }
+        }
+
+        List<long[]> crud = new ArrayList<>();
+        List<long[]> suggestion = new ArrayList<>();
+        for (Future<long[][]> future : futures) {
+            long[][] samples = future.get();
+            crud.add(samples[0]);
+            suggestion.add(samples[1]);
+        }
+        return new Result(merge(crud), merge(suggestion), duration, errors.get());
+    }
+
+    private static long[] merge(List<long[]> parts) {
+        long[] merged = parts.stream().flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private record Result(long[] crud, long[] suggestion, Duration duration, long errors) {
+
+        void print(String mode) {
+            long[] all = merge(List.of(crud, suggestion));
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    mode,
+                    all.length / (duration.toMillis() / 1000.0),
+                    millis(BenchmarkCatalog.percentile(all, 50)),
+                    millis(BenchmarkCatalog.percentile(all, 99)),
+                    millis(BenchmarkCatalog.percentile(crud, 99)),
+                    millis(BenchmarkCatalog.percentile(suggestion, 99)),
+                    errors);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.supplymanager.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionBudgetDataSourceTest {
+
+    private ConnectionBudgetDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:connection_budget;DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        dataSource = new ConnectionBudgetDataSource(h2, 2, Duration.ofMillis(50));
+    }
+
+    @Test
+    void shouldTimeOutWhenBudgetIsExhausted() throws Exception {
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertEquals(0, dataSource.availablePermits());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        }
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void shouldReleasePermitOnlyOnceWhenClosedTwice() throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        assertEquals(2, dataSource.availablePermits());
+    }
+
+    @Test
+    void shouldAnswerIdentityAndUnwrapOnTheProxy() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assertTrue(connection.equals(connection));
+            assertEquals(System.identityHashCode(connection), connection.hashCode());
+            assertSame(connection, connection.unwrap(Connection.class));
+            assertTrue(connection.isWrapperFor(ConnectionProxy.class));
+
+            Connection target = ((ConnectionProxy) connection).getTargetConnection();
+            assertNotSame(connection, target);
+            assertSame(target, DataSourceUtils.getTargetConnection(connection));
+        }
+        assertEquals(2, dataSource.availablePermits());
+    }
+}
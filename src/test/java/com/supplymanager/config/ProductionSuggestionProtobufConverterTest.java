@@ -0,0 +1,66 @@
+package com.supplymanager.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.supplymanager.domain.dto.ProducibleProductDTO;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionSuggestionProtobufConverterTest {
+
+    private final ProductionSuggestionProtobufConverter converter = new ProductionSuggestionProtobufConverter();
+
+    @Test
+    void shouldOnlyWriteSuggestions() {
+        assertTrue(converter.canWrite(ProductionSuggestionDTO.class, ProductionSuggestionProtobufConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canWrite(ProducibleProductDTO.class, ProductionSuggestionProtobufConverter.APPLICATION_PROTOBUF));
+        assertFalse(converter.canRead(ProductionSuggestionDTO.class, ProductionSuggestionProtobufConverter.APPLICATION_PROTOBUF));
+    }
+
+    @Test
+    void shouldEncodeSuggestionWithExactDecimals() throws Exception {
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(List.of(
+                new ProducibleProductDTO(7L, "P7", "Mesa", new BigDecimal("199.90"), 3, new BigDecimal("599.70"))),
+                new BigDecimal("599.70"));
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        converter.write(suggestion, ProductionSuggestionProtobufConverter.APPLICATION_PROTOBUF, message);
+
+        CodedInputStream input = CodedInputStream.newInstance(message.getBodyAsBytes());
+        assertEquals(1, input.readTag() >>> 3);
+        int productLimit = input.pushLimit(input.readRawVarint32());
+        assertEquals(1, input.readTag() >>> 3);
+        assertEquals(7L, input.readInt64());
+        assertEquals(2, input.readTag() >>> 3);
+        assertEquals("P7", input.readString());
+        assertEquals(3, input.readTag() >>> 3);
+        assertEquals("Mesa", input.readString());
+        assertEquals(4, input.readTag() >>> 3);
+        assertEquals(new BigDecimal("199.90"), readDecimal(input));
+        assertEquals(5, input.readTag() >>> 3);
+        assertEquals(3, input.readInt32());
+        assertEquals(6, input.readTag() >>> 3);
+        assertEquals(new BigDecimal("599.70"), readDecimal(input));
+        input.popLimit(productLimit);
+
+        assertEquals(2, input.readTag() >>> 3);
+        assertEquals(new BigDecimal("599.70"), readDecimal(input));
+        assertTrue(input.isAtEnd());
+    }
+
+    private BigDecimal readDecimal(CodedInputStream input) throws Exception {
+        int limit = input.pushLimit(input.readRawVarint32());
+        input.readTag();
+        BigInteger unscaled = new BigInteger(input.readByteArray());
+        input.readTag();
+        int scale = input.readInt32();
+        input.popLimit(limit);
+        return new BigDecimal(unscaled, scale);
+    }
+}
@@ -0,0 +1,106 @@
+package com.supplymanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReadYourWritesTracker tracker;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(Duration.ofMinutes(1));
+        routing = new ReplicaRoutingDataSource(h2("routing_primary"), List.of(h2("routing_replica")), tracker);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        tracker.unbind();
+    }
+
+    @Test
+    void shouldRouteWritesToPrimary() throws SQLException {
+        assertTrue(connectedUrl().contains("routing_primary"));
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionsToReplica() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertTrue(connectedUrl().contains("routing_replica"));
+    }
+
+    @Test
+    void shouldKeepClientOnPrimaryAfterItsOwnWrite() throws SQLException {
+        tracker.bind("client-a");
+        connectedUrl();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(connectedUrl().contains("routing_primary"));
+
+        tracker.bind("client-b");
+        assertTrue(connectedUrl().contains("routing_replica"));
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaIsUnhealthy() throws SQLException {
+        DataSource broken = mock(DataSource.class);
+        when(broken.getConnection()).thenThrow(new SQLException("replica down"));
+        routing = new ReplicaRoutingDataSource(h2("routing_primary"), List.of(broken), tracker);
+
+        routing.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertTrue(connectedUrl().contains("routing_primary"));
+    }
+
+    @Test
+    void closeShouldCloseEveryPool() throws Exception {
+        HikariDataSource primary = hikari("routing_close_primary");
+        HikariDataSource replica = hikari("routing_close_replica");
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), tracker);
+
+        routing.close();
+
+        assertTrue(primary.isClosed());
+        assertTrue(replica.isClosed());
+    }
+
+    private String connectedUrl() throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private HikariDataSource hikari(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        return dataSource;
+    }
+
+    private DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,101 @@
+package com.supplymanager.controller;
+
+import com.supplymanager.domain.dto.MaterialPlanDTO;
+import com.supplymanager.domain.dto.MaterialProjectionDTO;
+import com.supplymanager.domain.dto.ProductAvailabilityDTO;
+import com.supplymanager.domain.dto.ScheduledReceiptDTO;
+import com.supplymanager.exception.GlobalExceptionHandler;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.service.MrpService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class MrpControllerTest {
+
+    @Mock
+    private MrpService mrpService;
+
+    @InjectMocks
+    private MrpController mrpController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(mrpController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void plan_shouldReturnBuckets() throws Exception {
+        when(mrpService.plan()).thenReturn(new MaterialPlanDTO(LocalDate.of(2026, 10, 19), 2,
+                List.of(new MaterialProjectionDTO(1L, "RM1", "Material 1",
+                        List.of(new BigDecimal("10"), new BigDecimal("4")),
+                        List.of(new BigDecimal("4"), new BigDecimal("4")))),
+                List.of(new ProductAvailabilityDTO(10L, "PA", "Product A", List.of(2, 2)))));
+
+        mockMvc.perform(get("/api/mrp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.horizonDays").value(2))
+                .andExpect(jsonPath("$.materials[0].projectedOnHand[1]").value(4))
+                .andExpect(jsonPath("$.products[0].feasibleQuantity[0]").value(2));
+    }
+
+    @Test
+    void createReceipt_shouldReturn201() throws Exception {
+        when(mrpService.createReceipt(any())).thenReturn(
+                new ScheduledReceiptDTO(5L, 1L, LocalDate.of(2026, 10, 21), new BigDecimal("20")));
+
+        mockMvc.perform(post("/api/mrp/receipts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rawMaterialId\":1,\"dueDate\":\"2026-10-21\",\"quantity\":20}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(5));
+    }
+
+    @Test
+    void createReceipt_shouldReturn400ForNonPositiveQuantity() throws Exception {
+        mockMvc.perform(post("/api/mrp/receipts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rawMaterialId\":1,\"dueDate\":\"2026-10-21\",\"quantity\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(mrpService, never()).createReceipt(any());
+    }
+
+    @Test
+    void createOrder_shouldReturn400WithoutDueDate() throws Exception {
+        mockMvc.perform(post("/api/mrp/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":10,\"quantity\":3}"))
+                .andExpect(status().isBadRequest());
+
+        verify(mrpService, never()).createOrder(any());
+    }
+
+    @Test
+    void deleteOrder_shouldReturn404WhenUnknown() throws Exception {
+        doThrow(new ResourceNotFoundException("ProductionOrder", 99L)).when(mrpService).deleteOrder(99L);
+
+        mockMvc.perform(delete("/api/mrp/orders/99"))
+                .andExpect(status().isNotFound());
+    }
+}
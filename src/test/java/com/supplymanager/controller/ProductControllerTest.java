@@ -1,8 +1,12 @@
 package com.supplymanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ProductConstraintsDTO;
 import com.supplymanager.domain.dto.ProductDTO;
 import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.exception.GlobalExceptionHandler;
 import com.supplymanager.exception.ResourceNotFoundException;
 import com.supplymanager.service.ProductService;
@@ -17,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 
@@ -29,6 +34,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class ProductControllerTest {
 
+    private static final VersionStamp VERSION = new VersionStamp(1L, 3L, Instant.parse("2026-01-05T10:15:30Z"));
+
     @Mock
     private ProductService productService;
 
@@ -49,6 +56,7 @@ class ProductControllerTest {
     @Test
     void findAll_shouldReturn200WithProducts() throws Exception {
         ProductDTO dto = new ProductDTO(1L, "P1", "Product 1", new BigDecimal("10.00"), Collections.emptyList());
+        when(productService.findAllVersion()).thenReturn(VERSION);
         when(productService.findAll()).thenReturn(List.of(dto));
 
         mockMvc.perform(get("/api/products"))
@@ -62,6 +70,7 @@ class ProductControllerTest {
         List<ProductRawMaterialDTO> materials = List.of(
                 new ProductRawMaterialDTO(1L, 1L, "RM1", "Material 1", new BigDecimal("2.5")));
         ProductDTO dto = new ProductDTO(1L, "P1", "Product 1", new BigDecimal("10.00"), materials);
+        when(productService.findVersion(1L)).thenReturn(VERSION);
         when(productService.findById(1L)).thenReturn(dto);
 
         mockMvc.perform(get("/api/products/1"))
@@ -72,13 +81,36 @@ class ProductControllerTest {
 
     @Test
     void findById_shouldReturn404WhenNotFound() throws Exception {
-        when(productService.findById(99L)).thenThrow(new ResourceNotFoundException("Product", 99L));
+        when(productService.findVersion(99L)).thenThrow(new ResourceNotFoundException("Product", 99L));
 
         mockMvc.perform(get("/api/products/99"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").exists());
     }
 
+    @Test
+    void findById_shouldReturn304WhenETagMatches() throws Exception {
+        when(productService.findVersion(1L)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", VERSION.eTag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", VERSION.eTag()));
+
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    void findAll_shouldReturnValidators() throws Exception {
+        when(productService.findAllVersion()).thenReturn(VERSION);
+        when(productService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", VERSION.eTag()))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
     @Test
     void create_shouldReturn201() throws Exception {
         ProductDTO dto = new ProductDTO(null, "P1", "Product 1", new BigDecimal("10.00"), null);
@@ -125,4 +157,49 @@ class ProductControllerTest {
 
         verify(productService).delete(1L);
     }
+
+    @Test
+    void bulkDelete_shouldReturn200WithCounts() throws Exception {
+        when(productService.deleteAll(new BulkDeleteDTO(List.of(1L, 2L), null))).thenReturn(new BulkDeleteResultDTO(2, 5));
+
+        mockMvc.perform(post("/api/products/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.compositionsDeleted").value(5));
+    }
+
+    @Test
+    void bulkDelete_shouldReturn400WithoutSelection() throws Exception {
+        mockMvc.perform(post("/api/products/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[],\"codePrefix\":\" \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).deleteAll(any());
+    }
+
+    @Test
+    void updateConstraints_shouldReturn200() throws Exception {
+        ProductConstraintsDTO constraints = new ProductConstraintsDTO(500, 20, 50);
+        when(productService.updateConstraints(1L, constraints)).thenReturn(constraints);
+
+        mockMvc.perform(put("/api/products/1/constraints")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maxQuantity\":500,\"minQuantity\":20,\"committedQuantity\":50}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxQuantity").value(500))
+                .andExpect(jsonPath("$.committedQuantity").value(50));
+    }
+
+    @Test
+    void updateConstraints_shouldReturn400WhenMinimumExceedsMaximum() throws Exception {
+        mockMvc.perform(put("/api/products/1/constraints")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maxQuantity\":10,\"minQuantity\":20}"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).updateConstraints(any(), any());
+    }
 }
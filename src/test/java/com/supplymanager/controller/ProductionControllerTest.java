@@ -1,32 +1,81 @@
 package com.supplymanager.controller;
 
+import com.supplymanager.domain.dto.ExplainedSuggestionDTO;
+import com.supplymanager.domain.dto.LimitingFactor;
+import com.supplymanager.domain.dto.MaterialSensitivityDTO;
+import com.supplymanager.domain.dto.MaterialShortageDTO;
+import com.supplymanager.domain.dto.OptimizedSuggestionDTO;
+import com.supplymanager.domain.dto.PlanningJobDTO;
+import com.supplymanager.domain.dto.PlanningJobStatus;
+import com.supplymanager.domain.dto.ProductDistributionDTO;
 import com.supplymanager.domain.dto.ProducibleProductDTO;
+import com.supplymanager.domain.dto.ProductDecisionDTO;
 import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.dto.ReplenishmentDTO;
+import com.supplymanager.domain.dto.SensitivityDTO;
+import com.supplymanager.domain.dto.SimulationDTO;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.CapacityExceededException;
 import com.supplymanager.exception.GlobalExceptionHandler;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.service.PlanningCoordinator;
+import com.supplymanager.service.PlanningJobService;
 import com.supplymanager.service.ProductionService;
+import com.supplymanager.service.ReplenishmentService;
+import com.supplymanager.service.SensitivityService;
+import com.supplymanager.service.SimulationService;
+import com.supplymanager.service.SuggestionPrecomputer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 class ProductionControllerTest {
 
+    @Mock
+    private PlanningCoordinator planningCoordinator;
+
+    @Mock
+    private PlanningJobService planningJobService;
+
     @Mock
     private ProductionService productionService;
 
+    @Mock
+    private SensitivityService sensitivityService;
+
+    @Mock
+    private SimulationService simulationService;
+
+    @Mock
+    private ReplenishmentService replenishmentService;
+
+    @Mock
+    private SuggestionPrecomputer suggestionPrecomputer;
+
     @InjectMocks
     private ProductionController productionController;
 
@@ -45,7 +94,7 @@ class ProductionControllerTest {
                 1L, "P1", "Product 1", new BigDecimal("100"), 5, new BigDecimal("500"));
         ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(
                 List.of(product), new BigDecimal("500"));
-        when(productionService.calculateSuggestion()).thenReturn(suggestion);
+        when(planningCoordinator.suggestion()).thenReturn(suggestion);
 
         mockMvc.perform(get("/api/production/suggestion"))
                 .andExpect(status().isOk())
@@ -58,11 +107,231 @@ class ProductionControllerTest {
     void getSuggestion_shouldReturn200WithEmptyList() throws Exception {
         ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(
                 Collections.emptyList(), BigDecimal.ZERO);
-        when(productionService.calculateSuggestion()).thenReturn(suggestion);
+        when(planningCoordinator.suggestion()).thenReturn(suggestion);
 
         mockMvc.perform(get("/api/production/suggestion"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalProductionValue").value(0))
                 .andExpect(jsonPath("$.producibleProducts").isEmpty());
     }
+
+    @Test
+    void getSuggestion_shouldServePrecomputedPlanWithVersionAndAge() throws Exception {
+        SuggestionPrecomputer.Precomputed latest = precomputed();
+        when(suggestionPrecomputer.isEnabled()).thenReturn(true);
+        when(suggestionPrecomputer.latest()).thenReturn(latest);
+
+        mockMvc.perform(get("/api/production/suggestion"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", latest.eTag()))
+                .andExpect(header().string("Age", "3"))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(jsonPath("$.totalProductionValue").value(500));
+
+        verify(planningCoordinator, never()).suggestion();
+    }
+
+    @Test
+    void getSuggestion_shouldReturn304WhenPrecomputedPlanIsUnchanged() throws Exception {
+        SuggestionPrecomputer.Precomputed latest = precomputed();
+        when(suggestionPrecomputer.isEnabled()).thenReturn(true);
+        when(suggestionPrecomputer.latest()).thenReturn(latest);
+
+        mockMvc.perform(get("/api/production/suggestion").header("If-None-Match", latest.eTag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getSuggestion_shouldReturn503UntilFirstPlanIsReady() throws Exception {
+        when(suggestionPrecomputer.isEnabled()).thenReturn(true);
+        when(suggestionPrecomputer.latest()).thenThrow(
+                new CapacityExceededException("The production suggestion is still being computed, try again shortly"));
+
+        mockMvc.perform(get("/api/production/suggestion"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getSuggestion_shouldExplainDecisionsWhenRequested() throws Exception {
+        ProductDecisionDTO decision = new ProductDecisionDTO(1L, "P1", "Product 1", 5, LimitingFactor.MATERIAL,
+                3L, "RM3", new BigDecimal("10"), new BigDecimal("2"), BigDecimal.ZERO);
+        when(productionService.explainSuggestion()).thenReturn(new ExplainedSuggestionDTO(
+                Collections.emptyList(), new BigDecimal("500"), List.of(decision)));
+
+        mockMvc.perform(get("/api/production/suggestion").param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.decisions[0].limitedBy").value("MATERIAL"))
+                .andExpect(jsonPath("$.decisions[0].limitingRawMaterialCode").value("RM3"))
+                .andExpect(jsonPath("$.decisions[0].remainingQuantity").value(0));
+
+        verify(planningCoordinator, never()).suggestion();
+    }
+
+    @Test
+    void submitJob_shouldReturn202WithLocation() throws Exception {
+        when(planningJobService.submit()).thenReturn(job(7L, PlanningJobStatus.QUEUED));
+
+        mockMvc.perform(post("/api/production/jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/production/jobs/7"))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void submitJob_shouldReturn503WhenSaturated() throws Exception {
+        when(planningJobService.submit()).thenThrow(new CapacityExceededException("busy"));
+
+        mockMvc.perform(post("/api/production/jobs"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void getJob_shouldReturn404WhenUnknown() throws Exception {
+        when(planningJobService.find(99L)).thenThrow(new ResourceNotFoundException("PlanningJob", 99L));
+
+        mockMvc.perform(get("/api/production/jobs/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getJobResult_shouldReturn200WhenCompleted() throws Exception {
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ZERO);
+        when(planningJobService.findResult(7L)).thenReturn(Optional.of(suggestion));
+
+        mockMvc.perform(get("/api/production/jobs/7/result"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProductionValue").value(0));
+    }
+
+    @Test
+    void getJobResult_shouldReturn202WhileRunning() throws Exception {
+        when(planningJobService.findResult(7L)).thenReturn(Optional.empty());
+        when(planningJobService.find(7L)).thenReturn(job(7L, PlanningJobStatus.RUNNING));
+
+        mockMvc.perform(get("/api/production/jobs/7/result"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void getJobResult_shouldReturn409WhenCancelled() throws Exception {
+        when(planningJobService.findResult(7L)).thenReturn(Optional.empty());
+        when(planningJobService.find(7L)).thenReturn(job(7L, PlanningJobStatus.CANCELLED));
+
+        mockMvc.perform(get("/api/production/jobs/7/result"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancelJob_shouldReturnCancelledJob() throws Exception {
+        when(planningJobService.cancel(7L)).thenReturn(job(7L, PlanningJobStatus.CANCELLED));
+
+        mockMvc.perform(delete("/api/production/jobs/7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+    }
+
+    private PlanningJobDTO job(Long id, PlanningJobStatus status) {
+        return new PlanningJobDTO(id, status, 0, 0, Instant.now(), null, null);
+    }
+
+    @Test
+    void getSensitivity_shouldUseDefaultSteps() throws Exception {
+        List<BigDecimal> steps = List.of(new BigDecimal("1"), new BigDecimal("10"), new BigDecimal("100"));
+        when(sensitivityService.sensitivity(steps)).thenReturn(new SensitivityDTO(steps, List.of(
+                new MaterialSensitivityDTO(3L, "RM3", "Material 3",
+                        List.of(new BigDecimal("0"), new BigDecimal("200"), new BigDecimal("2000"))))));
+
+        mockMvc.perform(get("/api/production/sensitivity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.materials[0].rawMaterialCode").value("RM3"))
+                .andExpect(jsonPath("$.materials[0].valueGains[2]").value(2000));
+    }
+
+    @Test
+    void simulate_shouldReturnPercentiles() throws Exception {
+        List<BigDecimal> percentiles = List.of(new BigDecimal("5"), new BigDecimal("95"));
+        when(simulationService.simulate(any())).thenReturn(new SimulationDTO(500, 42L, percentiles,
+                new BigDecimal("950.00"), List.of(new BigDecimal("800.00"), new BigDecimal("1100.00")),
+                List.of(new ProductDistributionDTO(1L, "P1", "Product 1", List.of(8, 11)))));
+
+        mockMvc.perform(post("/api/production/simulation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"simulations\":500,\"seed\":42,\"percentiles\":[5,95]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seed").value(42))
+                .andExpect(jsonPath("$.totalValue[1]").value(1100.00))
+                .andExpect(jsonPath("$.products[0].quantities[0]").value(8));
+    }
+
+    @Test
+    void simulate_shouldReturn400ForInvalidProbability() throws Exception {
+        mockMvc.perform(post("/api/production/simulation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"materials\":[{\"rawMaterialId\":1,\"incomingQuantity\":5,\"incomingProbability\":1.5}]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(simulationService, never()).simulate(any());
+    }
+
+    @Test
+    void simulate_shouldReturn400WhenOverLimit() throws Exception {
+        when(simulationService.simulate(any())).thenThrow(new InvalidRequestException("at most 20000 simulations are allowed"));
+
+        mockMvc.perform(post("/api/production/simulation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"simulations\":50000}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("at most 20000 simulations are allowed"));
+    }
+
+    @Test
+    void getOptimizedSuggestion_shouldReportImprovementOverGreedy() throws Exception {
+        ProducibleProductDTO product = new ProducibleProductDTO(
+                2L, "P2", "Product 2", new BigDecimal("6"), 5, new BigDecimal("30"));
+        when(planningCoordinator.optimizedSuggestion(Duration.ofMillis(500))).thenReturn(new OptimizedSuggestionDTO(
+                List.of(product), new BigDecimal("30"), new BigDecimal("26"), new BigDecimal("4"), 3, 500, 12000));
+
+        mockMvc.perform(get("/api/production/suggestion/optimized").param("timeLimitMs", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProductionValue").value(30))
+                .andExpect(jsonPath("$.improvement").value(4))
+                .andExpect(jsonPath("$.convergenceMillis").value(3))
+                .andExpect(jsonPath("$.producibleProducts[0].producibleQuantity").value(5));
+    }
+
+    @Test
+    void replenishment_shouldReturnPurchases() throws Exception {
+        when(replenishmentService.replenishment(any())).thenReturn(new ReplenishmentDTO(List.of(
+                new MaterialShortageDTO(1L, "RM1", "Material 1", new BigDecimal("21"), new BigDecimal("10"),
+                        new BigDecimal("11"), new BigDecimal("25"), new BigDecimal("40"), new BigDecimal("50")))));
+
+        mockMvc.perform(post("/api/production/replenishment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targets\":[{\"productId\":10,\"quantity\":8}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.shortages[0].rawMaterialCode").value("RM1"))
+                .andExpect(jsonPath("$.shortages[0].shortage").value(11))
+                .andExpect(jsonPath("$.shortages[0].purchaseQuantity").value(50));
+    }
+
+    @Test
+    void replenishment_shouldReturn400WithoutTargets() throws Exception {
+        mockMvc.perform(post("/api/production/replenishment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targets\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(replenishmentService, never()).replenishment(any());
+    }
+
+    private static SuggestionPrecomputer.Precomputed precomputed() {
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(List.of(new ProducibleProductDTO(
+                1L, "P1", "Product 1", new BigDecimal("100"), 5, new BigDecimal("500"))), new BigDecimal("500"));
+        return new SuggestionPrecomputer.Precomputed(suggestion,
+                new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z")),
+                new VersionStamp(3L, 9L, Instant.parse("2026-01-06T08:00:00Z")),
+                Instant.now().minusMillis(3500));
+    }
 }
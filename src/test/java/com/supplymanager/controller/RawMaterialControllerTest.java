@@ -1,10 +1,25 @@
 package com.supplymanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ImpactDTO;
+import com.supplymanager.domain.dto.ProductImpactDTO;
+import com.supplymanager.domain.dto.PurchasingTermsDTO;
 import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.StockAtDTO;
+import com.supplymanager.domain.dto.StockHistoryDTO;
+import com.supplymanager.domain.dto.StockPointDTO;
+import com.supplymanager.domain.dto.WhereUsedDTO;
+import com.supplymanager.domain.dto.WhereUsedProductDTO;
+import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.projection.VersionStamp;
 import com.supplymanager.exception.GlobalExceptionHandler;
+import com.supplymanager.exception.InvalidRequestException;
 import com.supplymanager.exception.ResourceNotFoundException;
 import com.supplymanager.service.RawMaterialService;
+import com.supplymanager.service.StockHistoryService;
+import com.supplymanager.service.WhereUsedService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,10 +27,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -27,9 +44,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class RawMaterialControllerTest {
 
+    private static final VersionStamp VERSION = new VersionStamp(1L, 3L, Instant.parse("2026-01-05T10:15:30Z"));
+
     @Mock
     private RawMaterialService rawMaterialService;
 
+    @Mock
+    private WhereUsedService whereUsedService;
+
+    @Mock
+    private StockHistoryService stockHistoryService;
+
     @InjectMocks
     private RawMaterialController rawMaterialController;
 
@@ -47,6 +72,7 @@ class RawMaterialControllerTest {
     @Test
     void findAll_shouldReturn200WithRawMaterials() throws Exception {
         RawMaterialDTO dto = new RawMaterialDTO(1L, "RM1", "Material 1", new BigDecimal("100"));
+        when(rawMaterialService.findAllVersion()).thenReturn(VERSION);
         when(rawMaterialService.findAll()).thenReturn(List.of(dto));
 
         mockMvc.perform(get("/api/raw-materials"))
@@ -58,6 +84,7 @@ class RawMaterialControllerTest {
     @Test
     void findById_shouldReturn200() throws Exception {
         RawMaterialDTO dto = new RawMaterialDTO(1L, "RM1", "Material 1", new BigDecimal("100"));
+        when(rawMaterialService.findVersion(1L)).thenReturn(VERSION);
         when(rawMaterialService.findById(1L)).thenReturn(dto);
 
         mockMvc.perform(get("/api/raw-materials/1"))
@@ -67,13 +94,105 @@ class RawMaterialControllerTest {
 
     @Test
     void findById_shouldReturn404WhenNotFound() throws Exception {
-        when(rawMaterialService.findById(99L)).thenThrow(new ResourceNotFoundException("RawMaterial", 99L));
+        when(rawMaterialService.findVersion(99L)).thenThrow(new ResourceNotFoundException("RawMaterial", 99L));
 
         mockMvc.perform(get("/api/raw-materials/99"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").exists());
     }
 
+    @Test
+    void findById_shouldReturn304WhenETagMatches() throws Exception {
+        when(rawMaterialService.findVersion(1L)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/raw-materials/1").header("If-None-Match", VERSION.eTag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", VERSION.eTag()));
+
+        verify(rawMaterialService, never()).findById(any());
+    }
+
+    @Test
+    void findAll_shouldReturnValidators() throws Exception {
+        when(rawMaterialService.findAllVersion()).thenReturn(VERSION);
+        when(rawMaterialService.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/raw-materials"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", VERSION.eTag()))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    @Test
+    void whereUsed_shouldReturn200WithProducts() throws Exception {
+        when(whereUsedService.whereUsed(1L)).thenReturn(new WhereUsedDTO(1L, List.of(
+                new WhereUsedProductDTO(5L, "P1", "Product 1", new BigDecimal("80"), new BigDecimal("2"), 3))));
+
+        mockMvc.perform(get("/api/raw-materials/1/where-used"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.products[0].productCode").value("P1"))
+                .andExpect(jsonPath("$.products[0].plannedQuantity").value(3));
+    }
+
+    @Test
+    void impact_shouldReturn200WithAffectedProducts() throws Exception {
+        BigDecimal delta = new BigDecimal("-4");
+        when(whereUsedService.impact(1L, delta)).thenReturn(new ImpactDTO(1L, delta, List.of(
+                new ProductImpactDTO(5L, "P1", "Product 1", 3, 1, -2, new BigDecimal("-160"))),
+                new BigDecimal("-160")));
+
+        mockMvc.perform(get("/api/raw-materials/1/impact").param("delta", "-4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affectedProducts[0].quantityChange").value(-2))
+                .andExpect(jsonPath("$.totalValueChange").value(-160));
+    }
+
+    @Test
+    void impact_shouldReturn404WhenNotFound() throws Exception {
+        when(whereUsedService.impact(eq(99L), any())).thenThrow(new ResourceNotFoundException("RawMaterial", 99L));
+
+        mockMvc.perform(get("/api/raw-materials/99/impact").param("delta", "1"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void stockAt_shouldReturn200WithHistoricalLevel() throws Exception {
+        Instant at = Instant.parse("2026-03-01T06:00:00Z");
+        when(stockHistoryService.stockAt(1L, at)).thenReturn(
+                new StockAtDTO(1L, at, new BigDecimal("42"), Instant.parse("2026-03-01T05:40:00Z")));
+
+        mockMvc.perform(get("/api/raw-materials/1/stock").param("at", "2026-03-01T06:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity").value(42));
+    }
+
+    @Test
+    void stockHistory_shouldPassRangeAndPointCount() throws Exception {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-03-01T00:00:00Z");
+        when(stockHistoryService.history(1L, from, to, 200)).thenReturn(new StockHistoryDTO(1L, from, to, "hourly",
+                List.of(new StockPointDTO(from, new BigDecimal("10")))));
+
+        mockMvc.perform(get("/api/raw-materials/1/stock-history")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("to", "2026-03-01T00:00:00Z")
+                        .param("points", "200"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("hourly"))
+                .andExpect(jsonPath("$.points[0].stockQuantity").value(10));
+    }
+
+    @Test
+    void stockHistory_shouldReturn400ForInvalidRange() throws Exception {
+        when(stockHistoryService.history(eq(1L), any(), any(), eq(500)))
+                .thenThrow(new InvalidRequestException("from must be before to"));
+
+        mockMvc.perform(get("/api/raw-materials/1/stock-history").param("from", "2026-03-01T00:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("from must be before to"));
+    }
+
     @Test
     void create_shouldReturn201() throws Exception {
         RawMaterialDTO dto = new RawMaterialDTO(null, "RM1", "Material 1", new BigDecimal("100"));
@@ -111,6 +230,41 @@ class RawMaterialControllerTest {
                 .andExpect(jsonPath("$.code").value("RM1-UP"));
     }
 
+    @Test
+    void update_shouldReturn409WhenModifiedConcurrently() throws Exception {
+        RawMaterialDTO dto = new RawMaterialDTO(null, "RM1-UP", "Material Updated", new BigDecimal("200"));
+        when(rawMaterialService.update(eq(1L), any(RawMaterialDTO.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(RawMaterial.class, 1L));
+
+        mockMvc.perform(put("/api/raw-materials/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    void updatePurchasingTerms_shouldReturn200() throws Exception {
+        PurchasingTermsDTO dto = new PurchasingTermsDTO(new BigDecimal("25"), new BigDecimal("40"));
+        when(rawMaterialService.updatePurchasingTerms(1L, dto)).thenReturn(dto);
+
+        mockMvc.perform(put("/api/raw-materials/1/purchasing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"packSize\":25,\"minOrderQuantity\":40}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.packSize").value(25));
+    }
+
+    @Test
+    void updatePurchasingTerms_shouldReturn400ForZeroPackSize() throws Exception {
+        mockMvc.perform(put("/api/raw-materials/1/purchasing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"packSize\":0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(rawMaterialService, never()).updatePurchasingTerms(any(), any());
+    }
+
     @Test
     void delete_shouldReturn204() throws Exception {
         doNothing().when(rawMaterialService).delete(1L);
@@ -120,4 +274,26 @@ class RawMaterialControllerTest {
 
         verify(rawMaterialService).delete(1L);
     }
+
+    @Test
+    void bulkDelete_shouldReturn200WithCounts() throws Exception {
+        when(rawMaterialService.deleteAll(new BulkDeleteDTO(List.of(1L, 2L), null))).thenReturn(new BulkDeleteResultDTO(2, 5));
+
+        mockMvc.perform(post("/api/raw-materials/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.compositionsDeleted").value(5));
+    }
+
+    @Test
+    void bulkDelete_shouldReturn400WithoutSelection() throws Exception {
+        mockMvc.perform(post("/api/raw-materials/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[],\"codePrefix\":\" \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(rawMaterialService, never()).deleteAll(any());
+    }
 }
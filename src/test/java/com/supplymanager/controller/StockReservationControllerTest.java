@@ -0,0 +1,100 @@
+package com.supplymanager.controller;
+
+import com.supplymanager.domain.dto.ReservedMaterialDTO;
+import com.supplymanager.domain.dto.StockReservationDTO;
+import com.supplymanager.domain.dto.StockReservationRequestDTO;
+import com.supplymanager.exception.GlobalExceptionHandler;
+import com.supplymanager.exception.InsufficientStockException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationControllerTest {
+
+    @Mock
+    private StockReservationService reservationService;
+
+    @InjectMocks
+    private StockReservationController reservationController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(reservationController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void reserve_shouldReturn201WithLocation() throws Exception {
+        when(reservationService.reserve(new StockReservationRequestDTO(10L, 2, null))).thenReturn(
+                new StockReservationDTO(5L, 10L, 2, Instant.parse("2026-10-19T12:00:00Z"),
+                        List.of(new ReservedMaterialDTO(1L, new BigDecimal("6.0000")))));
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":10,\"quantity\":2}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/reservations/5"))
+                .andExpect(jsonPath("$.materials[0].quantity").value(6));
+    }
+
+    @Test
+    void reserve_shouldReturn409WhenStockIsShort() throws Exception {
+        when(reservationService.reserve(any())).thenThrow(
+                new InsufficientStockException("Raw material RM1 has 4 available, 6 requested"));
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":10,\"quantity\":2}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Raw material RM1 has 4 available, 6 requested"));
+    }
+
+    @Test
+    void reserve_shouldReturn400WhenQuantityIsMissing() throws Exception {
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":10,\"ttlSeconds\":0}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.quantity").exists())
+                .andExpect(jsonPath("$.ttlSeconds").exists());
+
+        verify(reservationService, never()).reserve(any());
+    }
+
+    @Test
+    void release_shouldReturn204() throws Exception {
+        mockMvc.perform(delete("/api/reservations/5"))
+                .andExpect(status().isNoContent());
+
+        verify(reservationService).release(5L);
+    }
+
+    @Test
+    void release_shouldReturn404WhenNotFound() throws Exception {
+        doThrow(new ResourceNotFoundException("StockReservation", 5L)).when(reservationService).release(5L);
+
+        mockMvc.perform(delete("/api/reservations/5"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -132,6 +132,41 @@ class ProductRawMaterialIntegrationTest {
                 .andExpect(status().isConflict());
     }
 
+    @Test
+    void shouldBulkDeleteRawMaterialsAndTheirCompositions() throws Exception {
+        addRawMaterialToProduct(productId, rawMaterialId, "2.5000");
+        String eTag = mockMvc.perform(get("/api/products/{id}", productId))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(post("/api/raw-materials/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"codePrefix\":\"MAT-\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.compositionsDeleted").value(1));
+
+        mockMvc.perform(get("/api/products/{id}", productId).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rawMaterials", hasSize(0)));
+    }
+
+    @Test
+    void shouldBulkDeleteProductsAndTheirCompositions() throws Exception {
+        addRawMaterialToProduct(productId, rawMaterialId, "2.5000");
+
+        mockMvc.perform(post("/api/products/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + productId + ", 999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.compositionsDeleted").value(1));
+
+        mockMvc.perform(get("/api/products/{id}", productId))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/raw-materials/{id}", rawMaterialId))
+                .andExpect(status().isOk());
+    }
+
     private void addRawMaterialToProduct(Long productId, Long rawMaterialId, String quantity) throws Exception {
         var dto = new ProductRawMaterialDTO(null, rawMaterialId, null, null, new BigDecimal(quantity));
         mockMvc.perform(post("/api/products/{productId}/raw-materials", productId)
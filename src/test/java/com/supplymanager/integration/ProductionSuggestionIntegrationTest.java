@@ -7,6 +7,7 @@ import com.supplymanager.domain.dto.RawMaterialDTO;
 import com.supplymanager.repository.ProductRawMaterialRepository;
 import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +19,8 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -40,12 +43,16 @@ class ProductionSuggestionIntegrationTest {
     @Autowired
     private RawMaterialRepository rawMaterialRepository;
 
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
     @Autowired
     private WebApplicationContext webApplicationContext;
 
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        stockReservationRepository.deleteAll();
         productRawMaterialRepository.deleteAll();
         productRepository.deleteAll();
         rawMaterialRepository.deleteAll();
@@ -78,6 +85,93 @@ class ProductionSuggestionIntegrationTest {
                 .andExpect(jsonPath("$.totalProductionValue").value(600.0));
     }
 
+    @Test
+    void shouldHonorProductConstraints() throws Exception {
+        Long matId = createRawMaterial("MAT-001", "Madeira", "10.0000");
+        Long mesaId = createProduct("PROD-001", "Mesa", "200.00");
+        Long cadeiraId = createProduct("PROD-002", "Cadeira", "80.00");
+
+        addRawMaterialToProduct(mesaId, matId, "3.0000");
+        addRawMaterialToProduct(cadeiraId, matId, "2.0000");
+
+        mockMvc.perform(put("/api/products/{id}/constraints", mesaId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"maxQuantity\":2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.maxQuantity").value(2));
+        mockMvc.perform(put("/api/products/{id}/constraints", cadeiraId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"committedQuantity\":2}"))
+                .andExpect(status().isOk());
+
+        // Cadeira's 2 committed units use 4, Mesa is capped at 2 (6), nothing is left over
+        mockMvc.perform(get("/api/production/suggestion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producibleProducts[?(@.productCode == 'PROD-001')].producibleQuantity",
+                        contains(2)))
+                .andExpect(jsonPath("$.producibleProducts[?(@.productCode == 'PROD-002')].producibleQuantity",
+                        contains(2)))
+                .andExpect(jsonPath("$.totalProductionValue").value(560.0));
+    }
+
+    @Test
+    void shouldProjectScheduledReceiptsAndOrders() throws Exception {
+        Long matId = createRawMaterial("MAT-001", "Madeira", "10.0000");
+        Long mesaId = createProduct("PROD-001", "Mesa", "200.00");
+        addRawMaterialToProduct(mesaId, matId, "2.0000");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        mockMvc.perform(post("/api/mrp/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + mesaId + ",\"dueDate\":\"" + today.plusDays(3) + "\",\"quantity\":4}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/mrp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.materials[0].projectedOnHand[3]").value(2.0))
+                .andExpect(jsonPath("$.products[0].feasibleQuantity[0]").value(1));
+
+        // A later receipt is applied to the cached schedule from its date onward
+        mockMvc.perform(post("/api/mrp/receipts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rawMaterialId\":" + matId + ",\"dueDate\":\"" + today.plusDays(5) + "\",\"quantity\":8}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").isNumber());
+        mockMvc.perform(get("/api/mrp"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.materials[0].projectedOnHand[5]").value(10.0))
+                .andExpect(jsonPath("$.products[0].feasibleQuantity[0]").value(1))
+                .andExpect(jsonPath("$.products[0].feasibleQuantity[5]").value(5));
+    }
+
+    @Test
+    void shouldPlanAgainstStockLeftByReservations() throws Exception {
+        Long matId = createRawMaterial("MAT-001", "Madeira", "10.0000");
+        Long mesaId = createProduct("PROD-001", "Mesa", "200.00");
+        addRawMaterialToProduct(mesaId, matId, "3.0000");
+
+        String json = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + mesaId + ",\"quantity\":2}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.materials[0].quantity").value(6.0))
+                .andReturn().getResponse().getContentAsString();
+        long reservationId = objectMapper.readTree(json).get("id").asLong();
+
+        mockMvc.perform(get("/api/production/suggestion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producibleProducts[0].producibleQuantity").value(1));
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\":" + mesaId + ",\"quantity\":2}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/production/suggestion"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producibleProducts[0].producibleQuantity").value(3));
+    }
+
     private Long createProduct(String code, String name, String value) throws Exception {
         var dto = new ProductDTO(null, code, name, new BigDecimal(value), null);
         String json = mockMvc.perform(post("/api/products")
@@ -2,7 +2,10 @@ package com.supplymanager.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.model.StockHistoryHourly;
 import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockHistoryHourlyRepository;
+import com.supplymanager.service.StockHistoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,8 +17,17 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +42,12 @@ class RawMaterialIntegrationTest {
     @Autowired
     private RawMaterialRepository rawMaterialRepository;
 
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private StockHistoryHourlyRepository hourlyRepository;
+
     @Autowired
     private WebApplicationContext webApplicationContext;
 
@@ -128,6 +146,60 @@ class RawMaterialIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void shouldAnswerAsOfAndHistoryQueries() throws Exception {
+        String response = createRawMaterial("MAT-001", "Madeira", "100.0000");
+        Long id = objectMapper.readTree(response).get("id").asLong();
+        Instant beforeUpdate = Instant.now();
+
+        var updated = new RawMaterialDTO(null, "MAT-001", "Madeira", new BigDecimal("40.0000"));
+        mockMvc.perform(put("/api/raw-materials/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updated)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/raw-materials/{id}/stock", id).param("at", beforeUpdate.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stockQuantity").value(100.0));
+
+        mockMvc.perform(get("/api/raw-materials/{id}/stock-history", id)
+                        .param("from", beforeUpdate.minusSeconds(60).toString())
+                        .param("to", Instant.now().plusSeconds(1).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resolution").value("raw"))
+                .andExpect(jsonPath("$.points[0].stockQuantity").value(100.0))
+                .andExpect(jsonPath("$.points[-1:].stockQuantity").value(hasItem(40.0)));
+    }
+
+    @Test
+    void shouldFoldConcurrentFirstChangesOfAnHour() throws Exception {
+        String response = createRawMaterial("MAT-001", "Madeira", "100.0000");
+        Long id = objectMapper.readTree(response).get("id").asLong();
+        Instant hour = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.HOURS);
+        int writers = 8;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int i = 0; i < writers; i++) {
+                BigDecimal quantity = BigDecimal.valueOf(10 + i);
+                Instant at = hour.plusSeconds(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    stockHistoryService.record(id, quantity, at);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        StockHistoryHourly bucket = hourlyRepository.findByRawMaterialIdAndBucketStart(id, hour).orElseThrow();
+        assertEquals(writers, bucket.getSamples());
+    }
+
     private String createRawMaterial(String code, String name, String stockQuantity) throws Exception {
         var dto = new RawMaterialDTO(null, code, name, new BigDecimal(stockQuantity));
         return mockMvc.perform(post("/api/raw-materials")
@@ -0,0 +1,180 @@
+package com.supplymanager.integration;
+
+import com.supplymanager.domain.dto.StockReservationRequestDTO;
+import com.supplymanager.domain.model.Product;
+import com.supplymanager.domain.model.ProductRawMaterial;
+import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.model.ReservedMaterial;
+import com.supplymanager.domain.model.StockReservation;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockReservationRepository;
+import com.supplymanager.service.StockReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationIntegrationTest {
+
+    private static final int EXPIRED = 200;
+    private static final int RESERVERS = 4;
+    private static final int RESERVATIONS_PER_RESERVER = 25;
+
+    @Autowired
+    private StockReservationService reservationService;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private ProductRawMaterialRepository productRawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        reservationRepository.deleteAll();
+        productRawMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSweepExpiredReservationsWhileNewOnesAreTaken() throws Exception {
+        RawMaterial a = material("RM-A");
+        RawMaterial b = material("RM-B");
+        RawMaterial c = material("RM-C");
+        Long ac = product("P-AC", a, c);
+        Long onlyB = product("P-B", b);
+        Long bc = product("P-BC", b, c);
+
+        // Alternating expired holds make a sweep over one batch lock C before B, while reserving P-BC locks B first
+        Instant expiredAt = Instant.now().minusSeconds(3600);
+        Map<Long, BigDecimal> reserved = new HashMap<>();
+        for (int i = 0; i < EXPIRED; i++) {
+            List<ReservedMaterial> materials = i % 2 == 0
+                    ? List.of(new ReservedMaterial(a.getId(), BigDecimal.ONE), new ReservedMaterial(c.getId(), BigDecimal.ONE))
+                    : List.of(new ReservedMaterial(b.getId(), BigDecimal.ONE));
+            materials.forEach(m -> reserved.merge(m.getRawMaterialId(), m.getQuantity(), BigDecimal::add));
+            reservationRepository.save(new StockReservation(i % 2 == 0 ? ac : onlyB, 1, expiredAt.plusSeconds(i),
+                    new ArrayList<>(materials)));
+        }
+        transaction.executeWithoutResult(status -> {
+            for (RawMaterial material : List.of(a, b, c)) {
+                rawMaterialRepository.updateReservedQuantity(material.getId(),
+                        reserved.getOrDefault(material.getId(), BigDecimal.ZERO));
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(RESERVERS + 1)) {
+            results.add(executor.submit(() -> {
+                start.await();
+                reservationService.releaseExpired();
+                return null;
+            }));
+            for (int i = 0; i < RESERVERS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < RESERVATIONS_PER_RESERVER; j++) {
+                        reservationService.reserve(new StockReservationRequestDTO(bc, 1, 900L));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        List<StockReservation> left = reservationRepository.findAll();
+        assertEquals(RESERVERS * RESERVATIONS_PER_RESERVER, left.size());
+        assertTrue(left.stream().allMatch(reservation -> reservation.getProductId().equals(bc)));
+        BigDecimal held = BigDecimal.valueOf(RESERVERS * RESERVATIONS_PER_RESERVER);
+        assertEquals(0, BigDecimal.ZERO.compareTo(reservedQuantity(a)));
+        assertEquals(0, held.compareTo(reservedQuantity(b)));
+        assertEquals(0, held.compareTo(reservedQuantity(c)));
+    }
+
+    @Test
+    void reservationShouldNeitherFailNorBeLostByAConcurrentEdit() throws Exception {
+        RawMaterial material = material("RM-E");
+        Long product = product("P-E", material);
+        Long version = material.getVersion();
+
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            transaction.executeWithoutResult(status -> {
+                RawMaterial edited = rawMaterialRepository.findById(material.getId()).orElseThrow();
+                try {
+                    executor.submit(() -> reservationService.reserve(new StockReservationRequestDTO(product, 7, 900L)))
+                            .get();
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+                edited.setName("Renamed while reserved");
+            });
+        }
+
+        RawMaterial stored = rawMaterialRepository.findById(material.getId()).orElseThrow();
+        assertEquals("Renamed while reserved", stored.getName());
+        assertEquals(version + 1, stored.getVersion());
+        assertEquals(0, new BigDecimal("7").compareTo(stored.getReservedQuantity()));
+    }
+
+    private RawMaterial material(String code) {
+        RawMaterial material = new RawMaterial();
+        material.setCode(code);
+        material.setName(code);
+        material.setStockQuantity(new BigDecimal("100000"));
+        return rawMaterialRepository.save(material);
+    }
+
+    private Long product(String code, RawMaterial... materials) {
+        Product product = new Product();
+        product.setCode(code);
+        product.setName(code);
+        product.setValue(BigDecimal.TEN);
+        Product saved = productRepository.save(product);
+        for (RawMaterial material : materials) {
+            productRawMaterialRepository.save(new ProductRawMaterial(null, saved, material, BigDecimal.ONE));
+        }
+        return saved.getId();
+    }
+
+    private BigDecimal reservedQuantity(RawMaterial material) {
+        return rawMaterialRepository.findById(material.getId()).orElseThrow().getReservedQuantity();
+    }
+}
@@ -0,0 +1,222 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialPlanDTO;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.ScheduledReceiptDTO;
+import com.supplymanager.domain.event.ScheduleChangedEvent;
+import com.supplymanager.domain.event.ScheduleChangedEvent.Action;
+import com.supplymanager.domain.event.ScheduleChangedEvent.Resource;
+import com.supplymanager.domain.model.ProductionOrder;
+import com.supplymanager.domain.model.ScheduledReceipt;
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.ProductionOrderRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.ScheduledReceiptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MrpServiceTest {
+
+    private static final VersionStamp VERSION = new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z"));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    @Mock
+    private ScheduledReceiptRepository receiptRepository;
+
+    @Mock
+    private ProductionOrderRepository orderRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MrpService mrpService;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        PlanningCatalogProvider catalogProvider = new PlanningCatalogProvider(productRepository,
+                rawMaterialRepository, prmRepository, mock(PlatformTransactionManager.class), "");
+        mrpService = new MrpService(catalogProvider, productRepository, rawMaterialRepository,
+                receiptRepository, orderRepository, eventPublisher, 7, ZoneOffset.UTC);
+        today = LocalDate.now(ZoneOffset.UTC);
+        lenient().when(productRepository.findVersionStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findPlanningStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(
+                new StockLevel(1L, BigDecimal.TEN),
+                new StockLevel(2L, new BigDecimal("3"))));
+        lenient().when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(10L, new BigDecimal("300"), 1L, new BigDecimal("2")),
+                new PlanningLine(10L, new BigDecimal("300"), 2L, BigDecimal.ONE)));
+        lenient().when(rawMaterialRepository.findAllDTOs()).thenReturn(List.of(
+                new RawMaterialDTO(1L, "RM1", "Material 1", BigDecimal.TEN),
+                new RawMaterialDTO(2L, "RM2", "Material 2", new BigDecimal("3"))));
+        lenient().when(productRepository.findLabelsByIdIn(any())).thenReturn(List.of(
+                new ProductLabel(10L, "PA", "Product A")));
+        lenient().when(orderRepository.findAll()).thenReturn(List.of(order(3L, today.plusDays(4), 3)));
+    }
+
+    @Test
+    void plan_shouldProjectReceiptsAndOrdersInDailyBuckets() {
+        when(receiptRepository.findAll()).thenReturn(List.of(
+                receipt(5L, 2L, today.plusDays(2), "5"),
+                receipt(6L, 1L, today.minusDays(3), "1")));
+
+        MaterialPlanDTO plan = mrpService.plan();
+
+        assertEquals(today, plan.startDate());
+        assertEquals(7, plan.horizonDays());
+        assertEquals("RM1", plan.materials().get(0).rawMaterialCode());
+        // Overdue receipt lands today; the order consumes 6 x RM1 and 3 x RM2 on day 4
+        assertEquals(0, new BigDecimal("11").compareTo(plan.materials().get(0).projectedOnHand().get(0)));
+        assertEquals(0, new BigDecimal("5").compareTo(plan.materials().get(0).projectedOnHand().get(4)));
+        assertEquals(0, new BigDecimal("5").compareTo(plan.materials().get(0).available().get(0)));
+        assertEquals(0, new BigDecimal("8").compareTo(plan.materials().get(1).projectedOnHand().get(2)));
+        assertEquals(List.of(2, 2, 2, 2, 2, 2, 2), plan.products().get(0).feasibleQuantity());
+    }
+
+    @Test
+    void plan_shouldApplyNewReceiptsIncrementally() {
+        when(receiptRepository.findAll()).thenReturn(List.of(receipt(5L, 2L, today.plusDays(2), "5")));
+        when(receiptRepository.findAllById(List.of(8L))).thenReturn(List.of(receipt(8L, 1L, today.plusDays(5), "20")));
+
+        mrpService.plan();
+        mrpService.onScheduleChanged(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, 8L, Action.CREATED));
+        MaterialPlanDTO plan = mrpService.plan();
+
+        assertEquals(0, new BigDecimal("24").compareTo(plan.materials().get(0).projectedOnHand().get(5)));
+        assertEquals(List.of(2, 2, 2, 2, 2, 5, 5), plan.products().get(0).feasibleQuantity());
+        verify(receiptRepository, times(1)).findAll();
+        verify(prmRepository, times(1)).streamPlanningLines();
+    }
+
+    @Test
+    void plan_shouldRebuildWhenRowsWereDeleted() {
+        when(receiptRepository.findAll()).thenReturn(List.of(receipt(5L, 2L, today.plusDays(2), "5")), List.of());
+
+        mrpService.plan();
+        mrpService.onScheduleChanged(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, 5L, Action.DELETED));
+        MaterialPlanDTO plan = mrpService.plan();
+
+        assertEquals(0, new BigDecimal("3").compareTo(plan.materials().get(1).projectedOnHand().get(2)));
+        verify(receiptRepository, times(2)).findAll();
+    }
+
+    @Test
+    void plan_shouldReuseTheScheduleWhenNothingChanged() {
+        when(receiptRepository.findAll()).thenReturn(List.of());
+
+        mrpService.plan();
+        mrpService.plan();
+
+        verify(receiptRepository, times(1)).findAll();
+        verify(receiptRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void plan_shouldSkipAnnouncedRowsTheRebuildAlreadyLoaded() {
+        // The receipt committed while the schedule was rebuilt: loaded by it, announced after it
+        when(receiptRepository.findAll()).thenReturn(List.of(receipt(5L, 2L, today.plusDays(2), "5")));
+
+        mrpService.plan();
+        mrpService.onScheduleChanged(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, 5L, Action.CREATED));
+        MaterialPlanDTO plan = mrpService.plan();
+
+        assertEquals(0, new BigDecimal("8").compareTo(plan.materials().get(1).projectedOnHand().get(2)));
+        verify(receiptRepository, times(1)).findAll();
+        verify(receiptRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void plan_shouldRetryAnnouncedRowsThatWereNotFound() {
+        when(receiptRepository.findAll()).thenReturn(List.of());
+        when(receiptRepository.findAllById(List.of(8L))).thenReturn(List.of(),
+                List.of(receipt(8L, 1L, today.plusDays(5), "20")));
+
+        mrpService.plan();
+        mrpService.onScheduleChanged(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, 8L, Action.CREATED));
+        MaterialPlanDTO missed = mrpService.plan();
+        MaterialPlanDTO plan = mrpService.plan();
+        mrpService.plan();
+
+        assertEquals(0, new BigDecimal("10").compareTo(missed.materials().get(0).projectedOnHand().get(0)));
+        assertEquals(0, new BigDecimal("24").compareTo(plan.materials().get(0).projectedOnHand().get(5)));
+        verify(receiptRepository, times(2)).findAllById(List.of(8L));
+        verify(receiptRepository, times(1)).findAll();
+    }
+
+    @Test
+    void plan_shouldReadThePrimary() throws NoSuchMethodException {
+        Transactional transactional = MrpService.class.getMethod("plan").getAnnotation(Transactional.class);
+
+        assertNotNull(transactional);
+        assertFalse(transactional.readOnly());
+    }
+
+    @Test
+    void createReceipt_shouldAnnounceTheReceipt() {
+        when(rawMaterialRepository.existsById(1L)).thenReturn(true);
+        when(receiptRepository.save(any())).thenReturn(receipt(9L, 1L, today, "4"));
+
+        mrpService.createReceipt(new ScheduledReceiptDTO(null, 1L, today, new BigDecimal("4")));
+
+        verify(eventPublisher).publishEvent(new ScheduleChangedEvent(Resource.SCHEDULED_RECEIPT, 9L, Action.CREATED));
+    }
+
+    @Test
+    void createReceipt_shouldThrowForUnknownMaterial() {
+        when(rawMaterialRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> mrpService.createReceipt(
+                new ScheduledReceiptDTO(null, 99L, today, BigDecimal.ONE)));
+        verify(receiptRepository, never()).save(any());
+    }
+
+    private static ScheduledReceipt receipt(Long id, Long rawMaterialId, LocalDate dueDate, String quantity) {
+        ScheduledReceipt receipt = new ScheduledReceipt(rawMaterialId, dueDate, new BigDecimal(quantity));
+        receipt.setId(id);
+        return receipt;
+    }
+
+    private static ProductionOrder order(Long id, LocalDate dueDate, int quantity) {
+        ProductionOrder order = new ProductionOrder(10L, dueDate, quantity);
+        order.setId(id);
+        return order;
+    }
+}
@@ -0,0 +1,37 @@
+package com.supplymanager.service;
+
+import com.supplymanager.service.PendingEvents.StreamEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingEventsTest {
+
+    @Test
+    void shouldKeepOnlyLatestEventPerKey() {
+        PendingEvents pending = new PendingEvents(10);
+        pending.offer("PRODUCT:1", new StreamEvent("change", "first"));
+        pending.offer("RAW_MATERIAL:2", new StreamEvent("change", "other"));
+        pending.offer("PRODUCT:1", new StreamEvent("change", "second"));
+
+        assertEquals(2, pending.size());
+        assertEquals("other", pending.poll().data());
+        assertEquals("second", pending.poll().data());
+        assertNull(pending.poll());
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    void shouldCollapseBacklogIntoResyncWhenFull() {
+        PendingEvents pending = new PendingEvents(3);
+        for (int i = 0; i < 3; i++) {
+            pending.offer("PRODUCT:" + i, new StreamEvent("change", i));
+        }
+
+        pending.offer("suggestion", new StreamEvent("suggestion", "latest"));
+
+        assertEquals(2, pending.size());
+        assertSame(PendingEvents.RESYNC, pending.poll());
+        assertEquals("latest", pending.poll().data());
+    }
+}
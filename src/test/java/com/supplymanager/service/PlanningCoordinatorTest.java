@@ -0,0 +1,147 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.service.planning.PlanningMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlanningCoordinatorTest {
+
+    private final ProductionService productionService = mock(ProductionService.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProductionSuggestionDTO suggestion =
+            new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ONE);
+
+    @Test
+    void concurrentRequestsShouldShareOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productionService.calculateSuggestion()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return suggestion;
+        });
+        PlanningCoordinator coordinator = coordinator(2, Duration.ofSeconds(1));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<ProductionSuggestionDTO>> results = new ArrayList<>();
+            results.add(clients.submit(coordinator::suggestion));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 10; i++) {
+                results.add(clients.submit(coordinator::suggestion));
+            }
+            awaitCount("coalesced", 10);
+            release.countDown();
+
+            for (Future<ProductionSuggestionDTO> result : results) {
+                assertSame(suggestion, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        verify(productionService, times(1)).calculateSuggestion();
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    void requestAfterCommittedChangeShouldNotJoinOlderComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productionService.calculateSuggestion()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return suggestion;
+        }).thenReturn(suggestion);
+        PlanningCoordinator coordinator = coordinator(2, Duration.ofSeconds(1));
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ProductionSuggestionDTO> first = clients.submit(coordinator::suggestion);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            coordinator.onCatalogChanged(new CatalogChangedEvent(Resource.RAW_MATERIAL, 1L, Action.UPDATED));
+
+            assertSame(suggestion, coordinator.suggestion());
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+        verify(productionService, times(2)).calculateSuggestion();
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void shouldRejectWhenNoPlanningSlotIsFree() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productionService.calculateSuggestion()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return suggestion;
+        });
+        PlanningCoordinator coordinator = coordinator(1, Duration.ZERO);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ProductionSuggestionDTO> first = clients.submit(coordinator::suggestion);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            coordinator.onCatalogChanged(new CatalogChangedEvent(Resource.PRODUCT, 1L, Action.CREATED));
+
+            assertThrows(CapacityExceededException.class, coordinator::suggestion);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, count("rejected"));
+    }
+
+    @Test
+    void optimizedSuggestionsShouldShareThePlanningSlots() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productionService.calculateSuggestion()).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return suggestion;
+        });
+        PlanningCoordinator coordinator = coordinator(1, Duration.ZERO);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ProductionSuggestionDTO> first = clients.submit(coordinator::suggestion);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(CapacityExceededException.class, () -> coordinator.optimizedSuggestion(Duration.ofSeconds(1)));
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        }
+        verify(productionService, never()).optimizedSuggestion(any());
+        assertEquals(1, count("rejected"));
+    }
+
+    private PlanningCoordinator coordinator(int maxConcurrent, Duration admissionTimeout) {
+        return new PlanningCoordinator(productionService, new PlanningMetrics(registry), maxConcurrent, admissionTimeout);
+    }
+
+    private double count(String outcome) {
+        return registry.counter("supplymanager.planner.calls", "outcome", outcome).count();
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(outcome) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count(outcome));
+    }
+}
@@ -0,0 +1,131 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.PlanningJobDTO;
+import com.supplymanager.domain.dto.PlanningJobStatus;
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.service.planning.PlanningProgress;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlanningJobServiceTest {
+
+    private final ProductionService productionService = mock(ProductionService.class);
+    private PlanningJobService jobService;
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void shouldCompleteJobAndKeepResult() throws Exception {
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.TEN);
+        when(productionService.calculateSuggestion(any())).thenAnswer(invocation -> {
+            PlanningProgress progress = invocation.getArgument(0);
+            progress.onProduct(3, 3);
+            return suggestion;
+        });
+        jobService = new PlanningJobService(productionService, 1, 4, 10, Duration.ofSeconds(10));
+
+        PlanningJobDTO job = jobService.submit();
+        PlanningJobDTO finished = awaitFinished(job.id());
+
+        assertEquals(PlanningJobStatus.COMPLETED, finished.status());
+        assertEquals(3, finished.processedProducts());
+        assertEquals(suggestion, jobService.findResult(job.id()).orElseThrow());
+    }
+
+    @Test
+    void cancelledJobShouldStopRunning() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        when(productionService.calculateSuggestion(any())).thenAnswer(invocation -> {
+            PlanningProgress progress = invocation.getArgument(0);
+            started.countDown();
+            try {
+                for (int i = 0; ; i++) {
+                    progress.onProduct(i, Integer.MAX_VALUE);
+                }
+            } finally {
+                stopped.countDown();
+            }
+        });
+        jobService = new PlanningJobService(productionService, 1, 4, 10, Duration.ofSeconds(10));
+
+        PlanningJobDTO job = jobService.submit();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        jobService.cancel(job.id());
+
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertEquals(PlanningJobStatus.CANCELLED, jobService.find(job.id()).status());
+        assertTrue(jobService.findResult(job.id()).isEmpty());
+    }
+
+    @Test
+    void shouldTimeOutWhenBudgetIsExceeded() throws Exception {
+        when(productionService.calculateSuggestion(any())).thenAnswer(invocation -> {
+            PlanningProgress progress = invocation.getArgument(0);
+            for (int i = 0; ; i++) {
+                progress.onProduct(i, Integer.MAX_VALUE);
+            }
+        });
+        jobService = new PlanningJobService(productionService, 1, 4, 10, Duration.ofMillis(50));
+
+        PlanningJobDTO job = jobService.submit();
+
+        assertEquals(PlanningJobStatus.TIMED_OUT, awaitFinished(job.id()).status());
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productionService.calculateSuggestion(any())).thenAnswer(invocation -> {
+            release.await();
+            return new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ZERO);
+        });
+        jobService = new PlanningJobService(productionService, 1, 1, 10, Duration.ofSeconds(10));
+
+        jobService.submit();
+        jobService.submit();
+
+        assertThrows(CapacityExceededException.class, () -> jobService.submit());
+        release.countDown();
+    }
+
+    @Test
+    void shouldEvictOldestFinishedJobs() throws Exception {
+        when(productionService.calculateSuggestion(any()))
+                .thenReturn(new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ZERO));
+        jobService = new PlanningJobService(productionService, 1, 4, 2, Duration.ofSeconds(10));
+
+        PlanningJobDTO first = jobService.submit();
+        awaitFinished(first.id());
+        awaitFinished(jobService.submit().id());
+        awaitFinished(jobService.submit().id());
+
+        assertThrows(ResourceNotFoundException.class, () -> jobService.find(first.id()));
+    }
+
+    private PlanningJobDTO awaitFinished(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        PlanningJobDTO job = jobService.find(id);
+        while (!job.status().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = jobService.find(id);
+        }
+        return job;
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -23,6 +24,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +39,9 @@ class ProductRawMaterialServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductRawMaterialService prmService;
 
@@ -51,11 +56,10 @@ class ProductRawMaterialServiceTest {
 
     @Test
     void findByProductId_shouldReturnRawMaterials() {
-        ProductRawMaterial prm = new ProductRawMaterial(1L, product, rawMaterial, new BigDecimal("2.5"));
-        product.setRawMaterials(List.of(prm));
+        ProductRawMaterialDTO prm = new ProductRawMaterialDTO(1L, 1L, "RM1", "Material 1", new BigDecimal("2.5"));
 
         when(productRepository.existsById(1L)).thenReturn(true);
-        when(productRepository.findByIdWithRawMaterials(1L)).thenReturn(Optional.of(product));
+        when(prmRepository.findDTOsByProductId(1L)).thenReturn(List.of(prm));
 
         List<ProductRawMaterialDTO> result = prmService.findByProductId(1L);
 
@@ -86,6 +90,7 @@ class ProductRawMaterialServiceTest {
         assertEquals(1L, result.id());
         assertEquals("RM1", result.rawMaterialCode());
         assertEquals(new BigDecimal("3.0"), result.requiredQuantity());
+        verify(productRepository).touch(eq(1L), any());
     }
 
     @Test
@@ -150,6 +155,7 @@ class ProductRawMaterialServiceTest {
         prmService.remove(1L, 1L);
 
         verify(prmRepository).delete(existing);
+        verify(productRepository).touch(eq(1L), any());
     }
 
     @Test
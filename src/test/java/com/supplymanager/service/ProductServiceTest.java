@@ -1,17 +1,24 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.ProductConstraintsDTO;
 import com.supplymanager.domain.dto.ProductDTO;
+import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
 import com.supplymanager.domain.model.Product;
-import com.supplymanager.domain.model.ProductRawMaterial;
-import com.supplymanager.domain.model.RawMaterial;
 import com.supplymanager.exception.DuplicateResourceException;
 import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
 import com.supplymanager.repository.ProductRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -28,14 +35,20 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
     @Test
     void findAll_shouldReturnListOfProducts() {
-        Product p1 = new Product(1L, "P1", "Product 1", new BigDecimal("10.00"), new ArrayList<>());
-        Product p2 = new Product(2L, "P2", "Product 2", new BigDecimal("20.00"), new ArrayList<>());
-        when(productRepository.findAll()).thenReturn(List.of(p1, p2));
+        ProductDTO p1 = new ProductDTO(1L, "P1", "Product 1", new BigDecimal("10.00"));
+        ProductDTO p2 = new ProductDTO(2L, "P2", "Product 2", new BigDecimal("20.00"));
+        when(productRepository.findAllDTOs()).thenReturn(List.of(p1, p2));
 
         List<ProductDTO> result = productService.findAll();
 
@@ -46,7 +59,7 @@ class ProductServiceTest {
 
     @Test
     void findAll_shouldReturnEmptyList() {
-        when(productRepository.findAll()).thenReturn(List.of());
+        when(productRepository.findAllDTOs()).thenReturn(List.of());
 
         List<ProductDTO> result = productService.findAll();
 
@@ -55,12 +68,11 @@ class ProductServiceTest {
 
     @Test
     void findById_shouldReturnProductWithRawMaterials() {
-        RawMaterial rm = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
-        Product product = new Product(1L, "P1", "Product 1", new BigDecimal("50.00"), new ArrayList<>());
-        ProductRawMaterial prm = new ProductRawMaterial(1L, product, rm, new BigDecimal("2.5"));
-        product.setRawMaterials(List.of(prm));
+        ProductDTO product = new ProductDTO(1L, "P1", "Product 1", new BigDecimal("50.00"));
+        ProductRawMaterialDTO prm = new ProductRawMaterialDTO(1L, 1L, "RM1", "Material 1", new BigDecimal("2.5"));
 
-        when(productRepository.findByIdWithRawMaterials(1L)).thenReturn(Optional.of(product));
+        when(productRepository.findDTOById(1L)).thenReturn(Optional.of(product));
+        when(prmRepository.findDTOsByProductId(1L)).thenReturn(List.of(prm));
 
         ProductDTO result = productService.findById(1L);
 
@@ -71,9 +83,10 @@ class ProductServiceTest {
 
     @Test
     void findById_shouldThrowWhenNotFound() {
-        when(productRepository.findByIdWithRawMaterials(99L)).thenReturn(Optional.empty());
+        when(productRepository.findDTOById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> productService.findById(99L));
+        verify(prmRepository, never()).findDTOsByProductId(any());
     }
 
     @Test
@@ -89,6 +102,7 @@ class ProductServiceTest {
         assertEquals(1L, result.id());
         assertEquals("P1", result.code());
         verify(productRepository).save(any(Product.class));
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.PRODUCT, 1L, Action.CREATED));
     }
 
     @Test
@@ -98,6 +112,7 @@ class ProductServiceTest {
 
         assertThrows(DuplicateResourceException.class, () -> productService.create(dto));
         verify(productRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -151,6 +166,29 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    void updateConstraints_shouldStoreLimitsAndPublishUpdate() {
+        Product existing = new Product(1L, "P1", "Product 1", new BigDecimal("10.00"), new ArrayList<>());
+        when(productRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(productRepository.save(existing)).thenReturn(existing);
+
+        ProductConstraintsDTO result = productService.updateConstraints(1L, new ProductConstraintsDTO(500, 20, null));
+
+        assertEquals(new ProductConstraintsDTO(500, 20, null), result);
+        assertEquals(500, existing.getMaxQuantity());
+        assertNull(existing.getCommittedQuantity());
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.PRODUCT, 1L, Action.UPDATED));
+    }
+
+    @Test
+    void updateConstraints_shouldThrowWhenNotFound() {
+        when(productRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> productService.updateConstraints(99L, new ProductConstraintsDTO(1, null, null)));
+        verify(productRepository, never()).save(any());
+    }
+
     @Test
     void delete_shouldDeleteProduct() {
         when(productRepository.existsById(1L)).thenReturn(true);
@@ -158,6 +196,7 @@ class ProductServiceTest {
         productService.delete(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.PRODUCT, 1L, Action.DELETED));
     }
 
     @Test
@@ -167,4 +206,53 @@ class ProductServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> productService.delete(99L));
         verify(productRepository, never()).deleteById(any());
     }
+
+    @Test
+    void deleteAll_shouldDeleteExistingProductsWithSetBasedStatements() {
+        when(productRepository.findIdsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        when(prmRepository.deleteByProductIdIn(List.of(1L, 3L))).thenReturn(4);
+        when(productRepository.deleteByIdIn(List.of(1L, 3L))).thenReturn(2);
+
+        BulkDeleteResultDTO result = productService.deleteAll(new BulkDeleteDTO(List.of(1L, 2L, 3L, 1L), null));
+
+        assertEquals(new BulkDeleteResultDTO(2, 4), result);
+        verify(productRepository, never()).deleteById(any());
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.PRODUCT, 1L, Action.DELETED));
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.PRODUCT, 3L, Action.DELETED));
+    }
+
+    @Test
+    void deleteAll_shouldCombineIdsWithEscapedCodePrefix() {
+        when(productRepository.findIdsByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(productRepository.findIdsByCodeLike("OLD!_%")).thenReturn(List.of(2L, 5L));
+        when(prmRepository.deleteByProductIdIn(List.of(2L))).thenReturn(0);
+        when(productRepository.deleteByIdIn(List.of(2L))).thenReturn(1);
+
+        BulkDeleteResultDTO result = productService.deleteAll(new BulkDeleteDTO(List.of(1L, 2L), "OLD_"));
+
+        assertEquals(new BulkDeleteResultDTO(1, 0), result);
+    }
+
+    @Test
+    void deleteAll_shouldSplitLargeSelectionsIntoChunks() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1200; id++) ids.add(id);
+        when(productRepository.findIdsByCodeLike("P%")).thenReturn(ids);
+        when(prmRepository.deleteByProductIdIn(anyCollection())).thenReturn(0);
+        when(productRepository.deleteByIdIn(anyCollection())).thenAnswer(inv -> inv.<List<Long>>getArgument(0).size());
+
+        BulkDeleteResultDTO result = productService.deleteAll(new BulkDeleteDTO(null, "P"));
+
+        assertEquals(1200, result.deleted());
+        verify(productRepository, times(3)).deleteByIdIn(anyCollection());
+    }
+
+    @Test
+    void deleteAll_shouldDoNothingWhenNothingMatches() {
+        when(productRepository.findIdsByCodeLike("X%")).thenReturn(List.of());
+
+        assertEquals(new BulkDeleteResultDTO(0, 0), productService.deleteAll(new BulkDeleteDTO(List.of(), "X")));
+        verify(productRepository, never()).deleteByIdIn(any());
+        verifyNoInteractions(eventPublisher);
+    }
 }
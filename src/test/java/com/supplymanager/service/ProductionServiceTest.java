@@ -1,23 +1,44 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.ExplainedSuggestionDTO;
+import com.supplymanager.domain.dto.LimitingFactor;
+import com.supplymanager.domain.dto.OptimizedSuggestionDTO;
+import com.supplymanager.domain.dto.ProductDecisionDTO;
 import com.supplymanager.domain.dto.ProductionSuggestionDTO;
-import com.supplymanager.domain.model.Product;
-import com.supplymanager.domain.model.ProductRawMaterial;
-import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
 import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.PlanningMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,27 +50,43 @@ class ProductionServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
-    @InjectMocks
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    @Spy
+    private PlanningMetrics planningMetrics = new PlanningMetrics(new SimpleMeterRegistry());
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
     private ProductionService productionService;
 
-    private RawMaterial rm1;
-    private RawMaterial rm2;
+    private StockLevel rm1;
+    private StockLevel rm2;
 
     @BeforeEach
     void setUp() {
-        rm1 = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal(10), new ArrayList<>());
-        rm2 = new RawMaterial(2L, "RM2", "Material 2", new BigDecimal(6), new ArrayList<>());
+        rm1 = new StockLevel(1L, new BigDecimal(10));
+        rm2 = new StockLevel(2L, new BigDecimal(6));
+        PlanningCatalogProvider catalogProvider = new PlanningCatalogProvider(productRepository,
+                rawMaterialRepository, prmRepository, mock(PlatformTransactionManager.class), "");
+        productionService = new ProductionService(productRepository, rawMaterialRepository, catalogProvider,
+                planningMetrics, pool, Duration.ofSeconds(30), 2);
+        lenient().when(productRepository.findVersionStamp()).thenReturn(version(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
     }
 
     @Test
     void shouldPrioritizeHigherValueProduct() {
-        Product productA = buildProduct(1L, "PA", "Product A", "200", List.of(
-                buildPrm(rm1, "5")));
-        Product productB = buildProduct(2L, "PB", "Product B", "100", List.of(
-                buildPrm(rm1, "3")));
-
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1));
-        when(productRepository.findAllWithRawMaterialsOrderByValueDesc()).thenReturn(List.of(productA, productB));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "200", rm1, "5"),
+                line(2L, "100", rm1, "3")));
+        when(productRepository.findLabelsByIdIn(List.of(1L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A")));
 
         ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
@@ -61,12 +98,12 @@ class ProductionServiceTest {
 
     @Test
     void shouldHandleMultipleRawMaterials() {
-        Product product = buildProduct(1L, "PA", "Product A", "300", List.of(
-                buildPrm(rm1, "2"),
-                buildPrm(rm2, "3")));
-
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1, rm2));
-        when(productRepository.findAllWithRawMaterialsOrderByValueDesc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1, rm2));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "300", rm1, "2"),
+                line(1L, "300", rm2, "3")));
+        when(productRepository.findLabelsByIdIn(List.of(1L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A")));
 
         ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
@@ -77,40 +114,44 @@ class ProductionServiceTest {
 
     @Test
     void shouldReturnEmptyWhenNoStock() {
-        rm1.setStockQuantity(BigDecimal.ZERO);
-        Product product = buildProduct(1L, "PA", "Product A", "100", List.of(
-                buildPrm(rm1, "5")));
+        rm1 = new StockLevel(1L, BigDecimal.ZERO);
 
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1));
-        when(productRepository.findAllWithRawMaterialsOrderByValueDesc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "100", rm1, "5")));
 
         ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
         assertTrue(result.producibleProducts().isEmpty());
         assertEquals(BigDecimal.ZERO, result.totalProductionValue());
+        verify(productRepository, never()).findLabelsByIdIn(any());
     }
 
     @Test
     void shouldSkipProductsWithNoRequirements() {
-        Product product = buildProduct(1L, "PA", "Product A", "100", List.of());
-
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1));
-        when(productRepository.findAllWithRawMaterialsOrderByValueDesc()).thenReturn(List.of(product));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "200", rm1, "0"),
+                line(2L, "100", rm1, "2")));
+        when(productRepository.findLabelsByIdIn(List.of(2L))).thenReturn(List.of(
+                new ProductLabel(2L, "PB", "Product B")));
 
         ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
-        assertTrue(result.producibleProducts().isEmpty());
+        assertEquals(1, result.producibleProducts().size());
+        assertEquals("PB", result.producibleProducts().get(0).productCode());
+        assertEquals(5, result.producibleProducts().get(0).producibleQuantity());
     }
 
     @Test
     void shouldProduceMultipleProducts() {
-        Product productA = buildProduct(1L, "PA", "Product A", "100", List.of(
-                buildPrm(rm1, "2")));
-        Product productB = buildProduct(2L, "PB", "Product B", "50", List.of(
-                buildPrm(rm2, "2")));
-
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1, rm2));
-        when(productRepository.findAllWithRawMaterialsOrderByValueDesc()).thenReturn(List.of(productA, productB));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1, rm2));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "100", rm1, "2"),
+                line(2L, "50", rm2, "2")));
+        when(productRepository.findLabelsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A"),
+                new ProductLabel(2L, "PB", "Product B")));
 
         ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
@@ -120,19 +161,161 @@ class ProductionServiceTest {
         assertEquals(new BigDecimal("650"), result.totalProductionValue());
     }
 
-    private Product buildProduct(Long id, String code, String name, String value, List<ProductRawMaterial> materials) {
-        Product p = new Product(id, code, name, new BigDecimal(value), materials);
-        p.setRawMaterials(materials);
-        materials.forEach(m -> m.setProduct(p));
+    @Test
+    void shouldSkipProductsDeletedAfterTheCatalogWasLoaded() {
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1, rm2));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "100", rm1, "2"),
+                line(2L, "50", rm2, "2")));
+        when(productRepository.findLabelsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A")));
+
+        ProductionSuggestionDTO result = productionService.calculateSuggestion();
+
+        assertEquals(1, result.producibleProducts().size());
+        assertEquals("PA", result.producibleProducts().get(0).productCode());
+        assertEquals(new BigDecimal("500"), result.totalProductionValue());
+    }
+
+    @Test
+    void shouldTreatMaterialsWithoutStockAsUnavailable() {
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "100", rm1, "2"),
+                line(1L, "100", rm2, "1")));
+
+        ProductionSuggestionDTO result = productionService.calculateSuggestion();
 
-        return p;
+        assertTrue(result.producibleProducts().isEmpty());
+    }
+
+    @Test
+    void shouldReuseCatalogStructureWhileVersionIsUnchanged() {
+        when(rawMaterialRepository.findAllStockLevels())
+                .thenReturn(List.of(rm1))
+                .thenReturn(List.of(new StockLevel(1L, new BigDecimal(4))));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(line(1L, "100", rm1, "2")));
+        when(productRepository.findLabelsByIdIn(List.of(1L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A")));
+
+        assertEquals(5, productionService.calculateSuggestion().producibleProducts().get(0).producibleQuantity());
+        assertEquals(2, productionService.calculateSuggestion().producibleProducts().get(0).producibleQuantity());
+
+        verify(prmRepository, times(1)).streamPlanningLines();
     }
 
-    private ProductRawMaterial buildPrm(RawMaterial rm, String qty) {
-        ProductRawMaterial prm = new ProductRawMaterial();
-        prm.setRawMaterial(rm);
-        prm.setRequiredQuantity(new BigDecimal(qty));
+    @Test
+    void shouldRebuildCatalogWhenVersionChanges() {
+        when(productRepository.findVersionStamp()).thenReturn(version(1), version(2));
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines())
+                .thenReturn(Stream.of(line(1L, "100", rm1, "2")))
+                .thenReturn(Stream.of(line(1L, "100", rm1, "5")));
+        when(productRepository.findLabelsByIdIn(List.of(1L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A")));
+
+        assertEquals(5, productionService.calculateSuggestion().producibleProducts().get(0).producibleQuantity());
+        assertEquals(2, productionService.calculateSuggestion().producibleProducts().get(0).producibleQuantity());
+    }
+
+    @Test
+    void shouldCapProductsAtTheirMaximumAndPassStockOn() {
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(1L, new BigDecimal("200"), 1L, new BigDecimal("2"), 3, null, null),
+                line(2L, "100", rm1, "1")));
+        when(productRepository.findLabelsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A"),
+                new ProductLabel(2L, "PB", "Product B")));
+
+        ProductionSuggestionDTO result = productionService.calculateSuggestion();
+
+        assertEquals(3, result.producibleProducts().get(0).producibleQuantity());
+        assertEquals(4, result.producibleProducts().get(1).producibleQuantity());
+        assertEquals(new BigDecimal("1000"), result.totalProductionValue());
+    }
+
+    @Test
+    void explainShouldReportWhatLimitedEachProduct() {
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(1L, new BigDecimal("200"), 1L, new BigDecimal("2"), 3, null, null),
+                line(2L, "100", rm1, "1")));
+        when(productRepository.findLabelsByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A"),
+                new ProductLabel(2L, "PB", "Product B")));
+        when(rawMaterialRepository.findAllDTOs()).thenReturn(List.of(
+                new RawMaterialDTO(1L, "RM1", "Raw 1", new BigDecimal(10))));
+
+        ExplainedSuggestionDTO result = productionService.explainSuggestion();
+
+        assertEquals(new BigDecimal("1000"), result.totalProductionValue());
+        ProductDecisionDTO capped = result.decisions().get(0);
+        assertEquals(LimitingFactor.MAXIMUM_QUANTITY, capped.limitedBy());
+        assertEquals(3, capped.plannedQuantity());
+        assertEquals(0, new BigDecimal("10").compareTo(capped.availableQuantity()));
+        assertEquals(0, new BigDecimal("4").compareTo(capped.remainingQuantity()));
+        ProductDecisionDTO starved = result.decisions().get(1);
+        assertEquals(LimitingFactor.MATERIAL, starved.limitedBy());
+        assertEquals("RM1", starved.limitingRawMaterialCode());
+        assertEquals(4, starved.plannedQuantity());
+        assertEquals(0, new BigDecimal("4").compareTo(starved.availableQuantity()));
+        assertEquals(0, BigDecimal.ONE.compareTo(starved.requiredQuantity()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(starved.remainingQuantity()));
+    }
+
+    @Test
+    void shouldServeCommittedThenMinimumQuantitiesBeforeValueOrder() {
+        // Stock 10: B's committed 2 units (4), then C's minimum 3 units (3), then A takes the rest
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "300", rm1, "1"),
+                new PlanningLine(2L, new BigDecimal("200"), 1L, new BigDecimal("2"), null, null, 2),
+                new PlanningLine(3L, new BigDecimal("100"), 1L, new BigDecimal("1"), 5, 3, null)));
+        when(productRepository.findLabelsByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A"),
+                new ProductLabel(2L, "PB", "Product B"),
+                new ProductLabel(3L, "PC", "Product C")));
+
+        ProductionSuggestionDTO result = productionService.calculateSuggestion();
+
+        assertEquals(3, result.producibleProducts().get(0).producibleQuantity());
+        assertEquals(2, result.producibleProducts().get(1).producibleQuantity());
+        assertEquals(3, result.producibleProducts().get(2).producibleQuantity());
+        assertEquals(new BigDecimal("1600"), result.totalProductionValue());
+    }
+
+    @Test
+    void optimizedSuggestionShouldBeatGreedyWhenAValuableProductHogsStock() {
+        when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(rm1));
+        when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                line(1L, "10", rm1, "4"),
+                line(2L, "6", rm1, "2")));
+        when(productRepository.findLabelsByIdIn(any())).thenReturn(List.of(
+                new ProductLabel(1L, "PA", "Product A"),
+                new ProductLabel(2L, "PB", "Product B")));
+
+        OptimizedSuggestionDTO result = productionService.optimizedSuggestion(Duration.ofMillis(300));
+
+        assertEquals(new BigDecimal("26"), result.greedyProductionValue());
+        assertEquals(new BigDecimal("30"), result.totalProductionValue());
+        assertEquals(new BigDecimal("4"), result.improvement());
+        assertEquals(1, result.producibleProducts().size());
+        assertEquals(5, result.producibleProducts().get(0).producibleQuantity());
+        assertTrue(result.convergenceMillis() <= result.elapsedMillis());
+    }
+
+    @Test
+    void optimizedSuggestionShouldRejectTimeLimitsAboveTheMaximum() {
+        assertThrows(InvalidRequestException.class, () -> productionService.optimizedSuggestion(Duration.ofMinutes(1)));
+        assertThrows(InvalidRequestException.class, () -> productionService.optimizedSuggestion(Duration.ZERO));
+    }
+
+    private VersionStamp version(long versionSum) {
+        return new VersionStamp(2L, versionSum, Instant.parse("2026-01-05T10:15:30Z"));
+    }
 
-        return prm;
+    private PlanningLine line(Long productId, String value, StockLevel rm, String qty) {
+        return new PlanningLine(productId, new BigDecimal(value), rm.rawMaterialId(), new BigDecimal(qty));
     }
 }
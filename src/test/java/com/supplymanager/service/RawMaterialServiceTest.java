@@ -1,15 +1,25 @@
 package com.supplymanager.service;
 
+import com.supplymanager.domain.dto.BulkDeleteDTO;
+import com.supplymanager.domain.dto.BulkDeleteResultDTO;
+import com.supplymanager.domain.dto.PurchasingTermsDTO;
 import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
 import com.supplymanager.domain.model.RawMaterial;
 import com.supplymanager.exception.DuplicateResourceException;
 import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
 import com.supplymanager.repository.RawMaterialRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -19,6 +29,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,14 +38,26 @@ class RawMaterialServiceTest {
     @Mock
     private RawMaterialRepository rawMaterialRepository;
 
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    @Mock
+    private StockHistoryService stockHistoryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RawMaterialService rawMaterialService;
 
     @Test
     void findAll_shouldReturnListOfRawMaterials() {
-        RawMaterial rm1 = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
-        RawMaterial rm2 = new RawMaterial(2L, "RM2", "Material 2", new BigDecimal("200"), new ArrayList<>());
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(rm1, rm2));
+        RawMaterialDTO rm1 = new RawMaterialDTO(1L, "RM1", "Material 1", new BigDecimal("100"));
+        RawMaterialDTO rm2 = new RawMaterialDTO(2L, "RM2", "Material 2", new BigDecimal("200"));
+        when(rawMaterialRepository.findAllDTOs()).thenReturn(List.of(rm1, rm2));
 
         List<RawMaterialDTO> result = rawMaterialService.findAll();
 
@@ -45,7 +68,7 @@ class RawMaterialServiceTest {
 
     @Test
     void findAll_shouldReturnEmptyList() {
-        when(rawMaterialRepository.findAll()).thenReturn(List.of());
+        when(rawMaterialRepository.findAllDTOs()).thenReturn(List.of());
 
         List<RawMaterialDTO> result = rawMaterialService.findAll();
 
@@ -54,8 +77,8 @@ class RawMaterialServiceTest {
 
     @Test
     void findById_shouldReturnRawMaterial() {
-        RawMaterial rm = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
-        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(rm));
+        RawMaterialDTO rm = new RawMaterialDTO(1L, "RM1", "Material 1", new BigDecimal("100"));
+        when(rawMaterialRepository.findDTOById(1L)).thenReturn(Optional.of(rm));
 
         RawMaterialDTO result = rawMaterialService.findById(1L);
 
@@ -65,7 +88,7 @@ class RawMaterialServiceTest {
 
     @Test
     void findById_shouldThrowWhenNotFound() {
-        when(rawMaterialRepository.findById(99L)).thenReturn(Optional.empty());
+        when(rawMaterialRepository.findDTOById(99L)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () -> rawMaterialService.findById(99L));
     }
@@ -83,6 +106,7 @@ class RawMaterialServiceTest {
         assertEquals(1L, result.id());
         assertEquals("RM1", result.code());
         verify(rawMaterialRepository).save(any(RawMaterial.class));
+        verify(stockHistoryService).record(eq(1L), eq(new BigDecimal("100")), any());
     }
 
     @Test
@@ -125,6 +149,33 @@ class RawMaterialServiceTest {
         verify(rawMaterialRepository, never()).existsByCode(anyString());
     }
 
+    @Test
+    void update_shouldNotTouchProductsWhenOnlyStockChanges() {
+        RawMaterial existing = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
+        RawMaterialDTO dto = new RawMaterialDTO(null, "RM1", "Material 1", new BigDecimal("80"));
+
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(rawMaterialRepository.save(any(RawMaterial.class))).thenReturn(existing);
+
+        rawMaterialService.update(1L, dto);
+
+        verify(productRepository, never()).touchByRawMaterialId(any(), any());
+        verify(stockHistoryService).record(eq(1L), eq(new BigDecimal("80")), any());
+    }
+
+    @Test
+    void update_shouldNotRecordHistoryWhenStockIsUnchanged() {
+        RawMaterial existing = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
+        RawMaterialDTO dto = new RawMaterialDTO(null, "RM1", "Material 1", new BigDecimal("100.0000"));
+
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(rawMaterialRepository.save(any(RawMaterial.class))).thenReturn(existing);
+
+        rawMaterialService.update(1L, dto);
+
+        verify(stockHistoryService, never()).record(any(), any(), any());
+    }
+
     @Test
     void update_shouldThrowWhenNotFound() {
         RawMaterialDTO dto = new RawMaterialDTO(null, "RM1", "Material 1", new BigDecimal("100"));
@@ -145,12 +196,35 @@ class RawMaterialServiceTest {
         verify(rawMaterialRepository, never()).save(any());
     }
 
+    @Test
+    void updatePurchasingTerms_shouldStoreTermsAndPublishUpdate() {
+        RawMaterial existing = new RawMaterial(1L, "RM1", "Material 1", new BigDecimal("100"), new ArrayList<>());
+        when(rawMaterialRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(rawMaterialRepository.save(existing)).thenReturn(existing);
+
+        PurchasingTermsDTO result = rawMaterialService.updatePurchasingTerms(1L,
+                new PurchasingTermsDTO(new BigDecimal("25"), new BigDecimal("40")));
+
+        assertEquals(new BigDecimal("25"), existing.getPackSize());
+        assertEquals(new BigDecimal("40"), result.minOrderQuantity());
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, 1L, Action.UPDATED));
+        verify(stockHistoryService, never()).record(any(), any(), any());
+    }
+
+    @Test
+    void findPurchasingTerms_shouldThrowWhenNotFound() {
+        when(rawMaterialRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> rawMaterialService.findPurchasingTerms(99L));
+    }
+
     @Test
     void delete_shouldDeleteRawMaterial() {
         when(rawMaterialRepository.existsById(1L)).thenReturn(true);
 
         rawMaterialService.delete(1L);
 
+        verify(productRepository).touchByRawMaterialId(eq(1L), any());
         verify(rawMaterialRepository).deleteById(1L);
     }
 
@@ -161,4 +235,20 @@ class RawMaterialServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> rawMaterialService.delete(99L));
         verify(rawMaterialRepository, never()).deleteById(any());
     }
+
+    @Test
+    void deleteAll_shouldTouchProductsAndDeleteCompositionsInBulk() {
+        when(rawMaterialRepository.findIdsByIdIn(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(prmRepository.deleteByRawMaterialIdIn(List.of(1L, 2L))).thenReturn(3);
+        when(rawMaterialRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+
+        BulkDeleteResultDTO result = rawMaterialService.deleteAll(new BulkDeleteDTO(List.of(1L, 2L), null));
+
+        assertEquals(new BulkDeleteResultDTO(2, 3), result);
+        InOrder order = inOrder(productRepository, prmRepository, rawMaterialRepository);
+        order.verify(productRepository).touchByRawMaterialIdIn(eq(List.of(1L, 2L)), any());
+        order.verify(prmRepository).deleteByRawMaterialIdIn(List.of(1L, 2L));
+        order.verify(rawMaterialRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+    }
 }
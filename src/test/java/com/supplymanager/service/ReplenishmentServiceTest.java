@@ -0,0 +1,132 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.MaterialShortageDTO;
+import com.supplymanager.domain.dto.ProductTargetDTO;
+import com.supplymanager.domain.dto.ReplenishmentDTO;
+import com.supplymanager.domain.dto.ReplenishmentRequestDTO;
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.PurchasingTerms;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.service.planning.MaterialRequirements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplenishmentServiceTest {
+
+    private static final VersionStamp VERSION = new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z"));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    private ReplenishmentService replenishmentService;
+
+    @BeforeEach
+    void setUp() {
+        PlanningCatalogProvider catalogProvider = new PlanningCatalogProvider(productRepository,
+                rawMaterialRepository, prmRepository, mock(PlatformTransactionManager.class), "");
+        replenishmentService = new ReplenishmentService(catalogProvider, productRepository, rawMaterialRepository);
+        lenient().when(productRepository.findVersionStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findPlanningStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(
+                new StockLevel(1L, new BigDecimal("10")),
+                new StockLevel(2L, new BigDecimal("100"))));
+        lenient().when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(10L, new BigDecimal("300"), 1L, new BigDecimal("2")),
+                new PlanningLine(10L, new BigDecimal("300"), 2L, new BigDecimal("1.5")),
+                new PlanningLine(20L, new BigDecimal("100"), 1L, new BigDecimal("1"))));
+    }
+
+    @Test
+    void shouldAggregateRequirementsAndRoundPurchasesToPacks() {
+        when(rawMaterialRepository.findPurchasingTermsByIdIn(List.of(1L))).thenReturn(List.of(
+                new PurchasingTerms(1L, "RM1", "Material 1", new BigDecimal("25"), new BigDecimal("40"))));
+
+        // 8 x P10 and 5 x P20 need 21 of RM1 (10 in stock) and 12 of RM2 (100 in stock)
+        ReplenishmentDTO result = replenishmentService.replenishment(new ReplenishmentRequestDTO(List.of(
+                new ProductTargetDTO(10L, 5),
+                new ProductTargetDTO(20L, 5),
+                new ProductTargetDTO(10L, 3))));
+
+        assertEquals(1, result.shortages().size());
+        MaterialShortageDTO shortage = result.shortages().get(0);
+        assertEquals("RM1", shortage.rawMaterialCode());
+        assertEquals(0, new BigDecimal("21").compareTo(shortage.requiredQuantity()));
+        assertEquals(0, new BigDecimal("11").compareTo(shortage.shortage()));
+        // Minimum order 40, rounded up to two packs of 25
+        assertEquals(0, new BigDecimal("50").compareTo(shortage.purchaseQuantity()));
+    }
+
+    @Test
+    void shouldNotQueryTermsWhenStockCoversTheTargets() {
+        ReplenishmentDTO result = replenishmentService.replenishment(new ReplenishmentRequestDTO(List.of(
+                new ProductTargetDTO(10L, 5))));
+
+        assertTrue(result.shortages().isEmpty());
+        verify(rawMaterialRepository, never()).findPurchasingTermsByIdIn(any());
+    }
+
+    @Test
+    void shouldAcceptExistingProductsWithoutBom() {
+        when(productRepository.findIdsByIdIn(List.of(30L))).thenReturn(List.of(30L));
+
+        ReplenishmentDTO result = replenishmentService.replenishment(new ReplenishmentRequestDTO(List.of(
+                new ProductTargetDTO(30L, 100))));
+
+        assertTrue(result.shortages().isEmpty());
+    }
+
+    @Test
+    void shouldThrowForUnknownProducts() {
+        when(productRepository.findIdsByIdIn(List.of(99L))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> replenishmentService.replenishment(
+                new ReplenishmentRequestDTO(List.of(new ProductTargetDTO(99L, 1)))));
+    }
+
+    @Test
+    void shouldRejectRepeatedTargetsThatOverflow() {
+        assertThrows(InvalidRequestException.class, () -> replenishmentService.replenishment(
+                new ReplenishmentRequestDTO(List.of(
+                        new ProductTargetDTO(10L, Integer.MAX_VALUE),
+                        new ProductTargetDTO(10L, 1)))));
+    }
+
+    @Test
+    void purchaseShouldApplyMinimumOrderThenPackSize() {
+        assertEquals(0, MaterialRequirements.purchase(0, 40, 25));
+        assertEquals(7, MaterialRequirements.purchase(7, 0, 0));
+        assertEquals(40, MaterialRequirements.purchase(7, 40, 0));
+        assertEquals(10, MaterialRequirements.purchase(7, 0, 5));
+        assertEquals(50, MaterialRequirements.purchase(41, 40, 25));
+    }
+}
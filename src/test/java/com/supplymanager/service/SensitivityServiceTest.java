@@ -0,0 +1,95 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.RawMaterialDTO;
+import com.supplymanager.domain.dto.SensitivityDTO;
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class SensitivityServiceTest {
+
+    private static final VersionStamp VERSION = new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z"));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    private SensitivityService sensitivityService;
+
+    @BeforeEach
+    void setUp() {
+        PlanningCatalogProvider catalogProvider = new PlanningCatalogProvider(productRepository,
+                rawMaterialRepository, prmRepository, mock(PlatformTransactionManager.class), "");
+        sensitivityService = new SensitivityService(catalogProvider, rawMaterialRepository, pool);
+        lenient().when(productRepository.findVersionStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findPlanningStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(
+                new StockLevel(1L, new BigDecimal("3")),
+                new StockLevel(2L, new BigDecimal("8"))));
+        lenient().when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(10L, new BigDecimal("300"), 1L, new BigDecimal("1")),
+                new PlanningLine(10L, new BigDecimal("300"), 2L, new BigDecimal("2")),
+                new PlanningLine(20L, new BigDecimal("100"), 2L, new BigDecimal("1"))));
+        lenient().when(rawMaterialRepository.findAllDTOs()).thenReturn(List.of(
+                new RawMaterialDTO(1L, "RM1", "Material 1", new BigDecimal("3")),
+                new RawMaterialDTO(2L, "RM2", "Material 2", new BigDecimal("8"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldRankMaterialsByTheGainAtTheLargestStep() {
+        SensitivityDTO result = sensitivityService.sensitivity(List.of(BigDecimal.ONE, new BigDecimal("2")));
+
+        assertEquals(2, result.materials().size());
+        // Two more RM2 make two more PB; extra RM1 only helps until RM2 runs out for PA
+        assertEquals("RM2", result.materials().get(0).rawMaterialCode());
+        assertEquals(0, new BigDecimal("200").compareTo(result.materials().get(0).valueGains().get(1)));
+        assertEquals("RM1", result.materials().get(1).rawMaterialCode());
+        assertEquals(0, new BigDecimal("100").compareTo(result.materials().get(1).valueGains().get(1)));
+    }
+
+    @Test
+    void shouldRejectStepsWithoutAnExactUnitValue() {
+        assertThrows(InvalidRequestException.class, () -> sensitivityService.sensitivity(
+                List.of(new BigDecimal("1e30"))));
+    }
+
+    @Test
+    void shouldRejectStepsThatOverflowTheStock() {
+        assertThrows(InvalidRequestException.class, () -> sensitivityService.sensitivity(
+                List.of(new BigDecimal("922337203685477"))));
+    }
+}
@@ -0,0 +1,161 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.StockAtDTO;
+import com.supplymanager.domain.dto.StockHistoryDTO;
+import com.supplymanager.domain.dto.StockPointDTO;
+import com.supplymanager.domain.model.StockHistoryHourly;
+import com.supplymanager.domain.model.StockMovement;
+import com.supplymanager.domain.projection.StockBucket;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockHistoryHourlyRepository;
+import com.supplymanager.repository.StockMovementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockHistoryServiceTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-01T06:00:00Z");
+
+    @Mock
+    private StockMovementRepository movementRepository;
+
+    @Mock
+    private StockHistoryHourlyRepository hourlyRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @InjectMocks
+    private StockHistoryService stockHistoryService;
+
+    @Test
+    void record_shouldOpenNewHourAtTheCarriedOverLevel() {
+        Instant at = T0.plusSeconds(1800);
+        when(hourlyRepository.findByRawMaterialIdAndBucketStart(1L, T0)).thenReturn(Optional.empty());
+        when(movementRepository.findLatestAtOrBefore(1L, at, Limit.of(1)))
+                .thenReturn(List.of(new StockPointDTO(T0.minusSeconds(600), new BigDecimal("100"))));
+
+        stockHistoryService.record(1L, new BigDecimal("10"), at);
+
+        ArgumentCaptor<StockHistoryHourly> hour = ArgumentCaptor.forClass(StockHistoryHourly.class);
+        verify(hourlyRepository).save(hour.capture());
+        assertEquals(new BigDecimal("100"), hour.getValue().getOpenQuantity());
+        assertEquals(new BigDecimal("10"), hour.getValue().getMinQuantity());
+        assertEquals(new BigDecimal("100"), hour.getValue().getMaxQuantity());
+        assertEquals(new BigDecimal("10"), hour.getValue().getCloseQuantity());
+        assertEquals(1, hour.getValue().getSamples());
+        verify(movementRepository).save(any(StockMovement.class));
+    }
+
+    @Test
+    void record_shouldFoldIntoExistingHour() {
+        StockHistoryHourly existing = new StockHistoryHourly(1L, T0, new BigDecimal("50"));
+        existing.record(new BigDecimal("40"));
+        when(hourlyRepository.findByRawMaterialIdAndBucketStart(1L, T0)).thenReturn(Optional.of(existing));
+
+        stockHistoryService.record(1L, new BigDecimal("70"), T0.plusSeconds(60));
+
+        assertEquals(new BigDecimal("40"), existing.getMinQuantity());
+        assertEquals(new BigDecimal("70"), existing.getMaxQuantity());
+        assertEquals(2, existing.getSamples());
+        verify(movementRepository, never()).findLatestAtOrBefore(any(), any(), any());
+    }
+
+    @Test
+    void record_shouldLockTheMaterialBeforeReadingTheHour() {
+        when(hourlyRepository.findByRawMaterialIdAndBucketStart(1L, T0)).thenReturn(Optional.empty());
+
+        stockHistoryService.record(1L, new BigDecimal("10"), T0);
+
+        InOrder inOrder = inOrder(rawMaterialRepository, hourlyRepository);
+        inOrder.verify(rawMaterialRepository).findByIdForUpdate(1L);
+        inOrder.verify(hourlyRepository).findByRawMaterialIdAndBucketStart(1L, T0);
+        inOrder.verify(hourlyRepository).save(any(StockHistoryHourly.class));
+    }
+
+    @Test
+    void stockAt_shouldReturnLatestLevelAtOrBeforeTheInstant() {
+        when(movementRepository.findLatestAtOrBefore(1L, T0, Limit.of(1)))
+                .thenReturn(List.of(new StockPointDTO(T0.minusSeconds(60), new BigDecimal("42"))));
+
+        StockAtDTO result = stockHistoryService.stockAt(1L, T0);
+
+        assertEquals(new BigDecimal("42"), result.stockQuantity());
+        assertEquals(T0.minusSeconds(60), result.recordedAt());
+    }
+
+    @Test
+    void stockAt_shouldThrowWithoutHistory() {
+        when(movementRepository.findLatestAtOrBefore(1L, T0, Limit.of(1))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> stockHistoryService.stockAt(1L, T0));
+    }
+
+    @Test
+    void history_shouldUseRawMovementsForShortRanges() {
+        Instant to = T0.plusSeconds(3600);
+        when(movementRepository.streamRange(1L, T0, to)).thenReturn(Stream.of(
+                new StockPointDTO(T0.plusSeconds(60), new BigDecimal("5")),
+                new StockPointDTO(T0.plusSeconds(120), new BigDecimal("9")),
+                new StockPointDTO(T0.plusSeconds(180), new BigDecimal("7"))));
+        when(movementRepository.findLatestAtOrBefore(eq(1L), any(), eq(Limit.of(1)))).thenReturn(List.of());
+
+        StockHistoryDTO result = stockHistoryService.history(1L, T0, to, 6);
+
+        assertEquals("raw", result.resolution());
+        // Two buckets of 30 minutes: all samples land in the first one, keeping only its low and high
+        assertEquals(List.of(
+                new StockPointDTO(T0.plusSeconds(60), new BigDecimal("5")),
+                new StockPointDTO(T0.plusSeconds(120), new BigDecimal("9"))), result.points());
+        verify(hourlyRepository, never()).streamRange(any(), any(), any());
+    }
+
+    @Test
+    void history_shouldUseHourlyRollupForLongRangesAndCarryLevelsToTheEdges() {
+        Instant from = T0.plusSeconds(900);
+        Instant to = from.plusSeconds(86_400 * 10);
+        when(hourlyRepository.streamRange(1L, T0, to)).thenReturn(Stream.of(
+                new StockBucket(T0, new BigDecimal("3"), new BigDecimal("8"))));
+        when(movementRepository.findLatestAtOrBefore(1L, from, Limit.of(1)))
+                .thenReturn(List.of(new StockPointDTO(T0, new BigDecimal("4"))));
+        when(movementRepository.findLatestAtOrBefore(1L, to, Limit.of(1)))
+                .thenReturn(List.of(new StockPointDTO(T0.plusSeconds(1200), new BigDecimal("6"))));
+
+        StockHistoryDTO result = stockHistoryService.history(1L, from, to, 100);
+
+        assertEquals("hourly", result.resolution());
+        assertEquals(List.of(
+                new StockPointDTO(from, new BigDecimal("4")),
+                new StockPointDTO(from, new BigDecimal("3")),
+                new StockPointDTO(from, new BigDecimal("8")),
+                new StockPointDTO(to, new BigDecimal("6"))), result.points());
+        verify(movementRepository, never()).streamRange(any(), any(), any());
+    }
+
+    @Test
+    void history_shouldRejectInvalidRanges() {
+        assertThrows(InvalidRequestException.class, () -> stockHistoryService.history(1L, T0, T0, 100));
+        assertThrows(InvalidRequestException.class,
+                () -> stockHistoryService.history(1L, T0, T0.plusSeconds(60), 100_000));
+    }
+}
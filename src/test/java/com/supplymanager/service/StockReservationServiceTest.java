@@ -0,0 +1,181 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductRawMaterialDTO;
+import com.supplymanager.domain.dto.StockReservationDTO;
+import com.supplymanager.domain.dto.StockReservationRequestDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
+import com.supplymanager.domain.model.RawMaterial;
+import com.supplymanager.domain.model.ReservedMaterial;
+import com.supplymanager.domain.model.StockReservation;
+import com.supplymanager.exception.InsufficientStockException;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import com.supplymanager.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private StockReservationService reservationService;
+    private RawMaterial wood;
+    private RawMaterial screws;
+
+    @BeforeEach
+    void setUp() {
+        reservationService = new StockReservationService(reservationRepository, rawMaterialRepository,
+                productRepository, prmRepository, eventPublisher, transactionManager,
+                Duration.ofMinutes(15), Duration.ofHours(1), 2);
+        wood = new RawMaterial(1L, "RM1", "Wood", new BigDecimal("10"), new ArrayList<>());
+        screws = new RawMaterial(2L, "RM2", "Screws", new BigDecimal("5"), new ArrayList<>());
+        // Stands in for the bulk update, which writes the row without going through the entity
+        lenient().when(rawMaterialRepository.updateReservedQuantity(anyLong(), any())).thenAnswer(invocation -> {
+            RawMaterial material = invocation.getArgument(0).equals(wood.getId()) ? wood : screws;
+            material.setReservedQuantity(invocation.getArgument(1));
+            return 1;
+        });
+    }
+
+    @Test
+    void reserveShouldHoldEveryMaterialOfTheBom() {
+        givenBom();
+        when(reservationRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        StockReservationDTO result = reservationService.reserve(new StockReservationRequestDTO(10L, 3, null));
+
+        assertEquals(0, new BigDecimal("6").compareTo(wood.getReservedQuantity()));
+        assertEquals(0, new BigDecimal("3").compareTo(screws.getReservedQuantity()));
+        assertEquals(2, result.materials().size());
+        assertTrue(result.expiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(14))));
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, 1L, Action.UPDATED));
+        verify(eventPublisher).publishEvent(new CatalogChangedEvent(Resource.RAW_MATERIAL, 2L, Action.UPDATED));
+    }
+
+    @Test
+    void reserveShouldHoldNothingWhenAnyMaterialIsShort() {
+        screws.setReservedQuantity(new BigDecimal("3"));
+        givenBom();
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> reservationService.reserve(new StockReservationRequestDTO(10L, 3, null)));
+
+        assertEquals("Raw material RM2 has 2 available, 3 requested", ex.getMessage());
+        assertEquals(0, BigDecimal.ZERO.compareTo(wood.getReservedQuantity()));
+        verify(reservationRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void reserveShouldRejectTtlAboveTheMaximum() {
+        assertThrows(InvalidRequestException.class,
+                () -> reservationService.reserve(new StockReservationRequestDTO(10L, 1, 7200L)));
+        verify(rawMaterialRepository, never()).findAllByIdInForUpdate(any());
+    }
+
+    @Test
+    void reserveShouldRejectUnknownProduct() {
+        when(productRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> reservationService.reserve(new StockReservationRequestDTO(99L, 1, null)));
+    }
+
+    @Test
+    void releaseShouldReturnTheHeldStock() {
+        wood.setReservedQuantity(new BigDecimal("6"));
+        StockReservation reservation = reservation(5L, Instant.now());
+        when(reservationRepository.findByIdForUpdate(5L)).thenReturn(Optional.of(reservation));
+        when(rawMaterialRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(wood));
+
+        reservationService.release(5L);
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(wood.getReservedQuantity()));
+        verify(reservationRepository).delete(reservation);
+    }
+
+    @Test
+    void releaseShouldThrowWhenNotFound() {
+        when(reservationRepository.findByIdForUpdate(5L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> reservationService.release(5L));
+    }
+
+    @Test
+    void releaseExpiredShouldReleaseEachReservationInItsOwnTransaction() {
+        Instant now = Instant.parse("2026-10-19T12:00:00Z");
+        wood.setReservedQuantity(new BigDecimal("18"));
+        when(reservationRepository.findExpiredIds(now, Limit.of(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(reservationRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(reservation(1L, now)));
+        when(reservationRepository.findByIdForUpdate(2L)).thenReturn(Optional.empty());
+        when(reservationRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(reservation(3L, now.minusSeconds(1))));
+        when(rawMaterialRepository.findAllByIdInForUpdate(Set.of(1L))).thenReturn(List.of(wood));
+
+        assertEquals(2, reservationService.releaseExpired(now));
+
+        assertEquals(0, new BigDecimal("6").compareTo(wood.getReservedQuantity()));
+        verify(reservationRepository, times(2)).delete(any());
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    private void givenBom() {
+        when(productRepository.existsById(10L)).thenReturn(true);
+        when(prmRepository.findDTOsByProductId(10L)).thenReturn(List.of(
+                new ProductRawMaterialDTO(1L, 1L, "RM1", "Wood", new BigDecimal("2")),
+                new ProductRawMaterialDTO(2L, 2L, "RM2", "Screws", BigDecimal.ONE)));
+        when(rawMaterialRepository.findAllByIdInForUpdate(Set.of(1L, 2L))).thenReturn(List.of(wood, screws));
+    }
+
+    private StockReservation reservation(Long id, Instant expiresAt) {
+        StockReservation reservation = new StockReservation(10L, 3, expiresAt,
+                new ArrayList<>(List.of(new ReservedMaterial(1L, new BigDecimal("6")))));
+        reservation.setId(id);
+        return reservation;
+    }
+}
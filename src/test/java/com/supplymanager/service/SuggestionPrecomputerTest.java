@@ -0,0 +1,130 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ProductionSuggestionDTO;
+import com.supplymanager.domain.event.CatalogChangedEvent;
+import com.supplymanager.domain.event.CatalogChangedEvent.Action;
+import com.supplymanager.domain.event.CatalogChangedEvent.Resource;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.CapacityExceededException;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestionPrecomputerTest {
+
+    private static final CatalogChangedEvent CHANGE = new CatalogChangedEvent(Resource.RAW_MATERIAL, 1L, Action.UPDATED);
+
+    private final ProductionService productionService = mock(ProductionService.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+    private SuggestionPrecomputer precomputer;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findVersionStamp())
+                .thenReturn(new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z")));
+        when(rawMaterialRepository.findPlanningStamp())
+                .thenReturn(new VersionStamp(3L, 9L, Instant.parse("2026-01-06T08:00:00Z")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        precomputer.shutdown();
+    }
+
+    @Test
+    void shouldPublishThePlanWithItsDataVersion() {
+        ProductionSuggestionDTO suggestion = new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.TEN);
+        when(productionService.calculateSuggestion()).thenReturn(suggestion);
+        precomputer = precomputer(true, Duration.ofMillis(10));
+
+        assertThrows(CapacityExceededException.class, precomputer::latest);
+        precomputer.recompute();
+
+        SuggestionPrecomputer.Precomputed latest = precomputer.latest();
+        assertEquals(suggestion, latest.suggestion());
+        assertEquals("W/\"2-4-1767608130000.3-9-1767686400000\"", latest.eTag());
+        assertEquals(Instant.parse("2026-01-06T08:00:00Z").toEpochMilli(), latest.dataModifiedMillis());
+    }
+
+    @Test
+    void shouldComputeInAReadWriteTransactionSoItReadsThePrimary() {
+        when(productionService.calculateSuggestion())
+                .thenReturn(new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ONE));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        precomputer = new SuggestionPrecomputer(productionService, productRepository, rawMaterialRepository,
+                transactionManager, true, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        precomputer.recompute();
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertFalse(definition.getValue().isReadOnly());
+    }
+
+    @Test
+    void changesWithinTheDebounceShouldCoalesceIntoOneComputation() throws Exception {
+        CountDownLatch computed = new CountDownLatch(1);
+        when(productionService.calculateSuggestion()).thenAnswer(invocation -> {
+            computed.countDown();
+            return new ProductionSuggestionDTO(Collections.emptyList(), BigDecimal.ONE);
+        });
+        precomputer = precomputer(true, Duration.ofMillis(200));
+
+        for (int i = 0; i < 10; i++) {
+            precomputer.onCatalogChanged(CHANGE);
+        }
+
+        assertTrue(computed.await(5, TimeUnit.SECONDS));
+        awaitPublished();
+        verify(productionService, times(1)).calculateSuggestion();
+    }
+
+    @Test
+    void shouldNotComputeWhenDisabled() throws Exception {
+        precomputer = precomputer(false, Duration.ZERO);
+
+        precomputer.start();
+        precomputer.onCatalogChanged(CHANGE);
+        Thread.sleep(50);
+
+        assertFalse(precomputer.isEnabled());
+        verify(productionService, never()).calculateSuggestion();
+    }
+
+    private SuggestionPrecomputer precomputer(boolean enabled, Duration debounce) {
+        return new SuggestionPrecomputer(productionService, productRepository, rawMaterialRepository,
+                mock(PlatformTransactionManager.class), enabled, debounce, Duration.ofSeconds(5));
+    }
+
+    private void awaitPublished() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            try {
+                precomputer.latest();
+                return;
+            } catch (CapacityExceededException ex) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
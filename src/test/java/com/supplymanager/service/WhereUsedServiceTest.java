@@ -0,0 +1,136 @@
+package com.supplymanager.service;
+
+import com.supplymanager.domain.dto.ImpactDTO;
+import com.supplymanager.domain.dto.WhereUsedDTO;
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.ProductLabel;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import com.supplymanager.exception.InvalidRequestException;
+import com.supplymanager.exception.ResourceNotFoundException;
+import com.supplymanager.repository.ProductRawMaterialRepository;
+import com.supplymanager.repository.ProductRepository;
+import com.supplymanager.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WhereUsedServiceTest {
+
+    private static final VersionStamp VERSION = new VersionStamp(2L, 4L, Instant.parse("2026-01-05T10:15:30Z"));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Mock
+    private ProductRawMaterialRepository prmRepository;
+
+    private WhereUsedService whereUsedService;
+
+    @BeforeEach
+    void setUp() {
+        PlanningCatalogProvider catalogProvider = new PlanningCatalogProvider(productRepository,
+                rawMaterialRepository, prmRepository, mock(PlatformTransactionManager.class), "");
+        whereUsedService = new WhereUsedService(rawMaterialRepository, productRepository, catalogProvider);
+        lenient().when(productRepository.findVersionStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findPlanningStamp()).thenReturn(VERSION);
+        lenient().when(rawMaterialRepository.findAllStockLevels()).thenReturn(List.of(
+                new StockLevel(1L, new BigDecimal("3")),
+                new StockLevel(2L, new BigDecimal("8"))));
+        lenient().when(prmRepository.streamPlanningLines()).thenReturn(Stream.of(
+                new PlanningLine(10L, new BigDecimal("300"), 1L, new BigDecimal("1")),
+                new PlanningLine(10L, new BigDecimal("300"), 2L, new BigDecimal("2")),
+                new PlanningLine(20L, new BigDecimal("100"), 2L, new BigDecimal("1"))));
+        lenient().when(productRepository.findLabelsByIdIn(anyList())).thenReturn(List.of(
+                new ProductLabel(10L, "PA", "Product A"),
+                new ProductLabel(20L, "PB", "Product B")));
+    }
+
+    @Test
+    void shouldListProductsUsingTheMaterialInPlanningOrder() {
+        when(rawMaterialRepository.existsById(2L)).thenReturn(true);
+
+        WhereUsedDTO result = whereUsedService.whereUsed(2L);
+
+        assertEquals(2, result.products().size());
+        assertEquals("PA", result.products().get(0).productCode());
+        assertEquals(0, new BigDecimal("2").compareTo(result.products().get(0).requiredQuantity()));
+        assertEquals(3, result.products().get(0).plannedQuantity());
+        assertEquals("PB", result.products().get(1).productCode());
+        assertEquals(2, result.products().get(1).plannedQuantity());
+    }
+
+    @Test
+    void shouldReportKnockOnEffectsOfAShortage() {
+        when(rawMaterialRepository.existsById(1L)).thenReturn(true);
+
+        ImpactDTO result = whereUsedService.impact(1L, new BigDecimal("-3"));
+
+        assertEquals(2, result.affectedProducts().size());
+        assertEquals(-3, result.affectedProducts().get(0).quantityChange());
+        assertEquals(6, result.affectedProducts().get(1).quantityChange());
+        assertEquals(new BigDecimal("-300"), result.totalValueChange());
+    }
+
+    @Test
+    void shouldSkipProductsDeletedAfterTheBaselineWasBuilt() {
+        when(rawMaterialRepository.existsById(anyLong())).thenReturn(true);
+        when(productRepository.findLabelsByIdIn(anyList())).thenReturn(List.of(
+                new ProductLabel(20L, "PB", "Product B")));
+
+        WhereUsedDTO whereUsed = whereUsedService.whereUsed(2L);
+        ImpactDTO impact = whereUsedService.impact(1L, new BigDecimal("-3"));
+
+        assertEquals(1, whereUsed.products().size());
+        assertEquals("PB", whereUsed.products().get(0).productCode());
+        assertEquals(1, impact.affectedProducts().size());
+        assertEquals("PB", impact.affectedProducts().get(0).productCode());
+        assertEquals(new BigDecimal("600"), impact.totalValueChange());
+    }
+
+    @Test
+    void shouldRejectAStockChangeThatOverflows() {
+        when(rawMaterialRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InvalidRequestException.class,
+                () -> whereUsedService.impact(1L, new BigDecimal("922337203685477")));
+    }
+
+    @Test
+    void shouldReuseBaselineWhileVersionsAreUnchanged() {
+        when(rawMaterialRepository.existsById(1L)).thenReturn(true);
+
+        whereUsedService.impact(1L, new BigDecimal("-1"));
+        whereUsedService.whereUsed(1L);
+
+        verify(rawMaterialRepository, times(1)).findAllStockLevels();
+    }
+
+    @Test
+    void shouldThrowWhenRawMaterialNotFound() {
+        when(rawMaterialRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> whereUsedService.impact(99L, BigDecimal.ONE));
+    }
+}
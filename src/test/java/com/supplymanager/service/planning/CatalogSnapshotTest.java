@@ -0,0 +1,90 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import com.supplymanager.domain.projection.VersionStamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRoundTripStructureAndVersion() throws Exception {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(7L, new BigDecimal("199.90"), 30L, new BigDecimal("2.5")))
+                .add(new PlanningLine(7L, new BigDecimal("199.90"), 10L, new BigDecimal("1")))
+                .add(new PlanningLine(3L, new BigDecimal("50"), 30L, new BigDecimal("0.0001"), 40, 5, 2))
+                .build();
+        VersionStamp version = new VersionStamp(2L, 9L, Instant.parse("2026-03-01T08:00:00.123456Z"));
+        Path file = directory.resolve("catalog.bin");
+
+        CatalogSnapshot.write(file, catalog, version);
+        CatalogSnapshot.Mapped mapped = CatalogSnapshot.read(file).orElseThrow();
+        PlanningCatalog read = mapped.catalog();
+
+        assertEquals(version, mapped.version());
+        assertEquals(2, read.productCount());
+        assertEquals(3, read.lineCount());
+        assertEquals(2, read.materialCount());
+        assertEquals(7L, read.productId(0));
+        assertEquals(new BigDecimal("199.90"), read.productValue(0));
+        assertEquals(new BigDecimal("50"), read.productValue(1));
+        assertEquals(0, read.lineStart(0));
+        assertEquals(2, read.lineEnd(0));
+        assertEquals(3, read.lineEnd(1));
+        assertEquals(30L, read.materialId(read.lineMaterial(0)));
+        assertEquals(PlanningCatalog.toUnits(new BigDecimal("2.5")), read.lineRequired(0));
+        assertEquals(1L, read.lineRequired(2));
+        assertEquals(PlanningCatalog.UNLIMITED, read.maxUnits(0));
+        assertEquals(40, read.maxUnits(1));
+        assertEquals(5, read.minUnits(1));
+        assertEquals(2, read.committedUnits(1));
+        assertTrue(read.hasPriorities());
+
+        PlanningCatalog stocked = read.withStock(List.of(
+                new StockLevel(10L, new BigDecimal("4")),
+                new StockLevel(99L, new BigDecimal("1"))));
+        assertEquals(PlanningCatalog.toUnits(new BigDecimal("4")), stocked.stock(stocked.materialIndex(10L)));
+        assertEquals(0, stocked.stock(stocked.materialIndex(30L)));
+        assertTrue(stocked.materialIndex(99L) < 0);
+    }
+
+    @Test
+    void shouldKeepNullVersionFieldsOfAnEmptyCatalog() throws Exception {
+        VersionStamp version = new VersionStamp(0L, null, null);
+        Path file = directory.resolve("empty.bin");
+
+        CatalogSnapshot.write(file, PlanningCatalog.builder().build(), version);
+
+        CatalogSnapshot.Mapped mapped = CatalogSnapshot.read(file).orElseThrow();
+        assertEquals(version, mapped.version());
+        assertEquals(0, mapped.catalog().productCount());
+    }
+
+    @Test
+    void shouldIgnoreMissingOrTruncatedFiles() throws Exception {
+        Path file = directory.resolve("catalog.bin");
+        assertTrue(CatalogSnapshot.read(file).isEmpty());
+
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.ONE, 1L, BigDecimal.ONE))
+                .build();
+        CatalogSnapshot.write(file, catalog, new VersionStamp(1L, 0L, null));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+
+        assertTrue(CatalogSnapshot.read(file).isEmpty());
+    }
+}
@@ -0,0 +1,119 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImpactAnalysisTest {
+
+    @Test
+    void shouldIndexLinesByMaterialInPlanningOrder() {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(line(1L, "300", 20L, "1"))
+                .add(line(1L, "300", 10L, "2"))
+                .add(line(2L, "200", 10L, "1"))
+                .add(line(3L, "100", 30L, "1"))
+                .build();
+
+        WhereUsedIndex index = catalog.whereUsed();
+        int material = catalog.materialIndex(10L);
+
+        assertEquals(2, index.usageEnd(material) - index.usageStart(material));
+        assertEquals(0, index.lineProduct(index.usageLine(index.usageStart(material))));
+        assertEquals(1, index.lineProduct(index.usageLine(index.usageStart(material) + 1)));
+        assertSame(index, catalog.withStock(List.of()).whereUsed());
+    }
+
+    @Test
+    void shouldFollowFreedStockToProductsNotUsingTheMaterial() {
+        // P1 needs A and B; P2 needs only B. Losing A stops P1 and leaves its B to P2
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(line(1L, "300", 1L, "1"))
+                .add(line(1L, "300", 2L, "2"))
+                .add(line(2L, "100", 2L, "1"))
+                .build()
+                .withStock(List.of(stock(1L, "3"), stock(2L, "8")));
+        ImpactAnalysis.Baseline baseline = ImpactAnalysis.baseline(catalog);
+
+        List<ImpactAnalysis.Change> changes = ImpactAnalysis.evaluate(baseline, catalog.materialIndex(1L),
+                PlanningCatalog.toUnits(new BigDecimal("-3")));
+
+        assertEquals(List.of(
+                new ImpactAnalysis.Change(0, 3, 0),
+                new ImpactAnalysis.Change(1, 2, 8)), changes);
+    }
+
+    @Test
+    void shouldMatchAFullReplan() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int round = 0; round < 400; round++) {
+            PlanningCatalog.Builder builder = PlanningCatalog.builder();
+            int products = 1 + random.nextInt(12);
+            for (long product = 1; product <= products; product++) {
+                BigDecimal value = BigDecimal.valueOf(1000 - product);
+                // Odd rounds cap some products and the second half adds minimums and commitments, which
+                // the incremental evaluation must respect
+                Integer max = round % 2 == 1 && random.nextInt(3) == 0 ? random.nextInt(6) : null;
+                Integer min = round >= 100 && random.nextInt(3) == 0 ? random.nextInt(5) : null;
+                Integer committed = round >= 100 && random.nextInt(3) == 0 ? random.nextInt(4) : null;
+                for (int line = 0; line < 1 + random.nextInt(3); line++) {
+                    builder.add(new PlanningLine(product, value, (long) 1 + random.nextInt(5),
+                            BigDecimal.valueOf(1 + random.nextInt(4)), max, min, committed));
+                }
+            }
+            List<StockLevel> levels = new ArrayList<>();
+            for (long material = 1; material <= 5; material++) {
+                levels.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(30))));
+            }
+            PlanningCatalog catalog = builder.build().withStock(levels);
+            int material = random.nextInt(catalog.materialCount());
+            long delta = PlanningCatalog.toUnits(BigDecimal.valueOf(random.nextInt(-20, 21)));
+
+            ImpactAnalysis.Baseline baseline = ImpactAnalysis.baseline(catalog);
+            List<ImpactAnalysis.Change> changes = ImpactAnalysis.evaluate(baseline, material, delta);
+
+            long[] changedStock = catalog.stockCopy();
+            changedStock[material] += delta;
+            int[] replanned = GreedyPlanner.plan(catalog, changedStock);
+            List<ImpactAnalysis.Change> expected = new ArrayList<>();
+            for (int product = 0; product < replanned.length; product++) {
+                if (replanned[product] != baseline.units()[product]) {
+                    expected.add(new ImpactAnalysis.Change(product, baseline.units()[product], replanned[product]));
+                }
+            }
+            assertEquals(expected, changes, "round " + round);
+        }
+    }
+
+    @Test
+    void shouldFollowCommittedQuantitiesIncrementally() {
+        // P2 has 4 units committed, served before the more valuable P1
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(line(1L, "300", 1L, "2"))
+                .add(new PlanningLine(2L, new BigDecimal("100"), 1L, BigDecimal.ONE, null, null, 4))
+                .build()
+                .withStock(List.of(stock(1L, "10")));
+        ImpactAnalysis.Baseline baseline = ImpactAnalysis.baseline(catalog);
+        assertArrayEquals(new int[]{3, 4}, baseline.units());
+
+        List<ImpactAnalysis.Change> changes = ImpactAnalysis.evaluate(baseline, catalog.materialIndex(1L),
+                PlanningCatalog.toUnits(new BigDecimal("-4")));
+
+        assertEquals(List.of(new ImpactAnalysis.Change(0, 3, 1)), changes);
+    }
+
+    private static PlanningLine line(long productId, String value, long rawMaterialId, String required) {
+        return new PlanningLine(productId, new BigDecimal(value), rawMaterialId, new BigDecimal(required));
+    }
+
+    private static StockLevel stock(long rawMaterialId, String quantity) {
+        return new StockLevel(rawMaterialId, new BigDecimal(quantity));
+    }
+}
@@ -0,0 +1,120 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSearchTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldReleaseStockHoggedByTheMostValuableProduct() {
+        // Greedy plans 2 x A (20) and 1 x B (6); 5 x B is worth 30
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, new BigDecimal("4")))
+                .add(new PlanningLine(2L, new BigDecimal("6"), 1L, new BigDecimal("2")))
+                .build()
+                .withStock(List.of(new StockLevel(1L, BigDecimal.TEN)));
+        int[] greedy = GreedyPlanner.plan(catalog, catalog.stockCopy());
+
+        LocalSearch.Result result = LocalSearch.improve(catalog, greedy, Duration.ofMillis(200), 1, pool);
+
+        assertEquals(26, result.initialValue(), 1e-9);
+        assertEquals(30, result.value(), 1e-9);
+        assertArrayEquals(new int[]{0, 5}, result.units());
+        assertTrue(result.convergedNanos() <= result.elapsedNanos());
+        assertTrue(result.moves() > 0);
+    }
+
+    @Test
+    void shouldReturnFeasiblePlansNeverWorseThanGreedy() {
+        SplittableRandom random = new SplittableRandom(9);
+        for (int round = 0; round < 5; round++) {
+            PlanningCatalog.Builder builder = PlanningCatalog.builder();
+            for (long product = 1; product <= 80; product++) {
+                BigDecimal value = BigDecimal.valueOf(random.nextInt(100, 10_000), 2);
+                int firstMaterial = random.nextInt(30);
+                for (int line = 0; line < 1 + random.nextInt(4); line++) {
+                    // A product uses each material at most once, as in product_raw_material
+                    builder.add(new PlanningLine(product, value, (long) (firstMaterial + line * 7) % 30 + 1,
+                            BigDecimal.valueOf(random.nextInt(1, 8))));
+                }
+            }
+            List<StockLevel> levels = new ArrayList<>();
+            for (long material = 1; material <= 30; material++) {
+                levels.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(0, 120))));
+            }
+            PlanningCatalog catalog = builder.build().withStock(levels);
+            int[] greedy = GreedyPlanner.plan(catalog, catalog.stockCopy());
+
+            LocalSearch.Result result = LocalSearch.improve(catalog, greedy, Duration.ofMillis(50), round, pool);
+
+            assertTrue(result.value() >= result.initialValue() - 1e-9);
+            long[] stock = catalog.stockCopy();
+            double value = 0;
+            for (int product = 0; product < catalog.productCount(); product++) {
+                assertTrue(result.units()[product] >= 0);
+                for (int line = catalog.lineStart(product); line < catalog.lineEnd(product); line++) {
+                    stock[catalog.lineMaterial(line)] -= catalog.lineRequired(line) * result.units()[product];
+                }
+                value += result.units()[product] * catalog.productValue(product).doubleValue();
+            }
+            for (long remaining : stock) {
+                assertTrue(remaining >= 0, "round " + round);
+            }
+            assertEquals(value, result.value(), 1e-6);
+        }
+    }
+
+    @Test
+    void shouldLeaveThePoolToOtherWorkWhenWorkersAreBounded() throws Exception {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, new BigDecimal("4")))
+                .add(new PlanningLine(2L, new BigDecimal("6"), 1L, new BigDecimal("2")))
+                .build()
+                .withStock(List.of(new StockLevel(1L, BigDecimal.TEN)));
+        int[] greedy = GreedyPlanner.plan(catalog, catalog.stockCopy());
+
+        CompletableFuture<LocalSearch.Result> search = CompletableFuture.supplyAsync(
+                () -> LocalSearch.improve(catalog, greedy, Duration.ofSeconds(2), 1, pool, 1));
+        while (pool.getActiveThreadCount() == 0) {
+            Thread.onSpinWait();
+        }
+        long start = System.nanoTime();
+        pool.submit(() -> { }).get(1, TimeUnit.SECONDS);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertFalse(search.isDone());
+        assertEquals(30, search.get(5, TimeUnit.SECONDS).value(), 1e-9);
+    }
+
+    @Test
+    void shouldReturnTheInitialPlanWhenNothingIsPlanned() {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, BigDecimal.ONE))
+                .build();
+
+        LocalSearch.Result result = LocalSearch.improve(catalog, new int[1], Duration.ofSeconds(5), 1, pool);
+
+        assertArrayEquals(new int[1], result.units());
+        assertEquals(0, result.moves());
+    }
+}
@@ -0,0 +1,138 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaterialScheduleTest {
+
+    private static final long UNIT = 10_000; // one unit at QUANTITY_SCALE
+
+    @Test
+    void shouldProjectReceiptsAndDemandOverTheHorizon() {
+        // P1 needs 2 x M1 and 1 x M2; M1 has 10 in stock, M2 has 3
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, new BigDecimal("2")))
+                .add(new PlanningLine(1L, BigDecimal.TEN, 2L, BigDecimal.ONE))
+                .build()
+                .withStock(List.of(new StockLevel(1L, BigDecimal.TEN), new StockLevel(2L, new BigDecimal("3"))));
+        MaterialSchedule schedule = MaterialSchedule.of(catalog, 7);
+        schedule.addReceipt(1, 2, 5 * UNIT);
+        schedule.addDemand(0, 4, 3);
+        schedule.refresh();
+
+        assertEquals(10 * UNIT, schedule.onHand(0, 3));
+        assertEquals(4 * UNIT, schedule.onHand(0, 4));
+        assertEquals(8 * UNIT, schedule.onHand(1, 2));
+        assertEquals(5 * UNIT, schedule.onHand(1, 6));
+        // Stock promised to the order on day 4 is not available before it
+        assertEquals(4 * UNIT, schedule.available(0, 0));
+        assertEquals(3 * UNIT, schedule.available(1, 0));
+        assertEquals(2, schedule.feasible(0, 0));
+        assertEquals(2, schedule.feasible(0, 2));
+        assertEquals(2, schedule.feasible(0, 5));
+    }
+
+    @Test
+    void shouldReportNegativeProjectionAndNothingAvailableWhenDemandExceedsSupply() {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, BigDecimal.ONE))
+                .build()
+                .withStock(List.of(new StockLevel(1L, new BigDecimal("5"))));
+        MaterialSchedule schedule = MaterialSchedule.of(catalog, 5);
+        schedule.addDemand(0, 1, 8);
+        schedule.addReceipt(0, 3, 10 * UNIT);
+        schedule.refresh();
+
+        assertEquals(-3 * UNIT, schedule.onHand(0, 1));
+        assertEquals(0, schedule.available(0, 0));
+        assertEquals(0, schedule.available(0, 2));
+        assertEquals(7 * UNIT, schedule.available(0, 3));
+        assertEquals(0, schedule.feasible(0, 2));
+        assertEquals(7, schedule.feasible(0, 4));
+    }
+
+    @Test
+    void shouldRecomputeOnlyTheBucketsFromTheChangedDateOnward() {
+        PlanningCatalog catalog = PlanningCatalog.builder()
+                .add(new PlanningLine(1L, BigDecimal.TEN, 1L, BigDecimal.ONE))
+                .add(new PlanningLine(2L, BigDecimal.ONE, 2L, BigDecimal.ONE))
+                .build()
+                .withStock(List.of(new StockLevel(1L, BigDecimal.TEN), new StockLevel(2L, BigDecimal.TEN)));
+        MaterialSchedule schedule = MaterialSchedule.of(catalog, 28);
+        assertEquals(56, schedule.refresh());
+
+        schedule.addReceipt(0, 20, 4 * UNIT);
+        assertEquals(8, schedule.refresh());
+        assertEquals(10, schedule.feasible(0, 19));
+        assertEquals(14, schedule.feasible(0, 20));
+        assertEquals(0, schedule.refresh());
+    }
+
+    @Test
+    void incrementalUpdatesShouldMatchAFullRecomputation() {
+        SplittableRandom random = new SplittableRandom(47);
+        for (int round = 0; round < 100; round++) {
+            PlanningCatalog.Builder builder = PlanningCatalog.builder();
+            int products = 1 + random.nextInt(8);
+            for (int product = 0; product < products; product++) {
+                int firstMaterial = random.nextInt(30);
+                int lines = 1 + random.nextInt(3);
+                for (int line = 0; line < lines; line++) {
+                    builder.add(new PlanningLine(product + 1L, BigDecimal.valueOf(100 - product),
+                            (firstMaterial + line * 7) % 30 + 1L, BigDecimal.valueOf(1 + random.nextInt(5))));
+                }
+            }
+            List<StockLevel> stock = new ArrayList<>();
+            for (long material = 1; material <= 30; material++) {
+                stock.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(50))));
+            }
+            PlanningCatalog catalog = builder.build().withStock(stock);
+            int buckets = 1 + random.nextInt(20);
+
+            MaterialSchedule incremental = MaterialSchedule.of(catalog, buckets);
+            incremental.refresh();
+            List<int[]> changes = new ArrayList<>();
+            for (int change = 0; change < 20; change++) {
+                int[] next = random.nextBoolean()
+                        ? new int[]{0, random.nextInt(catalog.materialCount()), random.nextInt(buckets), random.nextInt(40) - 10}
+                        : new int[]{1, random.nextInt(catalog.productCount()), random.nextInt(buckets), random.nextInt(6)};
+                changes.add(next);
+                apply(incremental, next);
+                if (random.nextInt(3) == 0) incremental.refresh();
+            }
+            incremental.refresh();
+
+            MaterialSchedule full = MaterialSchedule.of(catalog, buckets);
+            changes.forEach(next -> apply(full, next));
+            full.refresh();
+
+            for (int material = 0; material < catalog.materialCount(); material++) {
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    assertEquals(full.onHand(material, bucket), incremental.onHand(material, bucket));
+                    assertEquals(full.available(material, bucket), incremental.available(material, bucket));
+                }
+            }
+            for (int product = 0; product < catalog.productCount(); product++) {
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    assertEquals(full.feasible(product, bucket), incremental.feasible(product, bucket));
+                }
+            }
+        }
+    }
+
+    private static void apply(MaterialSchedule schedule, int[] change) {
+        if (change[0] == 0) {
+            schedule.addReceipt(change[1], change[2], change[3] * UNIT);
+        } else {
+            schedule.addDemand(change[1], change[2], change[3]);
+        }
+    }
+}
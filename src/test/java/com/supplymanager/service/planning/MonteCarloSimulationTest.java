@@ -0,0 +1,155 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloSimulationTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldReproduceTheBaselinePlanWithoutUncertainty() {
+        PlanningCatalog catalog = catalog(new SplittableRandom(5));
+        int[] baseline = GreedyPlanner.plan(catalog, catalog.stockCopy());
+
+        MonteCarloSimulation.Result result = MonteCarloSimulation.run(
+                catalog, MonteCarloSimulation.Uncertainty.none(catalog), 300, 1, pool);
+
+        assertEquals(300, result.simulations());
+        double value = 0;
+        for (int product = 0; product < baseline.length; product++) {
+            value += baseline[product] * catalog.productValue(product).doubleValue();
+            assertEquals(baseline[product], result.unitsPercentile(product, 5));
+            assertEquals(baseline[product], result.unitsPercentile(product, 95));
+        }
+        assertEquals(value, result.totalValuePercentile(50), 1e-6);
+        assertEquals(value, result.meanTotalValue(), 1e-6);
+    }
+
+    @Test
+    void shouldBeDeterministicForASeedWhateverThePoolSize() {
+        PlanningCatalog catalog = catalog(new SplittableRandom(8));
+        MonteCarloSimulation.Uncertainty uncertainty = noisy(catalog);
+
+        MonteCarloSimulation.Result parallel = MonteCarloSimulation.run(catalog, uncertainty, 1000, 42, pool);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            MonteCarloSimulation.Result sequential = MonteCarloSimulation.run(catalog, uncertainty, 1000, 42, single);
+            for (double percentile : new double[]{1, 25, 50, 75, 99}) {
+                assertEquals(sequential.totalValuePercentile(percentile), parallel.totalValuePercentile(percentile));
+                for (int product = 0; product < catalog.productCount(); product++) {
+                    assertEquals(sequential.unitsPercentile(product, percentile),
+                            parallel.unitsPercentile(product, percentile));
+                }
+            }
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldSpreadTotalsUnderUncertainty() {
+        PlanningCatalog catalog = catalog(new SplittableRandom(13));
+
+        MonteCarloSimulation.Result result = MonteCarloSimulation.run(catalog, noisy(catalog), 2000, 7, pool);
+
+        assertTrue(result.totalValuePercentile(5) < result.totalValuePercentile(50));
+        assertTrue(result.totalValuePercentile(50) < result.totalValuePercentile(95));
+    }
+
+    @Test
+    void histogramShouldBeExactWithinItsRange() {
+        SplittableRandom random = new SplittableRandom(21);
+        UnitHistogram histogram = new UnitHistogram();
+        int[] values = new int[5000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000 + random.nextInt(UnitHistogram.MAX_BUCKETS);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{0, 1, 10, 50, 90, 99, 100}) {
+            int rank = (int) Math.max(1, Math.ceil(percentile / 100 * values.length));
+            assertEquals(values[rank - 1], histogram.percentile(percentile), "p" + percentile);
+        }
+    }
+
+    @Test
+    void histogramShouldStayExactWhenTheRangeGrowsBothWays() {
+        // The spare buckets left by growing must not count towards the range, or it coarsens too early
+        SplittableRandom random = new SplittableRandom(13);
+        UnitHistogram histogram = new UnitHistogram();
+        int[] values = new int[64];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 50_000 + random.nextInt(-2000, 2000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : new double[]{0, 10, 50, 90, 100}) {
+            int rank = (int) Math.max(1, Math.ceil(percentile / 100 * values.length));
+            assertEquals(values[rank - 1], histogram.percentile(percentile), "p" + percentile);
+        }
+    }
+
+    @Test
+    void histogramShouldStayWithinABucketWhenCoarsened() {
+        SplittableRandom random = new SplittableRandom(34);
+        UnitHistogram histogram = new UnitHistogram();
+        int[] values = new int[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        // 1,000,000 distinct values over 4096 buckets are at most 256 wide
+        for (double percentile : new double[]{1, 50, 99}) {
+            int rank = (int) Math.ceil(percentile / 100 * values.length);
+            assertEquals(values[rank - 1], histogram.percentile(percentile), 256, "p" + percentile);
+        }
+        assertEquals(values.length, histogram.total());
+    }
+
+    private static PlanningCatalog catalog(SplittableRandom random) {
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        for (long product = 1; product <= 40; product++) {
+            BigDecimal value = BigDecimal.valueOf(10_000 - product * 11, 2);
+            for (int line = 0; line < 1 + random.nextInt(3); line++) {
+                builder.add(new PlanningLine(product, value, (long) random.nextInt(1, 21),
+                        BigDecimal.valueOf(random.nextInt(1, 5))));
+            }
+        }
+        List<StockLevel> levels = new ArrayList<>();
+        for (long material = 1; material <= 20; material++) {
+            levels.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(10, 200))));
+        }
+        return builder.build().withStock(levels);
+    }
+
+    private static MonteCarloSimulation.Uncertainty noisy(PlanningCatalog catalog) {
+        MonteCarloSimulation.Uncertainty uncertainty = MonteCarloSimulation.Uncertainty.none(catalog);
+        for (int material = 0; material < catalog.materialCount(); material++) {
+            uncertainty.stdDevUnits()[material] = catalog.stock(material) / 5;
+            uncertainty.incomingUnits()[material] = PlanningCatalog.toUnits(BigDecimal.TEN);
+            uncertainty.incomingProbability()[material] = 0.3;
+        }
+        return uncertainty;
+    }
+}
@@ -0,0 +1,74 @@
+package com.supplymanager.service.planning;
+
+import com.supplymanager.domain.projection.PlanningLine;
+import com.supplymanager.domain.projection.StockLevel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SensitivitySweepTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void shouldMatchFullReplansForEveryMaterialAndStep() {
+        SplittableRandom random = new SplittableRandom(3);
+        PlanningCatalog.Builder builder = PlanningCatalog.builder();
+        for (long product = 1; product <= 60; product++) {
+            BigDecimal value = BigDecimal.valueOf(10_000 - product * 7, 2);
+            for (int line = 0; line < 1 + random.nextInt(4); line++) {
+                builder.add(new PlanningLine(product, value, (long) random.nextInt(1, 41),
+                        BigDecimal.valueOf(random.nextInt(1, 6))));
+            }
+        }
+        List<StockLevel> levels = new ArrayList<>();
+        for (long material = 1; material <= 40; material++) {
+            levels.add(new StockLevel(material, BigDecimal.valueOf(random.nextInt(0, 60))));
+        }
+        PlanningCatalog catalog = builder.build().withStock(levels);
+        long[] steps = {PlanningCatalog.toUnits(BigDecimal.ONE), PlanningCatalog.toUnits(BigDecimal.TEN),
+                PlanningCatalog.toUnits(new BigDecimal("-5"))};
+
+        ImpactAnalysis.Baseline baseline = ImpactAnalysis.baseline(catalog);
+        BigDecimal[][] gains = SensitivitySweep.run(baseline, steps, pool);
+
+        BigDecimal baselineValue = value(catalog, baseline.units());
+        for (int material = 0; material < catalog.materialCount(); material++) {
+            for (int step = 0; step < steps.length; step++) {
+                long[] stock = catalog.stockCopy();
+                stock[material] += steps[step];
+                BigDecimal expected = value(catalog, GreedyPlanner.plan(catalog, stock)).subtract(baselineValue);
+                assertEquals(0, expected.compareTo(gains[material][step]), "material " + material + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    void shouldHandleAnEmptyCatalog() {
+        PlanningCatalog catalog = PlanningCatalog.builder().build();
+
+        BigDecimal[][] gains = SensitivitySweep.run(ImpactAnalysis.baseline(catalog), new long[]{1}, pool);
+
+        assertEquals(0, gains.length);
+    }
+
+    private static BigDecimal value(PlanningCatalog catalog, int[] units) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int product = 0; product < units.length; product++) {
+            total = total.add(catalog.productValue(product).multiply(BigDecimal.valueOf(units[product])));
+        }
+        return total;
+    }
+}